@@ -6,11 +6,25 @@ import handlers.*;
 
 public class YoutubePlayerStreamHandler extends SkillStreamHandler {
 
+    // created once per container, warm invocations reuse it
+    private static final ExtractionRuntime RUNTIME = ExtractionRuntime.create();
+    private static final StreamResolver RESOLVER = new StreamResolver(RUNTIME);
+    private static final Skill SKILL = getSkill();
+
+    static {
+        if (Warmup.isEnabled()) {
+            Warmup.prime(SKILL);
+        }
+        Warmup.registerCheckpointHook(RUNTIME);
+    }
+
     private static Skill getSkill() {
         return Skills.standard()
                 .addRequestHandlers(
                         new CancelandStopIntentHandler(),
-                        new YoutubePlayIntentHandler(),
+                        new YoutubePlayIntentHandler(RUNTIME, RESOLVER),
+                        new PlaybackNearlyFinishedHandler(RESOLVER),
+                        new AudioPlayerEventHandler(),
                         new HelpIntentHandler(),
                         new LaunchRequestHandler(),
                         new SessionEndedRequestHandler())
@@ -18,7 +32,7 @@ public class YoutubePlayerStreamHandler extends SkillStreamHandler {
     }
 
     public YoutubePlayerStreamHandler() {
-        super(getSkill());
+        super(SKILL);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package handlers;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.EntityUtils;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.downloader.AsyncDownloader;
+import org.schabi.newpipe.extractor.downloader.DownloadCallback;
+import org.schabi.newpipe.extractor.downloader.DownloadFuture;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link AsyncDownloader} backed by the NIO client of Apache HttpComponents.
+ * <p>
+ * All connections are multiplexed on the selectors of a few I/O dispatcher threads, so no thread waits
+ * for a response while it is in flight, and hundreds of requests only take as many sockets.
+ * Bodies are buffered while they arrive and handed to the future once complete.
+ * <p>
+ * The client is started by the first request, {@link #shutdown()} closes its connections and threads
+ * and the next request starts it again.
+ */
+public class AsyncHttpDownloader implements AsyncDownloader {
+
+    private static final int IO_THREADS = 2;
+    private static final int MAX_CONNECTIONS = 256;
+    private static final int MAX_CONNECTIONS_PER_HOST = 32;
+    private static final int TIMEOUT_MILLIS = 30_000;
+    private static final ContentType FORM = ContentType.create("application/x-www-form-urlencoded",
+            StandardCharsets.UTF_8);
+
+    private final String userAgent;
+
+    private CloseableHttpAsyncClient client;
+
+    public AsyncHttpDownloader(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public Future<DownloadResponse> getAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+        return execute(new HttpGet(siteUrl), request, callback);
+    }
+
+    @Override
+    public Future<DownloadResponse> postAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+        HttpPost post = new HttpPost(siteUrl);
+        String body = request.getRequestBody() == null ? "" : request.getRequestBody();
+        post.setEntity(new StringEntity(body, FORM));
+        return execute(post, request, callback);
+    }
+
+    /**
+     * Close all connections and stop the I/O threads, e.g. before the container gets frozen.
+     */
+    public synchronized void shutdown() {
+        if (client == null) return;
+        try {
+            client.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        client = null;
+    }
+
+    private Future<DownloadResponse> execute(final HttpRequestBase httpRequest, DownloadRequest request,
+                                             DownloadCallback callback) {
+        // add default cookies
+        String cookies = Downloader.getCookies();
+        if (cookies.length() > 0) {
+            httpRequest.addHeader("Cookie", cookies);
+        }
+        for (Map.Entry<String, List<String>> pair : request.getRequestHeaders().entrySet()) {
+            for (String value : pair.getValue()) {
+                httpRequest.addHeader(pair.getKey(), value);
+            }
+        }
+
+        final AtomicReference<Future<HttpResponse>> call = new AtomicReference<>();
+        final DownloadFuture future = new DownloadFuture(callback) {
+            @Override
+            protected void onCancel() {
+                Future<HttpResponse> started = call.get();
+                if (started != null) started.cancel(true);
+            }
+        };
+        call.set(client().execute(httpRequest, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    future.complete(toDownloadResponse(httpRequest, response));
+                } catch (IOException | ReCaptchaException e) {
+                    future.fail(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                if (e instanceof UnknownHostException) {
+                    future.fail(new IOException("unknown host or no network", e));
+                } else {
+                    future.fail(e instanceof IOException ? e : new IOException(e));
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        }));
+        // cancelled before the call was known
+        if (future.isCancelled()) call.get().cancel(true);
+        return future;
+    }
+
+    private synchronized CloseableHttpAsyncClient client() {
+        if (client == null) {
+            IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                    .setIoThreadCount(IO_THREADS)
+                    .setConnectTimeout(TIMEOUT_MILLIS)
+                    .setSoTimeout(TIMEOUT_MILLIS)
+                    .build();
+            PoolingNHttpClientConnectionManager connectionManager;
+            try {
+                connectionManager = new PoolingNHttpClientConnectionManager(
+                        new DefaultConnectingIOReactor(reactorConfig, new DaemonThreadFactory()));
+            } catch (IOReactorException e) {
+                throw new UncheckedIOException(e);
+            }
+            connectionManager.setMaxTotal(MAX_CONNECTIONS);
+            connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+
+            client = HttpAsyncClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout(TIMEOUT_MILLIS)
+                            .setSocketTimeout(TIMEOUT_MILLIS)
+                            // the cookies of the downloader are sent with every request instead
+                            .setCookieSpec(CookieSpecs.IGNORE_COOKIES)
+                            .build())
+                    .setUserAgent(userAgent)
+                    // runs the reactor which dispatches to the I/O threads
+                    .setThreadFactory(new DaemonThreadFactory())
+                    .build();
+            client.start();
+        }
+        return client;
+    }
+
+    /**
+     * Read the response like {@link OkHttpDownloader} does: failed responses are exceptions
+     * and header names are lower case.
+     */
+    private static DownloadResponse toDownloadResponse(HttpRequestBase request, HttpResponse response)
+            throws IOException, ReCaptchaException {
+        int code = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        // 304 is only sent for conditional requests, which want to know it
+        if ((code < 200 || code >= 300) && code != 304) {
+            EntityUtils.consumeQuietly(entity);
+            /*
+             * HTTP 429 == Too Many Request Receive from Youtube.com = ReCaptcha challenge
+             * request See : https://github.com/rg3/youtube-dl/issues/5138
+             */
+            if (code == 429) {
+                throw new ReCaptchaException("reCaptcha Challenge requested", request.getURI().toString());
+            }
+            throw new HttpResponseException(code, code + " " + response.getStatusLine().getReasonPhrase());
+        }
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : response.getAllHeaders()) {
+            headers.computeIfAbsent(header.getName().toLowerCase(Locale.US), name -> new ArrayList<>())
+                    .add(header.getValue());
+        }
+        String body = entity == null ? "" : EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        return new DownloadResponse(code, body, headers);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "http-io-" + count.incrementAndGet());
+            // never keep the container alive just because of the reactor
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package handlers;
+
+import com.amazon.ask.dispatcher.request.handler.HandlerInput;
+import com.amazon.ask.dispatcher.request.handler.RequestHandler;
+import com.amazon.ask.model.Response;
+import com.amazon.ask.model.interfaces.audioplayer.PlaybackFailedRequest;
+import com.amazon.ask.model.interfaces.audioplayer.PlaybackFinishedRequest;
+import com.amazon.ask.model.interfaces.audioplayer.PlaybackStartedRequest;
+import com.amazon.ask.model.interfaces.audioplayer.PlaybackStoppedRequest;
+import com.amazon.ask.request.Predicates;
+
+import java.util.Optional;
+
+/**
+ * Acknowledges the AudioPlayer events the skill has nothing to do for.
+ * Alexa expects a response to each of them, but it must not contain any speech.
+ */
+public class AudioPlayerEventHandler implements RequestHandler {
+
+    @Override
+    public boolean canHandle(HandlerInput input) {
+        return input.matches(Predicates.requestType(PlaybackStartedRequest.class)
+                .or(Predicates.requestType(PlaybackStoppedRequest.class))
+                .or(Predicates.requestType(PlaybackFinishedRequest.class))
+                .or(Predicates.requestType(PlaybackFailedRequest.class)));
+    }
+
+    @Override
+    public Optional<Response> handle(HandlerInput input) {
+        return input.getResponseBuilder().build();
+    }
+}
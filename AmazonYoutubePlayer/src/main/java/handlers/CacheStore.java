@@ -0,0 +1,21 @@
+package handlers;
+
+/**
+ * Backing store of the {@link ResolvedStreamCache}.
+ * <p>
+ * Implementations have to be safe to use from multiple threads.
+ */
+public interface CacheStore {
+
+    /**
+     * @return the value or null if there is none or it has expired
+     */
+    String get(String key);
+
+    /**
+     * @param expiresAt time in milliseconds since the epoch after which the value must not be returned anymore
+     */
+    void put(String key, String value, long expiresAt);
+
+    void remove(String key);
+}
@@ -2,6 +2,7 @@ package handlers;
 
 import org.schabi.newpipe.extractor.DownloadRequest;
 import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.utils.Localization;
 
@@ -123,15 +124,7 @@ public class Downloader implements org.schabi.newpipe.extractor.Downloader {
             // Toast.makeText(getActivity(), uhe.getMessage(),
             // Toast.LENGTH_LONG).show();
         } catch (Exception e) {
-            /*
-             * HTTP 429 == Too Many Request Receive from Youtube.com = ReCaptcha challenge
-             * request See : https://github.com/rg3/youtube-dl/issues/5138
-             */
-            if (con.getResponseCode() == 429) {
-                throw new ReCaptchaException("reCaptcha Challenge requested", con.getURL().toString());
-            }
-
-            throw new IOException(con.getResponseCode() + " " + con.getResponseMessage(), e);
+            throw requestFailed(con, e);
         } finally {
             if (in != null) {
                 in.close();
@@ -141,6 +134,26 @@ public class Downloader implements org.schabi.newpipe.extractor.Downloader {
         return response.toString();
     }
 
+    /**
+     * @return the exception to throw for a failed request, a {@link HttpResponseException}
+     * if the server answered with an error
+     */
+    private static IOException requestFailed(HttpsURLConnection con, Exception e)
+            throws IOException, ReCaptchaException {
+        final int responseCode = con.getResponseCode();
+        /*
+         * HTTP 429 == Too Many Request Receive from Youtube.com = ReCaptcha challenge
+         * request See : https://github.com/rg3/youtube-dl/issues/5138
+         */
+        if (responseCode == 429) {
+            throw new ReCaptchaException("reCaptcha Challenge requested", con.getURL().toString());
+        }
+        if (responseCode >= 400) {
+            return new HttpResponseException(responseCode, responseCode + " " + con.getResponseMessage(), e);
+        }
+        return new IOException(responseCode + " " + con.getResponseMessage(), e);
+    }
+
     private static void setDefaults(HttpsURLConnection con) {
 
         con.setConnectTimeout(30 * 1000);// 30s
@@ -217,6 +230,8 @@ public class Downloader implements org.schabi.newpipe.extractor.Downloader {
             while ((inputLine = in.readLine()) != null) {
                 sb.append(inputLine);
             }
+        } catch (IOException e) {
+            throw requestFailed(con, e);
         }
         return new DownloadResponse(sb.toString(), con.getHeaderFields());
     }
@@ -0,0 +1,219 @@
+package handlers;
+
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.downloader.CachePolicy;
+import org.schabi.newpipe.extractor.downloader.CachingDownloader;
+import org.schabi.newpipe.extractor.downloader.CoalescingDownloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.services.soundcloud.SoundcloudClientIdManager;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeDecryptionCache;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeSearchExtractor;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamExtractor;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+/**
+ * Everything the handlers need to run the extractor, set up once per Lambda container.
+ * <p>
+ * Creating the runtime initialises NewPipe with the pooled downloader, so warm invocations
+ * reuse its connections, the compiled signature decryption code and the service singletons
+ * and only have to pay for the network requests themselves. Concurrent requests for the same
+ * resource, e.g. the watch page of a popular song, share one call of the downloader, and cacheable
+ * responses like the player script are kept in memory and next to the stream cache.
+ */
+public class ExtractionRuntime {
+
+    private static final int MEMORY_CACHE_ENTRIES = 512;
+    private static final long HTTP_MEMORY_CACHE_SIZE = 16 * 1024 * 1024;
+    private static final long HTTP_DISK_CACHE_SIZE = 128 * 1024 * 1024;
+
+    private final OkHttpDownloader httpDownloader;
+    private final CachingDownloader httpCache;
+    private final CoalescingDownloader downloader;
+    private final Localization localization;
+    private final StreamingService service;
+    private final YoutubeDecryptionCache decryptionCache;
+    private final ResolvedStreamCache streamCache;
+    private final ExecutorService executor;
+
+    private ExtractionRuntime(OkHttpDownloader httpDownloader,
+                              CachingDownloader httpCache,
+                              Localization localization,
+                              StreamingService service,
+                              YoutubeDecryptionCache decryptionCache,
+                              ResolvedStreamCache streamCache,
+                              ExecutorService executor) {
+        this.httpDownloader = httpDownloader;
+        this.httpCache = httpCache;
+        // misses of the cache are shared as well
+        this.downloader = new CoalescingDownloader(httpCache);
+        this.localization = localization;
+        this.service = service;
+        this.decryptionCache = decryptionCache;
+        this.streamCache = streamCache;
+        this.executor = executor;
+    }
+
+    /**
+     * Create the runtime and initialise NewPipe with it. Should only be called once per container.
+     */
+    public static ExtractionRuntime create() {
+        OkHttpDownloader httpDownloader = OkHttpDownloader.getInstance();
+        CacheStore cacheStore = createCacheStore();
+        ExtractionRuntime runtime = new ExtractionRuntime(httpDownloader,
+                createHttpCache(httpDownloader),
+                new Localization("GB", "en"),
+                YouTube,
+                YoutubeDecryptionCache.getInstance(),
+                new ResolvedStreamCache(cacheStore),
+                Executors.newCachedThreadPool(new DaemonThreadFactory()));
+        NewPipe.init(runtime.downloader, runtime.localization);
+
+        // nothing is fetched here, the id is only kept for the next container and refreshed in the background
+        SoundcloudClientIdManager clientIdManager = SoundcloudClientIdManager.getInstance();
+        clientIdManager.setExecutor(runtime.executor);
+        clientIdManager.setStore(new ClientIdStore(cacheStore));
+        return runtime;
+    }
+
+    /**
+     * Keep cacheable responses in memory and, like the stream cache, below {@code SKILL_CACHE_DIR} if it is set.
+     */
+    private static CachingDownloader createHttpCache(OkHttpDownloader httpDownloader) {
+        CachingDownloader cache = null;
+        String directory = System.getenv("SKILL_CACHE_DIR");
+        if (directory != null && !directory.isEmpty()) {
+            try {
+                cache = new CachingDownloader(httpDownloader, HTTP_MEMORY_CACHE_SIZE,
+                        Paths.get(directory, "http").toFile(), HTTP_DISK_CACHE_SIZE);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (cache == null) {
+            cache = new CachingDownloader(httpDownloader, HTTP_MEMORY_CACHE_SIZE);
+        }
+        // conferences hardly change, keep them even if the api does not say so
+        cache.setPolicy("api.media.ccc.de", CachePolicy.maxAge(15, TimeUnit.MINUTES));
+        return cache;
+    }
+
+    /**
+     * Keep the cache in the directory given by the {@code SKILL_CACHE_DIR} environment variable
+     * or in memory if it is not set (or can not be used).
+     */
+    private static CacheStore createCacheStore() {
+        String directory = System.getenv("SKILL_CACHE_DIR");
+        if (directory != null && !directory.isEmpty()) {
+            try {
+                return new FileCacheStore(Paths.get(directory));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new MemoryCacheStore(MEMORY_CACHE_ENTRIES);
+    }
+
+    /**
+     * @return a search extractor which collects the results without parsing the whole page
+     */
+    public YoutubeSearchExtractor getSearchExtractor(String query) throws ExtractionException {
+        YoutubeSearchExtractor extractor = (YoutubeSearchExtractor) service.getSearchExtractor(query);
+        extractor.setStreaming(true);
+        return extractor;
+    }
+
+    public YoutubeStreamExtractor getStreamExtractor(String url) throws ExtractionException {
+        return (YoutubeStreamExtractor) service.getStreamExtractor(url);
+    }
+
+    /**
+     * @return the downloader NewPipe was initialised with
+     */
+    public CoalescingDownloader getDownloader() {
+        return downloader;
+    }
+
+    /**
+     * @return the http cache, e.g. for its hit counts
+     */
+    public CachingDownloader getHttpCache() {
+        return httpCache;
+    }
+
+    /**
+     * Close all idle connections of the downloader.
+     */
+    public void evictConnections() {
+        httpDownloader.evictConnections();
+    }
+
+    public Localization getLocalization() {
+        return localization;
+    }
+
+    public StreamingService getService() {
+        return service;
+    }
+
+    public YoutubeDecryptionCache getDecryptionCache() {
+        return decryptionCache;
+    }
+
+    public ResolvedStreamCache getStreamCache() {
+        return streamCache;
+    }
+
+    /**
+     * Executor for extractions running in parallel to the request, e.g. by the {@link StreamResolver}.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Keeps the state of the SoundCloud client id manager next to the resolved streams.
+     */
+    private static class ClientIdStore implements SoundcloudClientIdManager.Store {
+        private static final String KEY = "soundcloud-client-id";
+        private static final long TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+        private final CacheStore store;
+
+        ClientIdStore(CacheStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public String load() {
+            return store.get(KEY);
+        }
+
+        @Override
+        public void save(String state) {
+            store.put(KEY, state, System.currentTimeMillis() + TTL_MILLIS);
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "extraction-" + count.incrementAndGet());
+            // never keep the container alive just because of an idle worker
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
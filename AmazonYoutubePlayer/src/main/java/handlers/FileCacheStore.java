@@ -0,0 +1,178 @@
+package handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CacheStore} keeping one file per entry in a directory, e.g. below /tmp,
+ * so the entries survive as long as the directory does.
+ * <p>
+ * The first line of a file is the expiry time, the rest is the value.
+ * Files are written to a temporary file first and then moved into place,
+ * so readers never see a partially written entry.
+ * When the files take more than the maximum size, the least recently used ones are deleted,
+ * which also removes expired entries that are never asked for again.
+ */
+public class FileCacheStore implements CacheStore {
+
+    public static final long DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+    // hex digits of a SHA-1 hash
+    private static final int NAME_LENGTH = 40;
+
+    private final Path directory;
+    private final long maxSize;
+    private long size;
+
+    public FileCacheStore(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the number of bytes the files may take
+     */
+    public FileCacheStore(Path directory, long maxSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        for (Path file : listEntries()) {
+            size += sizeOf(file);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        Path file = fileOf(key);
+        try {
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            int newline = content.indexOf('\n');
+            if (newline == -1 || Long.parseLong(content.substring(0, newline)) <= System.currentTimeMillis()) {
+                delete(file);
+                return null;
+            }
+            touch(file);
+            return content.substring(newline + 1);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, String value, long expiresAt) {
+        Path file = fileOf(key);
+        try {
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temp, (expiresAt + "\n" + value).getBytes(StandardCharsets.UTF_8));
+            synchronized (this) {
+                size -= sizeOf(file);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                size += sizeOf(file);
+                if (size > maxSize) trim();
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        try {
+            delete(fileOf(key));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Delete the least recently used files until the directory only takes three quarters of its size.
+     */
+    private void trim() throws IOException {
+        List<Path> files = listEntries();
+        // read every time only once, they change while sorting
+        Map<Path, Long> lastModified = new HashMap<>();
+        for (Path file : files) {
+            try {
+                lastModified.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (NoSuchFileException e) {
+                lastModified.put(file, 0L);
+            }
+        }
+        files.sort(Comparator.comparing(lastModified::get));
+
+        for (Path file : files) {
+            if (size <= maxSize / 4 * 3) break;
+            delete(file);
+        }
+    }
+
+    /**
+     * The modification time orders the files for trimming.
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // deleted in the meantime
+        }
+    }
+
+    private synchronized void delete(Path file) throws IOException {
+        long length = sizeOf(file);
+        if (Files.deleteIfExists(file)) size -= length;
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                // entries are named by their hash, temporary files and other directories are left alone
+                if (file.getFileName().toString().length() == NAME_LENGTH && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private Path fileOf(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(NAME_LENGTH);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return directory.resolve(name.toString());
+        } catch (NoSuchAlgorithmException e) {
+            // every jvm has to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package handlers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link CacheStore} keeping at most a fixed number of entries in memory,
+ * the least recently used entries are evicted first.
+ */
+public class MemoryCacheStore implements CacheStore {
+
+    private final Map<String, CachedValue> entries;
+
+    public MemoryCacheStore(final int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1");
+        entries = new LinkedHashMap<String, CachedValue>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedValue> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        CachedValue entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(String key, String value, long expiresAt) {
+        entries.put(key, new CachedValue(value, expiresAt));
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class CachedValue {
+        final String value;
+        final long expiresAt;
+
+        CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
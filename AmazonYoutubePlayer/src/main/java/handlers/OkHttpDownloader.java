@@ -0,0 +1,240 @@
+package handlers;
+
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.downloader.AsyncDownloader;
+import org.schabi.newpipe.extractor.downloader.DownloadCallback;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
+import org.schabi.newpipe.extractor.downloader.StreamingDownloader;
+import org.schabi.newpipe.extractor.downloader.StreamingResponse;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link org.schabi.newpipe.extractor.Downloader} backed by a single {@link OkHttpClient}.
+ * <p>
+ * Connections are kept alive in a pool and multiplexed over HTTP/2 where the server supports it,
+ * so the search, watch page, player and video info requests of one play intent share
+ * their TLS handshakes. Bodies are gzip decoded transparently and returned unmodified
+ * (unlike {@link Downloader}, which drops all line breaks).
+ * <p>
+ * The asynchronous methods are run by an {@link AsyncHttpDownloader}, as OkHttp 3 runs every call
+ * in flight on a dispatcher thread of its own. Its NIO client keeps any number of calls in flight
+ * on two I/O threads, it is only started by the first asynchronous request.
+ * Streaming responses hand out the body of the call as it arrives, closing them early releases
+ * the connection without reading the rest.
+ */
+public class OkHttpDownloader implements org.schabi.newpipe.extractor.Downloader, AsyncDownloader,
+        StreamingDownloader {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:43.0) Gecko/20100101 Firefox/43.0";
+    private static final MediaType FORM = MediaType.parse("application/x-www-form-urlencoded; charset=utf-8");
+
+    private static volatile OkHttpDownloader instance = null;
+
+    private final OkHttpClient client;
+    private final AsyncHttpDownloader asyncDownloader = new AsyncHttpDownloader(USER_AGENT);
+
+    private OkHttpDownloader(OkHttpClient client) {
+        this.client = client;
+    }
+
+    public static OkHttpDownloader getInstance() {
+        if (instance == null) {
+            synchronized (OkHttpDownloader.class) {
+                if (instance == null) {
+                    instance = new OkHttpDownloader(new OkHttpClient.Builder()
+                            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+                            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                            .connectTimeout(30, TimeUnit.SECONDS)
+                            .readTimeout(30, TimeUnit.SECONDS)
+                            .build());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Close all idle connections and those of the asynchronous client, e.g. before the container gets frozen.
+     */
+    public void evictConnections() {
+        client.connectionPool().evictAll();
+        asyncDownloader.shutdown();
+    }
+
+    @Override
+    public String download(String siteUrl, Localization localization) throws IOException, ReCaptchaException {
+        return download(siteUrl, Collections.singletonMap("Accept-Language", localization.getLanguage()));
+    }
+
+    @Override
+    public String download(String siteUrl, Map<String, String> customProperties)
+            throws IOException, ReCaptchaException {
+        Request.Builder builder = newRequest(siteUrl);
+        for (Map.Entry<String, String> pair : customProperties.entrySet()) {
+            builder.header(pair.getKey(), pair.getValue());
+        }
+        try (Response response = execute(builder)) {
+            return readBody(response.body());
+        }
+    }
+
+    @Override
+    public String download(String siteUrl) throws IOException, ReCaptchaException {
+        return download(siteUrl, Collections.<String, String>emptyMap());
+    }
+
+    @Override
+    public DownloadResponse get(String siteUrl, DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        Request.Builder builder = newRequest(siteUrl);
+        addHeaders(builder, request);
+        try (Response response = execute(builder)) {
+            return new DownloadResponse(response.code(), readBody(response.body()),
+                    response.headers().toMultimap());
+        }
+    }
+
+    @Override
+    public DownloadResponse get(String siteUrl) throws IOException, ReCaptchaException {
+        return get(siteUrl, DownloadRequest.emptyRequest);
+    }
+
+    @Override
+    public DownloadResponse post(String siteUrl, DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        Request.Builder builder = newRequest(siteUrl);
+        addHeaders(builder, request);
+        String body = request.getRequestBody() == null ? "" : request.getRequestBody();
+        builder.post(RequestBody.create(FORM, body));
+        try (Response response = execute(builder)) {
+            return new DownloadResponse(response.code(), readBody(response.body()),
+                    response.headers().toMultimap());
+        }
+    }
+
+    @Override
+    public StreamingResponse getStreaming(String siteUrl, DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        Request.Builder builder = newRequest(siteUrl);
+        addHeaders(builder, request);
+        Response response = execute(builder);
+        ResponseBody body = response.body();
+        if (body == null) {
+            response.close();
+            return StreamingResponse.of(new DownloadResponse("", response.headers().toMultimap()));
+        }
+        MediaType contentType = body.contentType();
+        Charset charset = contentType == null ? null : contentType.charset();
+        return new StreamingResponse(body.byteStream(), charset == null ? null : charset.name(),
+                body.contentLength(), response.headers().toMultimap());
+    }
+
+    @Override
+    public Future<DownloadResponse> getAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+        return asyncDownloader.getAsync(siteUrl, request, callback);
+    }
+
+    @Override
+    public Future<DownloadResponse> postAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+        return asyncDownloader.postAsync(siteUrl, request, callback);
+    }
+
+    private static Request.Builder newRequest(String siteUrl) {
+        Request.Builder builder = new Request.Builder()
+                .url(siteUrl)
+                .header("User-Agent", USER_AGENT);
+
+        // add default cookies
+        String cookies = Downloader.getCookies();
+        if (cookies.length() > 0) {
+            builder.addHeader("Cookie", cookies);
+        }
+        return builder;
+    }
+
+    private static void addHeaders(Request.Builder builder, DownloadRequest request) {
+        for (Map.Entry<String, List<String>> pair : request.getRequestHeaders().entrySet()) {
+            // set the first value, so custom headers replace the defaults instead of being added to them
+            boolean first = true;
+            for (String value : pair.getValue()) {
+                if (first) {
+                    builder.header(pair.getKey(), value);
+                    first = false;
+                } else {
+                    builder.addHeader(pair.getKey(), value);
+                }
+            }
+        }
+    }
+
+    private Response execute(Request.Builder builder) throws IOException, ReCaptchaException {
+        final Response response;
+        try {
+            response = client.newCall(builder.build()).execute();
+        } catch (UnknownHostException uhe) {
+            throw new IOException("unknown host or no network", uhe);
+        }
+        return checkResponse(response);
+    }
+
+    /**
+     * @return the response if it was successful or not modified, otherwise it is closed
+     */
+    private static Response checkResponse(Response response) throws IOException, ReCaptchaException {
+        // 304 is only sent for conditional requests, which want to know it
+        if (!response.isSuccessful() && response.code() != 304) {
+            response.close();
+            /*
+             * HTTP 429 == Too Many Request Receive from Youtube.com = ReCaptcha challenge
+             * request See : https://github.com/rg3/youtube-dl/issues/5138
+             */
+            if (response.code() == 429) {
+                throw new ReCaptchaException("reCaptcha Challenge requested", response.request().url().toString());
+            }
+            throw new HttpResponseException(response.code(), response.code() + " " + response.message());
+        }
+        return response;
+    }
+
+    /**
+     * Read the whole body in large chunks, the builder is sized by the content length if it is known.
+     */
+    private static String readBody(ResponseBody body) throws IOException {
+        if (body == null) {
+            return "";
+        }
+        long contentLength = body.contentLength();
+        StringBuilder result = new StringBuilder(contentLength > 0 && contentLength < Integer.MAX_VALUE
+                ? (int) contentLength : 16 * 1024);
+
+        char[] buffer = new char[8 * 1024];
+        try (Reader reader = body.charStream()) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                result.append(buffer, 0, read);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tracks to play one after the other and the position of the current track.
+ * <p>
+ * AudioPlayer requests do not come with a session, so the queue is kept in the token
+ * of the audio stream itself: {@code q1|<index>|<videoId>,<videoId>,...}. With at most
+ * {@link #MAX_SIZE} youtube ids the token stays far below the 1024 characters Alexa allows.
+ */
+public class PlayQueue {
+
+    public static final int MAX_SIZE = 20;
+    public static final String SESSION_ATTRIBUTE = "playQueue";
+
+    private static final String TOKEN_VERSION = "q1";
+    private static final String SEPARATOR = "|";
+    private static final String ID_SEPARATOR = ",";
+    private static final String WATCH_URL = "https://www.youtube.com/watch?v=";
+
+    private final List<String> videoIds;
+    private final int index;
+
+    private PlayQueue(List<String> videoIds, int index) {
+        if (index < 0 || index >= videoIds.size()) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + videoIds.size());
+        }
+        this.videoIds = Collections.unmodifiableList(videoIds);
+        this.index = index;
+    }
+
+    /**
+     * @param videoIds the youtube ids of the streams to queue, only the first {@link #MAX_SIZE} are kept
+     * @param index    the position of the track that is played first
+     */
+    public static PlayQueue fromIds(List<String> videoIds, int index) {
+        return new PlayQueue(new ArrayList<>(videoIds.subList(0, Math.min(videoIds.size(), MAX_SIZE))), index);
+    }
+
+    /**
+     * @return the queue stored in the token or null if the token does not contain a queue
+     */
+    public static PlayQueue fromToken(String token) {
+        if (token == null || !token.startsWith(TOKEN_VERSION + SEPARATOR)) return null;
+
+        String[] parts = token.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || parts[2].isEmpty()) return null;
+        try {
+            List<String> videoIds = Arrays.asList(parts[2].split(ID_SEPARATOR));
+            return new PlayQueue(videoIds, Integer.parseInt(parts[1]));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    public String toToken() {
+        StringBuilder token = new StringBuilder(TOKEN_VERSION.length() + 4 + videoIds.size() * 12);
+        token.append(TOKEN_VERSION).append(SEPARATOR).append(index).append(SEPARATOR);
+        for (int i = 0; i < videoIds.size(); i++) {
+            if (i > 0) token.append(ID_SEPARATOR);
+            token.append(videoIds.get(i));
+        }
+        return token.toString();
+    }
+
+    public boolean hasNext() {
+        return index + 1 < videoIds.size();
+    }
+
+    /**
+     * @return the same queue positioned at the next track
+     */
+    public PlayQueue next() {
+        return new PlayQueue(videoIds, index + 1);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return videoIds.size();
+    }
+
+    public String getCurrentUrl() {
+        return getStreamUrl(videoIds.get(index));
+    }
+
+    public static String getStreamUrl(String videoId) {
+        return WATCH_URL + videoId;
+    }
+}
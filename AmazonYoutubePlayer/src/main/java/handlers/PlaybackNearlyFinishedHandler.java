@@ -0,0 +1,66 @@
+package handlers;
+
+import com.amazon.ask.dispatcher.request.handler.HandlerInput;
+import com.amazon.ask.dispatcher.request.handler.RequestHandler;
+import com.amazon.ask.model.Response;
+import com.amazon.ask.model.interfaces.audioplayer.PlayBehavior;
+import com.amazon.ask.model.interfaces.audioplayer.PlaybackNearlyFinishedRequest;
+import com.amazon.ask.request.Predicates;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enqueues the next track of the {@link PlayQueue} while the current one is still playing,
+ * so playback continues without a gap.
+ */
+public class PlaybackNearlyFinishedHandler implements RequestHandler {
+
+    // tracks which can not be resolved are skipped, but not forever
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final StreamResolver resolver;
+
+    public PlaybackNearlyFinishedHandler(StreamResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public boolean canHandle(HandlerInput input) {
+        return input.matches(Predicates.requestType(PlaybackNearlyFinishedRequest.class));
+    }
+
+    @Override
+    public Optional<Response> handle(HandlerInput input) {
+        PlaybackNearlyFinishedRequest request = (PlaybackNearlyFinishedRequest) input.getRequestEnvelope().getRequest();
+        String currentToken = request.getToken();
+        PlayQueue queue = PlayQueue.fromToken(currentToken);
+
+        // all attempts together have to fit in the time Alexa waits for the response
+        long deadline = resolver.deadline();
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && queue != null && queue.hasNext(); attempt++) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+
+                queue = queue.next();
+                Optional<StreamResolver.ResolvedStream> resolved =
+                        resolver.resolveSingle(queue.getCurrentUrl(), remaining, TimeUnit.NANOSECONDS);
+                if (resolved.isPresent()) {
+                    if (queue.hasNext()) {
+                        resolver.prefetch(queue.next().getCurrentUrl());
+                    }
+                    return input.getResponseBuilder()
+                            .addAudioPlayerPlayDirective(PlayBehavior.ENQUEUE, (long) 0,
+                                    currentToken, queue.toToken(), resolved.get().getAudioUrl())
+                            .build();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // end of the queue, let the current track finish
+        return input.getResponseBuilder().build();
+    }
+}
@@ -0,0 +1,127 @@
+package handlers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Two level cache of what the skill resolved before: the ranked video ids of a search query
+ * and the audio url of a video id.
+ * <p>
+ * Audio urls of youtube contain the time at which they stop working ({@code expire=}),
+ * their entries expire a bit before that, so a cached url is still valid while it is played.
+ * The entries are kept in a {@link CacheStore}, which decides how many of them are kept and where.
+ */
+public class ResolvedStreamCache {
+
+    public static final long DEFAULT_QUERY_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // used for audio urls which do not tell when they expire
+    public static final long DEFAULT_STREAM_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // a track has to be playable until its end, even if it was started shortly before the url expires
+    public static final long EXPIRY_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final Pattern EXPIRE_PATTERN = Pattern.compile("[?&/]expire[=/](\\d+)");
+    private static final String QUERY_PREFIX = "query:";
+    private static final String STREAM_PREFIX = "stream:";
+    private static final String ID_SEPARATOR = ",";
+
+    private final CacheStore store;
+    private final long queryTtlMillis;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ResolvedStreamCache(CacheStore store) {
+        this(store, DEFAULT_QUERY_TTL_MILLIS);
+    }
+
+    public ResolvedStreamCache(CacheStore store, long queryTtlMillis) {
+        this.store = store;
+        this.queryTtlMillis = queryTtlMillis;
+    }
+
+    /**
+     * @return the video ids found for the query, best ranked first, or null if the query is not cached
+     */
+    public List<String> getVideoIds(String query) {
+        String value = get(QUERY_PREFIX + normalizeQuery(query));
+        if (value == null || value.isEmpty()) return null;
+        return Arrays.asList(value.split(ID_SEPARATOR));
+    }
+
+    public void putVideoIds(String query, List<String> videoIds) {
+        // no results are more likely a failed search than a query without any, try again next time
+        if (videoIds.isEmpty()) return;
+
+        StringBuilder value = new StringBuilder(videoIds.size() * 12);
+        for (String videoId : videoIds) {
+            if (value.length() > 0) value.append(ID_SEPARATOR);
+            value.append(videoId);
+        }
+        store.put(QUERY_PREFIX + normalizeQuery(query), value.toString(),
+                System.currentTimeMillis() + queryTtlMillis);
+    }
+
+    /**
+     * @return the resolved stream or null if it is not cached or its audio url is about to expire
+     */
+    public StreamResolver.ResolvedStream getStream(String videoId) {
+        String value = get(STREAM_PREFIX + videoId);
+        if (value == null) return null;
+
+        String[] parts = value.split("\n", 3);
+        if (parts.length != 3) {
+            store.remove(STREAM_PREFIX + videoId);
+            return null;
+        }
+        return new StreamResolver.ResolvedStream(parts[0], parts[2], parts[1]);
+    }
+
+    public void putStream(String videoId, StreamResolver.ResolvedStream stream) {
+        long expiresAt = getExpiry(stream.getAudioUrl(), System.currentTimeMillis());
+        if (expiresAt <= System.currentTimeMillis()) return;
+
+        String name = stream.getName() == null ? "" : stream.getName();
+        store.put(STREAM_PREFIX + videoId, stream.getUrl() + "\n" + stream.getAudioUrl() + "\n" + name, expiresAt);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the time at which the audio url should not be handed out anymore
+     */
+    static long getExpiry(String audioUrl, long now) {
+        Matcher matcher = EXPIRE_PATTERN.matcher(audioUrl);
+        if (matcher.find()) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1))) - EXPIRY_MARGIN_MILLIS;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return now + DEFAULT_STREAM_TTL_MILLIS;
+    }
+
+    private static String normalizeQuery(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String get(String key) {
+        String value = store.get(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
+    }
+}
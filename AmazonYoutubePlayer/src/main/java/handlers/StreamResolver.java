@@ -0,0 +1,254 @@
+package handlers;
+
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeStreamLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves the audio url of a search result.
+ * <p>
+ * Streams resolved before are taken from the {@link ResolvedStreamCache} of the runtime.
+ * <p>
+ * The stream extraction of the top candidates is started concurrently as soon as the search
+ * page is parsed. The best ranked candidate that yields a usable audio url wins, as soon as
+ * all better ranked candidates have failed, and the remaining extractions are cancelled.
+ * So if the first result works, the latency is that of its own extraction, and if it does not,
+ * the fallback has already been running in the meantime.
+ * <p>
+ * Streams which will be needed later (e.g. the next track of a {@link PlayQueue}) can be
+ * {@link #prefetch(String) prefetched}, so they are already resolved when they are asked for.
+ */
+public class StreamResolver {
+
+    public static final int DEFAULT_CANDIDATES = 3;
+    // Alexa gives up on a response after 8 seconds
+    public static final long DEFAULT_TIMEOUT_MILLIS = 6500;
+    private static final int MAX_PREFETCHED = 8;
+
+    private final ExtractionRuntime runtime;
+    private final Executor executor;
+    // number of streams resolved concurrently
+    private final int candidates;
+    private final long timeoutMillis;
+    private final ConcurrentMap<String, Future<ResolvedStream>> prefetched = new ConcurrentHashMap<>();
+
+    public StreamResolver(ExtractionRuntime runtime) {
+        this(runtime, runtime.getExecutor(), DEFAULT_CANDIDATES, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public StreamResolver(ExtractionRuntime runtime, Executor executor, int candidates, long timeoutMillis) {
+        if (candidates < 1) throw new IllegalArgumentException("candidates must be at least 1");
+        this.runtime = runtime;
+        this.executor = executor;
+        this.candidates = candidates;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Pick the streams out of the search results, channels and playlists are left out.
+     *
+     * @param items the items of the search page
+     * @param skip  the number of streams to skip
+     * @param limit the maximum number of streams to return
+     */
+    public static List<StreamInfoItem> getStreams(List<InfoItem> items, int skip, int limit) {
+        List<StreamInfoItem> result = new ArrayList<>(Math.min(items.size(), limit));
+        int streams = 0;
+        for (InfoItem item : items) {
+            if (!(item instanceof StreamInfoItem)) continue;
+            if (streams++ < skip) continue;
+
+            result.add((StreamInfoItem) item);
+            if (result.size() == limit) break;
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the best ranked of the first candidates.
+     *
+     * @param streamUrls the streams to try, best ranked first, only the first few of them are tried
+     * @return the best ranked stream with a usable audio url, or empty if none could be resolved in time
+     */
+    public Optional<ResolvedStream> resolve(List<String> streamUrls) throws InterruptedException {
+        if (streamUrls.isEmpty()) return Optional.empty();
+        List<String> candidateUrls = streamUrls.subList(0, Math.min(streamUrls.size(), candidates));
+
+        // nothing can be better than a cached top result
+        ResolvedStream cached = getCached(candidateUrls.get(0));
+        if (cached != null) return Optional.of(cached);
+
+        CompletionService<ResolvedStream> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ResolvedStream>> futures = new ArrayList<>(candidateUrls.size());
+        for (String candidateUrl : candidateUrls) {
+            futures.add(completionService.submit(() -> extract(candidateUrl)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            // futures are in rank order, all futures before this one have failed
+            int next = 0;
+            while (next < futures.size()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || completionService.poll(remaining, TimeUnit.NANOSECONDS) == null) {
+                    break;
+                }
+
+                while (next < futures.size() && futures.get(next).isDone()) {
+                    ResolvedStream resolved = getResult(futures.get(next));
+                    if (resolved != null) return Optional.of(resolved);
+                    next++;
+                }
+            }
+            return Optional.empty();
+        } finally {
+            for (Future<ResolvedStream> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Start resolving the stream in the background, a later {@link #resolveSingle(String)} picks up the result.
+     */
+    public void prefetch(String streamUrl) {
+        if (prefetched.containsKey(streamUrl) || getCached(streamUrl) != null) return;
+        if (prefetched.size() >= MAX_PREFETCHED) {
+            // prefetched streams which were never asked for, drop the finished ones
+            prefetched.values().removeIf(Future::isDone);
+            if (prefetched.size() >= MAX_PREFETCHED) return;
+        }
+
+        FutureTask<ResolvedStream> task = new FutureTask<>(() -> extract(streamUrl));
+        if (prefetched.putIfAbsent(streamUrl, task) == null) {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} by which a request started now has to be answered,
+     * for callers which resolve more than one stream per request
+     */
+    public long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Resolve a single stream, using the prefetched result if there is one.
+     *
+     * @return the resolved stream, or empty if it has no usable audio url or could not be resolved in time
+     */
+    public Optional<ResolvedStream> resolveSingle(String streamUrl) throws InterruptedException {
+        return resolveSingle(streamUrl, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Like {@link #resolveSingle(String)}, but give up after the timeout instead of the default one.
+     */
+    public Optional<ResolvedStream> resolveSingle(String streamUrl, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        ResolvedStream cached = getCached(streamUrl);
+        if (cached != null) return Optional.of(cached);
+
+        Future<ResolvedStream> future = prefetched.remove(streamUrl);
+        if (future == null) {
+            FutureTask<ResolvedStream> task = new FutureTask<>(() -> extract(streamUrl));
+            executor.execute(task);
+            future = task;
+        }
+
+        try {
+            return Optional.ofNullable(future.get(timeout, unit));
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return Optional.empty();
+        }
+    }
+
+    private ResolvedStream extract(String streamUrl) throws Exception {
+        StreamExtractor extractor = runtime.getStreamExtractor(streamUrl);
+        // the watch page is not needed to play the audio
+        extractor.setAudioOnly(true);
+        extractor.fetchPage();
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+
+        for (AudioStream stream : extractor.getAudioStreams()) {
+            if (stream.getUrl() != null && !stream.getUrl().isEmpty()) {
+                ResolvedStream resolved = new ResolvedStream(streamUrl, extractor.getName(), stream.getUrl());
+                runtime.getStreamCache().putStream(extractor.getId(), resolved);
+                return resolved;
+            }
+        }
+        return null;
+    }
+
+    private ResolvedStream getCached(String streamUrl) {
+        try {
+            return runtime.getStreamCache().getStream(YoutubeStreamLinkHandlerFactory.getInstance().getId(streamUrl));
+        } catch (ParsingException e) {
+            return null;
+        }
+    }
+
+    private static ResolvedStream getResult(Future<ResolvedStream> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Data Class
+    //////////////////////////////////////////////////////////////////////////*/
+
+    public static class ResolvedStream {
+        private final String url;
+        private final String name;
+        private final String audioUrl;
+
+        public ResolvedStream(String url, String name, String audioUrl) {
+            this.url = url;
+            this.name = name;
+            this.audioUrl = audioUrl;
+        }
+
+        /**
+         * @return the url of the stream page
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getAudioUrl() {
+            return audioUrl;
+        }
+    }
+}
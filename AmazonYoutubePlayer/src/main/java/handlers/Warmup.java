@@ -0,0 +1,158 @@
+package handlers;
+
+import com.amazon.ask.Skill;
+import com.amazon.ask.request.impl.BaseSkillRequest;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.jsoup.nodes.Element;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+import org.schabi.newpipe.extractor.services.youtube.SignatureDecipherer;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeFormatTable;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeSearchTokenizer;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamInfoItemExtractor;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Primes the classes a play intent needs while the Lambda container is initialised,
+ * so the first invocation does not pay for loading them lazily.
+ * <p>
+ * Every step runs against the fixtures in {@code /warmup}, nothing is downloaded.
+ * The warm up can be turned off with the {@code skill.warmup} system property
+ * or the {@code SKILL_WARMUP} environment variable set to false.
+ * <p>
+ * The primed state survives a JVM snapshot (e.g. Lambda SnapStart), only the pooled
+ * connections of the downloader are dropped before the checkpoint by {@link CheckpointHook}.
+ */
+public final class Warmup {
+
+    private static final String RESOURCE_DIR = "/warmup/";
+
+    // org.crac only keeps weak references to registered resources
+    private static volatile CheckpointHook checkpointHook;
+
+    private Warmup() {
+    }
+
+    public static boolean isEnabled() {
+        String env = System.getenv("SKILL_WARMUP");
+        return Boolean.parseBoolean(System.getProperty("skill.warmup", env == null ? "true" : env));
+    }
+
+    /**
+     * Run all warm up steps. Failures are only logged, a broken warm up must never break the skill.
+     */
+    public static void prime(Skill skill) {
+        try {
+            primeExtractor();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        try {
+            primeSkill(skill);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exercise Jsoup, nanojson, the format table and the signature decipherer
+     * the same way a search and a stream extraction would.
+     */
+    static void primeExtractor() throws Exception {
+        // searches are tokenized, see ExtractionRuntime#getSearchExtractor
+        new YoutubeSearchTokenizer(readResource("search.html"), "https://www.youtube.com/results")
+                .tokenize(new YoutubeSearchTokenizer.ItemListener() {
+                    @Override
+                    public void onItem(YoutubeSearchTokenizer.ItemType type, Element lockup) throws ExtractionException {
+                        if (type != YoutubeSearchTokenizer.ItemType.VIDEO) return;
+                        YoutubeStreamInfoItemExtractor extractor = new YoutubeStreamInfoItemExtractor(lockup);
+                        extractor.getUrl();
+                        extractor.getName();
+                        extractor.getDuration();
+                        extractor.getUploaderName();
+                        extractor.getViewCount();
+                    }
+
+                    @Override
+                    public void onNothingFound(String message) {
+                    }
+                });
+
+        JsonObject playerConfig = JsonParser.object().from(readResource("player_config.json"));
+        JsonObject playerResponse = JsonParser.object().from(playerConfig.getObject("args").getString("player_response"));
+
+        // compiled directly, the warm up player must not take an entry of the shared YoutubeDecryptionCache
+        SignatureDecipherer decipherer = SignatureDecipherer.compile(readResource("decryption.js"));
+
+        // the stream extractor reads the formats into a table, see YoutubeStreamExtractor#getFormatTable
+        YoutubeFormatTable formatTable = new YoutubeFormatTable(playerResponse.getObject("streamingData"));
+        List<YoutubeFormatTable.Format> formats = formatTable.getFormats(ItagItem.ItagType.AUDIO);
+        List<String> urls = formatTable.getUrls(ItagItem.ItagType.AUDIO, decipherer);
+        for (int i = 0; i < formats.size(); i++) {
+            ItagItem itag = formats.get(i).getItag();
+            new AudioStream(urls.get(i), itag.getMediaFormat(), itag.avgBitrate);
+        }
+    }
+
+    /**
+     * Run a launch request through the skill, which loads the request dispatcher
+     * and the (de)serialisation of request and response envelopes.
+     */
+    static void primeSkill(Skill skill) throws IOException {
+        byte[] request = readResource("launch_request.json").getBytes(StandardCharsets.UTF_8);
+        skill.execute(new BaseSkillRequest(request)).getRawResponse();
+    }
+
+    /**
+     * Register the hook which prepares the runtime for a JVM checkpoint.
+     * Does nothing if the JVM does not support checkpoints.
+     */
+    public static void registerCheckpointHook(ExtractionRuntime runtime) {
+        checkpointHook = new CheckpointHook(runtime);
+        Core.getGlobalContext().register(checkpointHook);
+    }
+
+    private static String readResource(String name) throws IOException {
+        try (InputStream in = Warmup.class.getResourceAsStream(RESOURCE_DIR + name)) {
+            if (in == null) {
+                throw new IOException("Missing warm up resource " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static final class CheckpointHook implements Resource {
+        private final ExtractionRuntime runtime;
+
+        CheckpointHook(ExtractionRuntime runtime) {
+            this.runtime = runtime;
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            // open sockets do not survive a restore, so do not keep them in the snapshot
+            runtime.evictConnections();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            // nothing to do, connections are opened again on the first request
+        }
+    }
+}
@@ -9,21 +9,27 @@ import com.amazon.ask.model.interfaces.audioplayer.PlayBehavior;
 import com.amazon.ask.request.Predicates;
 import org.schabi.newpipe.extractor.InfoItem;
 import org.schabi.newpipe.extractor.ListExtractor;
-import org.schabi.newpipe.extractor.NewPipe;
-import org.schabi.newpipe.extractor.channel.ChannelInfoItem;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeSearchExtractor;
-import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamExtractor;
-import org.schabi.newpipe.extractor.utils.Localization;
+import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeStreamLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static org.schabi.newpipe.extractor.ServiceList.YouTube;
-
 public class YoutubePlayIntentHandler implements RequestHandler {
 
+    private final ExtractionRuntime runtime;
+    private final StreamResolver resolver;
+
+    public YoutubePlayIntentHandler(ExtractionRuntime runtime, StreamResolver resolver) {
+        this.runtime = runtime;
+        this.resolver = resolver;
+    }
+
     @Override
     public boolean canHandle(HandlerInput input) {
         return input.matches(Predicates.intentName("YoutubePlayIntent"));
@@ -35,49 +41,69 @@ public class YoutubePlayIntentHandler implements RequestHandler {
 
         String url = "";
         String speechText = "";
-        YoutubeStreamExtractor extractor;
-        YoutubeSearchExtractor searchExtractor;
-        ListExtractor.InfoItemsPage<InfoItem> itemsPage;
+        String token = "";
 
         IntentRequest intentRequest = (IntentRequest) input.getRequestEnvelope().getRequest();
         Map<String, Slot> slots = intentRequest.getIntent().getSlots();
 
-        NewPipe.init(Downloader.getInstance(), new Localization("GB", "en"));
         try {
-            searchExtractor = (YoutubeSearchExtractor) YouTube.getSearchExtractor(slots.get("video").getValue());
-            searchExtractor.fetchPage();
-            itemsPage = searchExtractor.getInitialPage();
+            String query = slots.get("video").getValue();
+            List<String> videoIds = runtime.getStreamCache().getVideoIds(query);
+            if (videoIds == null) {
+                videoIds = search(query);
+                runtime.getStreamCache().putVideoIds(query, videoIds);
+            }
 
             int skip = 0;
             if(slots.get("skip").getValue() != null){
                 skip = Integer.parseInt(slots.get("skip").getValue());
             }
 
-            InfoItem firstInfoItem = itemsPage.getItems().get(skip + 0);
-
-            int increment = 0;
-            while(firstInfoItem instanceof  ChannelInfoItem) {
-                firstInfoItem = itemsPage.getItems().get(skip + increment);
-                increment++;
+            List<String> queueIds = videoIds.subList(Math.min(skip, videoIds.size()),
+                    Math.min(skip + PlayQueue.MAX_SIZE, videoIds.size()));
+            List<String> streamUrls = new ArrayList<>(queueIds.size());
+            for (String videoId : queueIds) {
+                streamUrls.add(PlayQueue.getStreamUrl(videoId));
             }
 
-            firstInfoItem.getInfoType();
-            extractor = (YoutubeStreamExtractor) YouTube
-                    .getStreamExtractor(firstInfoItem.getUrl());
-
-            extractor.fetchPage();
-
-            url = extractor.getAudioStreams().get(0).url;
-
-            speechText = "Playing " + firstInfoItem.getName() + " on Youtube";
+            Optional<StreamResolver.ResolvedStream> resolved = resolver.resolve(streamUrls);
+            if (resolved.isPresent()) {
+                url = resolved.get().getAudioUrl();
+                speechText = "Playing " + resolved.get().getName() + " on Youtube";
+
+                PlayQueue queue = PlayQueue.fromIds(queueIds,
+                        Math.max(0, streamUrls.indexOf(resolved.get().getUrl())));
+                token = queue.toToken();
+                input.getAttributesManager().getSessionAttributes().put(PlayQueue.SESSION_ATTRIBUTE, token);
+                if (queue.hasNext()) {
+                    resolver.prefetch(queue.next().getCurrentUrl());
+                }
+            }
 
         } catch (ExtractionException | IOException e) {
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
         return input.getResponseBuilder()
                 .withSpeech(speechText)
-                .addAudioPlayerPlayDirective(PlayBehavior.fromValue("REPLACE_ALL"), (long) 0, "", "001", url)
+                .addAudioPlayerPlayDirective(PlayBehavior.REPLACE_ALL, (long) 0, null, token, url)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the ids of the videos found for the query, best ranked first
+     */
+    private List<String> search(String query) throws ExtractionException, IOException {
+        YoutubeSearchExtractor searchExtractor = runtime.getSearchExtractor(query);
+        searchExtractor.fetchPage();
+        ListExtractor.InfoItemsPage<InfoItem> itemsPage = searchExtractor.getInitialPage();
+
+        List<String> videoIds = new ArrayList<>();
+        for (StreamInfoItem item : StreamResolver.getStreams(itemsPage.getItems(), 0, Integer.MAX_VALUE)) {
+            videoIds.add(YoutubeStreamLinkHandlerFactory.getInstance().getId(item.getUrl()));
+        }
+        return videoIds;
+    }
+}
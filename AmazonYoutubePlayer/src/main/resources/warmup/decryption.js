@@ -0,0 +1 @@
+var Xy={ZE:function(a){a.reverse()},sH:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c},w5:function(a,b){a.splice(0,b)}};var Gy=function(a){a=a.split("");Xy.w5(a,2);Xy.sH(a,35);Xy.ZE(a,22);Xy.sH(a,64);Xy.w5(a,3);return a.join("")};function decrypt(a){return Gy(a);}
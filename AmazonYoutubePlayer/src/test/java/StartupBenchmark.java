@@ -0,0 +1,67 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the cold start of the skill: the time until the handler is initialised
+ * and the time until the first response has been written, in a fresh JVM.
+ * <p>
+ * Run it once with the defaults and once with {@code -Dskill.warmup=false} to compare
+ * the warm up against lazy class loading. Only a launch request is sent, so no network is needed.
+ * <p>
+ * It lives in the test sources so it is not packaged with the skill. Run it in its own JVM with
+ * target/test-classes, target/classes and the classpath printed by {@code mvn dependency:build-classpath}.
+ */
+public class StartupBenchmark {
+
+    private static final int WARM_REQUESTS = 10;
+
+    public static void main(String[] args) throws IOException {
+        byte[] request = readLaunchRequest();
+
+        long start = System.nanoTime();
+        YoutubePlayerStreamHandler handler = new YoutubePlayerStreamHandler();
+        long initialised = System.nanoTime();
+        handle(handler, request);
+        long firstResponse = System.nanoTime();
+
+        for (int i = 0; i < WARM_REQUESTS; i++) {
+            handle(handler, request);
+        }
+        long warmResponses = System.nanoTime();
+
+        System.out.println("warm up enabled:        " + System.getProperty("skill.warmup", "true"));
+        System.out.println("init:                   " + toMillis(initialised - start) + "ms");
+        System.out.println("first response:         " + toMillis(firstResponse - initialised) + "ms");
+        System.out.println("ms to first response:   " + toMillis(firstResponse - start) + "ms");
+        System.out.println("jvm uptime at response: " + ManagementFactory.getRuntimeMXBean().getUptime() + "ms");
+        System.out.println("warm response (avg):    "
+                + toMillis((warmResponses - firstResponse) / WARM_REQUESTS) + "ms");
+    }
+
+    private static void handle(YoutubePlayerStreamHandler handler, byte[] request) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        handler.handleRequest(new ByteArrayInputStream(request), response, null);
+        if (response.size() == 0) {
+            throw new IllegalStateException("The skill did not respond");
+        }
+    }
+
+    private static byte[] readLaunchRequest() throws IOException {
+        try (InputStream in = StartupBenchmark.class.getResourceAsStream("/warmup/launch_request.json")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+}
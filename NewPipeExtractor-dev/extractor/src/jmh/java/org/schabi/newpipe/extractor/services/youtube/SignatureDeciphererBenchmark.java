@@ -0,0 +1,122 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.ScriptableObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decrypting the signatures of one video (24 ciphered formats) with a
+ * {@link SignatureDecipherer} (using either a {@link SignatureTransform} or compiled Rhino code)
+ * against evaluating the decryption code for every signature, which is what YoutubeStreamExtractor used to do.
+ * <p>
+ * The decryption code is that of a real player, captured with {@code DecryptionCodeCapture}
+ * into src/jmh/resources/youtube/decryption_code.js, whose first lines name the player and the date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureDeciphererBenchmark {
+    private static final int FORMATS_PER_VIDEO = 24;
+
+    private String decryptionCode;
+    private SignatureDecipherer decipherer;
+    private SignatureDecipherer rhinoDecipherer;
+    private List<String> encryptedSigs;
+
+    @Setup
+    public void setUp() throws Exception {
+        decryptionCode = readDecryptionCode();
+        decipherer = SignatureDecipherer.compile(decryptionCode);
+        rhinoDecipherer = SignatureDecipherer.compileWithRhino(decryptionCode);
+
+        encryptedSigs = new ArrayList<>(FORMATS_PER_VIDEO);
+        final String sig = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789.-_ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefgh";
+        for (int i = 0; i < FORMATS_PER_VIDEO; i++) {
+            encryptedSigs.add(sig.substring(i) + sig.substring(0, i));
+        }
+    }
+
+    @Benchmark
+    public List<String> evaluatePerSignature() {
+        final List<String> result = new ArrayList<>(encryptedSigs.size());
+        for (String encryptedSig : encryptedSigs) {
+            Context context = Context.enter();
+            context.setOptimizationLevel(-1);
+            try {
+                ScriptableObject scope = context.initStandardObjects();
+                context.evaluateString(scope, decryptionCode, "decryptionCode", 1, null);
+                Function decryptionFunc = (Function) scope.get("decrypt", scope);
+                result.add(decryptionFunc.call(context, scope, scope, new Object[]{encryptedSig}).toString());
+            } finally {
+                Context.exit();
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> rhinoPerSignature() throws Exception {
+        final List<String> result = new ArrayList<>(encryptedSigs.size());
+        for (String encryptedSig : encryptedSigs) {
+            result.add(rhinoDecipherer.decrypt(encryptedSig));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> rhinoBatch() throws Exception {
+        return rhinoDecipherer.decrypt(encryptedSigs);
+    }
+
+    @Benchmark
+    public List<String> transformBatch() throws Exception {
+        return decipherer.decrypt(encryptedSigs);
+    }
+
+    @Benchmark
+    public SignatureDecipherer compileRhino() throws Exception {
+        return SignatureDecipherer.compileWithRhino(decryptionCode);
+    }
+
+    @Benchmark
+    public SignatureDecipherer compileTransform() throws Exception {
+        return SignatureDecipherer.compile(decryptionCode);
+    }
+
+    private static String readDecryptionCode() throws IOException {
+        try (InputStream in = SignatureDeciphererBenchmark.class.getResourceAsStream("/youtube/decryption_code.js")) {
+            if (in == null) {
+                // the hand-written test fixture is far smaller than real decryption code
+                throw new IllegalStateException(
+                        "Capture the decryption code of a real player first: ./gradlew :extractor:captureDecryptionCode");
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+}
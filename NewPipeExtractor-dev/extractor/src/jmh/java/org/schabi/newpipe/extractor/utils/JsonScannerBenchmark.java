@@ -0,0 +1,62 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares locating the player config in a watch page sized document (about 600 KB)
+ * with {@link JsonScanner} against the lazy regex YoutubeStreamExtractor used before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonScannerBenchmark {
+    private static final String PLAYER_CONFIG_REGEX = "ytplayer.config\\s*=\\s*(\\{.*?\\});";
+
+    private String page;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder html = new StringBuilder(600 * 1024);
+        html.append("<html><head><script>var ytplayer = ytplayer || {};");
+        // markup and scripts in front of the player config
+        while (html.length() < 300 * 1024) {
+            html.append("<div class=\"yt-lockup\"><a href=\"/watch?v=x\">title</a></div>");
+            html.append("<script>window.ytcsi = {tick: function(){ return {}; }};</script>\n");
+        }
+        html.append("ytplayer.config = {\"args\":{");
+        // player response with many formats, its strings contain brackets like real descriptions do
+        for (int i = 0; i < 400; i++) {
+            html.append("\"key").append(i).append("\":\"value {with} [brackets] and more text ").append(i).append("\",");
+        }
+        html.append("\"player_response\":\"{}\"},\"assets\":{\"js\":\"/yts/jsbin/player.js\"}};ytplayer.load();</script>");
+        while (html.length() < 600 * 1024) {
+            html.append("<li class=\"related\"><span>related video</span></li>\n");
+        }
+        html.append("</head></html>");
+        page = html.toString();
+    }
+
+    @Benchmark
+    public String lazyRegex() throws Parser.RegexException {
+        return Parser.matchGroup1(PLAYER_CONFIG_REGEX, page);
+    }
+
+    @Benchmark
+    public String scanner() {
+        return JsonScanner.extractValueAfter(page, "ytplayer.config");
+    }
+}
@@ -0,0 +1,127 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the queries the youtube extractors use for every item of a search, channel and playlist page,
+ * once with {@link Element#select(String)} and once with the parsed queries of {@link Selectors}.
+ * The pages are built from the item markup of the old youtube layout, with 20 items each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorsBenchmark {
+    private static final int ITEMS = 20;
+
+    private static final String SEARCH_ITEM = "<li><div class=\"yt-lockup yt-lockup-tile yt-lockup-video clearfix\">"
+            + "<div class=\"yt-lockup-dismissable\"><div class=\"yt-lockup-thumbnail\"><a href=\"/watch?v=%1$s\">"
+            + "<div class=\"yt-thumb video-thumb\"><span class=\"yt-thumb-simple\"><img src=\"https://i.ytimg.com/vi/%1$s/hqdefault.jpg\">"
+            + "</span></div></a><span class=\"video-time\">3:33</span></div><div class=\"yt-lockup-content\">"
+            + "<h3 class=\"yt-lockup-title \"><a href=\"/watch?v=%1$s\" class=\"yt-uix-tile-link\" title=\"Video %1$s\">Video %1$s</a></h3>"
+            + "<div class=\"yt-lockup-byline\"><a href=\"/channel/UC%1$s\">Channel %1$s</a></div>"
+            + "<div class=\"yt-lockup-meta\"><ul class=\"yt-lockup-meta-info\"><li>1 year ago</li><li>1,234 views</li></ul></div>"
+            + "</div></div></div></li>";
+    private static final String CHANNEL_ITEM = "<li class=\"channels-content-item\"><div class=\"feed-item-dismissable\">"
+            + "<span class=\"yt-thumb-clip\"><img data-thumb=\"https://i.ytimg.com/vi/%1$s/mqdefault.jpg\"></span>"
+            + "<h3 class=\"yt-lockup-title \"><a href=\"/watch?v=%1$s\" title=\"Video %1$s\">Video %1$s</a></h3>"
+            + "<span class=\"video-time\">4:20</span>"
+            + "<div class=\"yt-lockup-meta\"><ul class=\"yt-lockup-meta-info\"><li>4,321 views</li><li>2 weeks ago</li></ul></div>"
+            + "</div></li>";
+    private static final String PLAYLIST_ITEM = "<tr class=\"pl-video\" data-video-id=\"%1$s\" data-title=\"Video %1$s\">"
+            + "<td class=\"pl-video-thumbnail\"><img data-thumb=\"https://i.ytimg.com/vi/%1$s/hqdefault.jpg\"></td>"
+            + "<td class=\"pl-video-title\"><a href=\"/watch?v=%1$s\">Video %1$s</a>"
+            + "<div class=\"pl-video-owner\"><a href=\"/channel/UC%1$s\">Channel %1$s</a></div></td>"
+            + "<td class=\"pl-video-time\"><div class=\"more-menu-wrapper\"><div class=\"timestamp\"><span>5:55</span></div></div></td>"
+            + "</tr>";
+
+    private static final String[] SEARCH_QUERIES = {
+            "div[class*=\"search-message\"]", "div[class*=\"yt-lockup-video\"]", "span[class*=\"icon-not-available\"]",
+            "span[class*=\"yt-badge-ad\"]", "h3", "a", "span[class*=\"video-time\"]", "div[class=\"yt-lockup-byline\"]",
+            "div[class=\"yt-lockup-meta\"]", "li", "div[class=\"yt-thumb video-thumb\"]", "img",
+            "span[class*=\"yt-badge-live\"]", "span[class*=\"video-time-overlay-live\"]"};
+    private static final String[] CHANNEL_QUERIES = {
+            "div[class=\"feed-item-dismissable\"]", "h3", "a", "span[class*=\"video-time\"]",
+            "div[class=\"yt-lockup-meta\"]", "li", "span[class=\"yt-thumb-clip\"]", "img",
+            "span[class*=\"yt-badge-live\"]", "span[class*=\"video-time-overlay-live\"]"};
+    private static final String[] PLAYLIST_QUERIES = {
+            "div[class=\"timestamp\"] span", "div[class=pl-video-owner] a", "img",
+            "span[class*=\"yt-badge-live\"]", "span[class*=\"video-time-overlay-live\"]"};
+
+    @Param({"search", "channel", "playlist"})
+    public String page;
+
+    private Element[] items;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        final String item;
+        final String container;
+        final String itemQuery;
+        switch (page) {
+            case "search":
+                item = SEARCH_ITEM;
+                container = "<ol class=\"item-section\">%s</ol>";
+                itemQuery = "ol[class=\"item-section\"] > li";
+                queries = SEARCH_QUERIES;
+                break;
+            case "channel":
+                item = CHANNEL_ITEM;
+                container = "<ul id=\"browse-items-primary\">%s</ul>";
+                itemQuery = "ul[id=\"browse-items-primary\"] > li";
+                queries = CHANNEL_QUERIES;
+                break;
+            default:
+                item = PLAYLIST_ITEM;
+                container = "<table><tbody id=\"pl-load-more-destination\">%s</tbody></table>";
+                itemQuery = "tr[class*=\"pl-video\"]";
+                queries = PLAYLIST_QUERIES;
+        }
+
+        final StringBuilder itemsHtml = new StringBuilder();
+        for (int i = 0; i < ITEMS; i++) {
+            itemsHtml.append(String.format(item, "id" + i));
+        }
+        final Document doc = Jsoup.parse("<html><body><div id=\"content\">"
+                + String.format(container, itemsHtml) + "</div></body></html>", "https://www.youtube.com/");
+        items = doc.select(itemQuery).toArray(new Element[0]);
+        if (items.length != ITEMS) throw new IllegalStateException("Found " + items.length + " items");
+    }
+
+    @Benchmark
+    public void elementSelect(Blackhole blackhole) {
+        for (Element item : items) {
+            for (String query : queries) {
+                blackhole.consume(item.select(query).first());
+            }
+        }
+    }
+
+    @Benchmark
+    public void registeredSelect(Blackhole blackhole) {
+        for (Element item : items) {
+            for (String query : queries) {
+                blackhole.consume(Selectors.first(item, query));
+            }
+        }
+    }
+}
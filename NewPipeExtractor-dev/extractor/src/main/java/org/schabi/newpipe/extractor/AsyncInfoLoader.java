@@ -0,0 +1,152 @@
+package org.schabi.newpipe.extractor;
+
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.channel.ChannelInfo;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfo;
+import org.schabi.newpipe.extractor.search.SearchInfo;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Loads infos on an executor instead of the calling thread.
+ * <p>
+ * Every method returns at once with a future of the info. If the extraction fails, {@link Future#get()}
+ * throws an {@link java.util.concurrent.ExecutionException} with the exception of the blocking method as cause.
+ * Stream infos are extracted with {@link StreamInfo#getInfo(StreamingService, String, Executor)},
+ * so their independent parts run in parallel on the same executor.
+ * If the executor does not accept a task, its {@link RejectedExecutionException} is thrown right away.
+ */
+public class AsyncInfoLoader {
+
+    private final Executor executor;
+
+    public AsyncInfoLoader(@Nonnull Executor executor) {
+        this.executor = executor;
+    }
+
+    private <T> Future<T> submit(Callable<T> callable) {
+        final FutureTask<T> task = new FutureTask<>(callable);
+        executor.execute(task);
+        return task;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Stream
+    //////////////////////////////////////////////////////////////////////////*/
+
+    public Future<StreamInfo> getStreamInfo(final String url) {
+        return submit(new Callable<StreamInfo>() {
+            @Override
+            public StreamInfo call() throws Exception {
+                return StreamInfo.getInfo(NewPipe.getServiceByUrl(url), url, executor);
+            }
+        });
+    }
+
+    public Future<StreamInfo> getStreamInfo(final StreamingService service, final String url) {
+        return submit(new Callable<StreamInfo>() {
+            @Override
+            public StreamInfo call() throws Exception {
+                return StreamInfo.getInfo(service, url, executor);
+            }
+        });
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Search
+    //////////////////////////////////////////////////////////////////////////*/
+
+    public Future<SearchInfo> getSearchInfo(final StreamingService service, final SearchQueryHandler query) {
+        return submit(new Callable<SearchInfo>() {
+            @Override
+            public SearchInfo call() throws Exception {
+                return SearchInfo.getInfo(service, query);
+            }
+        });
+    }
+
+    public Future<InfoItemsPage<InfoItem>> getMoreSearchItems(final StreamingService service,
+                                                              final SearchQueryHandler query,
+                                                              final String pageUrl) {
+        return submit(new Callable<InfoItemsPage<InfoItem>>() {
+            @Override
+            public InfoItemsPage<InfoItem> call() throws Exception {
+                return SearchInfo.getMoreItems(service, query, pageUrl);
+            }
+        });
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Playlist
+    //////////////////////////////////////////////////////////////////////////*/
+
+    public Future<PlaylistInfo> getPlaylistInfo(final String url) {
+        return submit(new Callable<PlaylistInfo>() {
+            @Override
+            public PlaylistInfo call() throws Exception {
+                return PlaylistInfo.getInfo(url);
+            }
+        });
+    }
+
+    public Future<PlaylistInfo> getPlaylistInfo(final StreamingService service, final String url) {
+        return submit(new Callable<PlaylistInfo>() {
+            @Override
+            public PlaylistInfo call() throws Exception {
+                return PlaylistInfo.getInfo(service, url);
+            }
+        });
+    }
+
+    public Future<InfoItemsPage<StreamInfoItem>> getMorePlaylistItems(final StreamingService service,
+                                                                      final String url,
+                                                                      final String pageUrl) {
+        return submit(new Callable<InfoItemsPage<StreamInfoItem>>() {
+            @Override
+            public InfoItemsPage<StreamInfoItem> call() throws Exception {
+                return PlaylistInfo.getMoreItems(service, url, pageUrl);
+            }
+        });
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Channel
+    //////////////////////////////////////////////////////////////////////////*/
+
+    public Future<ChannelInfo> getChannelInfo(final String url) {
+        return submit(new Callable<ChannelInfo>() {
+            @Override
+            public ChannelInfo call() throws Exception {
+                return ChannelInfo.getInfo(url);
+            }
+        });
+    }
+
+    public Future<ChannelInfo> getChannelInfo(final StreamingService service, final String url) {
+        return submit(new Callable<ChannelInfo>() {
+            @Override
+            public ChannelInfo call() throws Exception {
+                return ChannelInfo.getInfo(service, url);
+            }
+        });
+    }
+
+    public Future<InfoItemsPage<StreamInfoItem>> getMoreChannelItems(final StreamingService service,
+                                                                     final String url,
+                                                                     final String pageUrl) {
+        return submit(new Callable<InfoItemsPage<StreamInfoItem>>() {
+            @Override
+            public InfoItemsPage<StreamInfoItem> call() throws Exception {
+                return ChannelInfo.getMoreItems(service, url, pageUrl);
+            }
+        });
+    }
+}
@@ -7,15 +7,31 @@ import java.util.Map;
 import javax.annotation.Nonnull;
 
 public class DownloadResponse {
+    private final int responseCode;
     private final String responseBody;
     private final Map<String, List<String>> responseHeaders;
 
     public DownloadResponse(String responseBody, Map<String, List<String>> headers) {
+        this(-1, responseBody, headers);
+    }
+
+    /**
+     * @param responseCode the http status code, or -1 if the downloader does not know it
+     */
+    public DownloadResponse(int responseCode, String responseBody, Map<String, List<String>> headers) {
         super();
+        this.responseCode = responseCode;
         this.responseBody = responseBody;
         this.responseHeaders = headers;
     }
 
+    /**
+     * @return the http status code, or -1 if it is unknown
+     */
+    public int getResponseCode() {
+        return responseCode;
+    }
+
     public String getResponseBody() {
         return responseBody;
     }
@@ -22,6 +22,9 @@ package org.schabi.newpipe.extractor;
  * along with NewPipe.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Static data about various media formats support by NewPipe, eg mime type, extension
  */
@@ -58,6 +61,35 @@ public enum MediaFormat {
         this.mimeType = mimeType;
     }
 
+    // a perfect hash of the ids: every format has its own slot at id % FORMATS_BY_ID.length
+    private static final MediaFormat[] FORMATS_BY_ID;
+    // the first format of every mime type
+    private static final Map<String, MediaFormat> FORMATS_BY_MIME_TYPE = new HashMap<>();
+
+    static {
+        final MediaFormat[] formats = values();
+        int size = formats.length;
+        while (!hasUniqueSlots(formats, size)) size++;
+
+        FORMATS_BY_ID = new MediaFormat[size];
+        for (MediaFormat format : formats) {
+            FORMATS_BY_ID[format.id % size] = format;
+            if (!FORMATS_BY_MIME_TYPE.containsKey(format.mimeType)) {
+                FORMATS_BY_MIME_TYPE.put(format.mimeType, format);
+            }
+        }
+    }
+
+    private static boolean hasUniqueSlots(MediaFormat[] formats, int size) {
+        final boolean[] used = new boolean[size];
+        for (MediaFormat format : formats) {
+            final int slot = format.id % size;
+            if (used[slot]) return false;
+            used[slot] = true;
+        }
+        return true;
+    }
+
     /**
      * Return the friendly name of the media format with the supplied id
      *
@@ -66,10 +98,8 @@ public enum MediaFormat {
      * or an empty String if none match it.
      */
     public static String getNameById(int ident) {
-        for (MediaFormat vf : MediaFormat.values()) {
-            if (vf.id == ident) return vf.name;
-        }
-        return "";
+        final MediaFormat format = getFormatById(ident);
+        return format == null ? "" : format.name;
     }
 
     /**
@@ -80,10 +110,8 @@ public enum MediaFormat {
      * or an empty String if none match it.
      */
     public static String getSuffixById(int ident) {
-        for (MediaFormat vf : MediaFormat.values()) {
-            if (vf.id == ident) return vf.suffix;
-        }
-        return "";
+        final MediaFormat format = getFormatById(ident);
+        return format == null ? "" : format.suffix;
     }
 
     /**
@@ -94,10 +122,8 @@ public enum MediaFormat {
      * or an empty String if none match it.
      */
     public static String getMimeById(int ident) {
-        for (MediaFormat vf : MediaFormat.values()) {
-            if (vf.id == ident) return vf.mimeType;
-        }
-        return "";
+        final MediaFormat format = getFormatById(ident);
+        return format == null ? "" : format.mimeType;
     }
 
     /**
@@ -107,10 +133,7 @@ public enum MediaFormat {
      * or null if none match it.
      */
     public static MediaFormat getFromMimeType(String mimeType) {
-        for (MediaFormat vf : MediaFormat.values()) {
-            if (vf.mimeType.equals(mimeType)) return vf;
-        }
-        return null;
+        return mimeType == null ? null : FORMATS_BY_MIME_TYPE.get(mimeType);
     }
 
     /**
@@ -119,10 +142,9 @@ public enum MediaFormat {
      * @return the id of the media format or null.
      */
     public static MediaFormat getFormatById(int id) {
-        for (MediaFormat vf: values()) {
-            if (vf.id == id) return vf;
-        }
-        return null;
+        if (id < 0) return null;
+        final MediaFormat format = FORMATS_BY_ID[id % FORMATS_BY_ID.length];
+        return format != null && format.id == id ? format : null;
     }
 
     /**
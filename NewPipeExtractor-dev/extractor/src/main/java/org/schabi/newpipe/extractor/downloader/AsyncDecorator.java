@@ -0,0 +1,18 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.Executor;
+
+/**
+ * A decorator of a {@link org.schabi.newpipe.extractor.Downloader} whose requests are only asynchronous
+ * if those of the downloader it decorates are, see {@link BlockingAsyncDownloader#of}.
+ */
+interface AsyncDecorator {
+
+    /**
+     * @param executor runs the blocking methods of the decorated downloader if it is not asynchronous
+     * @return the decorator applied to the asynchronous methods of the decorated downloader
+     */
+    @Nonnull
+    AsyncDownloader async(@Nonnull Executor executor);
+}
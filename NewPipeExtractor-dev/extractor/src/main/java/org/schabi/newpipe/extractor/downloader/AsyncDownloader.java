@@ -0,0 +1,27 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Future;
+
+/**
+ * Companion of the {@link org.schabi.newpipe.extractor.Downloader} whose requests do not block the calling thread.
+ * <p>
+ * Both methods return at once. The response is handed to the callback (if there is one) and can be taken
+ * from the future. If the download fails, {@link Future#get()} throws an
+ * {@link java.util.concurrent.ExecutionException} with the exception the blocking method would have thrown.
+ * Cancelling the future cancels the request if the implementation can.
+ * <p>
+ * Use {@link BlockingAsyncDownloader#of} to get one for any downloader.
+ */
+public interface AsyncDownloader {
+
+    Future<DownloadResponse> getAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                      @Nullable DownloadCallback callback);
+
+    Future<DownloadResponse> postAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                       @Nullable DownloadCallback callback);
+}
@@ -0,0 +1,67 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * Adapter which runs the blocking methods of a {@link Downloader} on an executor.
+ * <p>
+ * This frees the calling thread, but every request still holds a thread of the executor until it is done.
+ */
+public class BlockingAsyncDownloader implements AsyncDownloader {
+
+    private final Downloader downloader;
+    private final Executor executor;
+
+    public BlockingAsyncDownloader(@Nonnull Downloader downloader, @Nonnull Executor executor) {
+        this.downloader = downloader;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the downloader itself if it can download asynchronously, the same decorators over the
+     * asynchronous methods if it is a {@link CoalescingDownloader} or {@link CachingDownloader},
+     * otherwise an adapter running its blocking methods on the executor
+     */
+    @Nonnull
+    public static AsyncDownloader of(@Nonnull Downloader downloader, @Nonnull Executor executor) {
+        if (downloader instanceof AsyncDownloader) return (AsyncDownloader) downloader;
+        if (downloader instanceof AsyncDecorator) return ((AsyncDecorator) downloader).async(executor);
+        return new BlockingAsyncDownloader(downloader, executor);
+    }
+
+    @Override
+    public Future<DownloadResponse> getAsync(@Nonnull final String siteUrl, @Nonnull final DownloadRequest request,
+                                             @Nullable DownloadCallback callback) {
+        return submit(new Callable<DownloadResponse>() {
+            @Override
+            public DownloadResponse call() throws Exception {
+                return downloader.get(siteUrl, request);
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<DownloadResponse> postAsync(@Nonnull final String siteUrl, @Nonnull final DownloadRequest request,
+                                              @Nullable DownloadCallback callback) {
+        return submit(new Callable<DownloadResponse>() {
+            @Override
+            public DownloadResponse call() throws Exception {
+                return downloader.post(siteUrl, request);
+            }
+        }, callback);
+    }
+
+    private Future<DownloadResponse> submit(Callable<DownloadResponse> download, @Nullable DownloadCallback callback) {
+        final DownloadFuture future = new DownloadFuture(download, callback);
+        executor.execute(future);
+        return future;
+    }
+}
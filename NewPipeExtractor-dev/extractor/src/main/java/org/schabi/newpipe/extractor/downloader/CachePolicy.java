@@ -0,0 +1,49 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the {@link CachingDownloader} treats the responses of a host.
+ */
+public final class CachePolicy {
+
+    /**
+     * Cache responses as long as their headers allow it. This is the default for every host.
+     */
+    public static final CachePolicy HEADERS = new CachePolicy(-1, true);
+
+    /**
+     * Never cache responses and never answer requests from the cache.
+     */
+    public static final CachePolicy NO_STORE = new CachePolicy(-1, false);
+
+    // milliseconds a response is fresh, or -1 to take it from the headers
+    private final long maxAge;
+    private final boolean store;
+
+    private CachePolicy(long maxAge, boolean store) {
+        this.maxAge = maxAge;
+        this.store = store;
+    }
+
+    /**
+     * Cache every successful response for the given time, whatever its headers say.
+     * It is revalidated afterwards if it has an {@code ETag} or {@code Last-Modified} header.
+     */
+    @Nonnull
+    public static CachePolicy maxAge(long duration, @Nonnull TimeUnit unit) {
+        return new CachePolicy(unit.toMillis(duration), true);
+    }
+
+    /**
+     * @return the time in milliseconds responses are fresh, or -1 if it is taken from their headers
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public boolean isStore() {
+        return store;
+    }
+}
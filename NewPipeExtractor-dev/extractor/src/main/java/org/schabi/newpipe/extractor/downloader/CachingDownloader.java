@@ -0,0 +1,417 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator of a {@link Downloader} which caches get requests like an HTTP cache shared by all users.
+ * <p>
+ * Responses are kept as long as their {@code Cache-Control}, {@code Expires} and {@code Last-Modified}
+ * headers allow (see {@link HttpCacheEntry}), first in memory and, if a directory was given, on disk.
+ * A stale response with an {@code ETag} or {@code Last-Modified} header is revalidated with a conditional
+ * request. For that the downloader has to return {@code 304 Not Modified} responses, with their
+ * {@link DownloadResponse#getResponseCode() response code}, instead of throwing. Responses of downloaders
+ * which report no response code are only kept while they are fresh and never revalidated.
+ * <p>
+ * The url and all headers of a request make up its key, so e.g. responses for other languages or cookies
+ * are never mixed up. Requests with a {@code Range} or {@code Authorization} header and posts are passed on.
+ * The {@code download} methods are sent as get requests, as their headers are needed.
+ * Use {@link #setPolicy(String, CachePolicy)} to override the headers of a host.
+ * <p>
+ * {@link BlockingAsyncDownloader#of} applies the cache to asynchronous gets as well,
+ * fresh responses are then returned in a future which is already done.
+ */
+public class CachingDownloader implements Downloader, StreamingDownloader, AsyncDecorator {
+
+    private static final List<String> CACHE_HEADERS =
+            Arrays.asList("cache-control", "pragma", "if-none-match", "if-modified-since");
+
+    private final Downloader downloader;
+    private final Map<String, CachePolicy> policies = new ConcurrentHashMap<>();
+
+    private final long memorySize;
+    private long memoryWeight = 0;
+    // least recently used first
+    private final LinkedHashMap<String, HttpCacheEntry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    @Nullable
+    private final DiskCache disk;
+
+    private final AtomicLong memoryHitCount = new AtomicLong();
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong revalidatedCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param downloader the downloader to cache the responses of
+     * @param memorySize the number of bytes the responses in memory may take
+     * @param directory  the directory of the disk tier, or null to only cache in memory
+     * @param diskSize   the number of bytes the responses on disk may take
+     * @throws IOException if the directory can not be created
+     */
+    public CachingDownloader(@Nonnull Downloader downloader, long memorySize,
+                             @Nullable File directory, long diskSize) throws IOException {
+        this.downloader = downloader;
+        this.memorySize = memorySize;
+        this.disk = directory == null ? null : new DiskCache(directory, diskSize);
+    }
+
+    /**
+     * A cache which only keeps responses in memory.
+     */
+    public CachingDownloader(@Nonnull Downloader downloader, long memorySize) {
+        this.downloader = downloader;
+        this.memorySize = memorySize;
+        this.disk = null;
+    }
+
+    /**
+     * Treat the responses of the host with the policy instead of their headers, e.g. {@link CachePolicy#NO_STORE}.
+     */
+    public void setPolicy(@Nonnull String host, @Nonnull CachePolicy policy) {
+        policies.put(host.toLowerCase(Locale.ROOT), policy);
+    }
+
+    /**
+     * @return the number of requests answered from memory
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount.get();
+    }
+
+    /**
+     * @return the number of requests answered from disk
+     */
+    public long getDiskHitCount() {
+        return diskHitCount.get();
+    }
+
+    /**
+     * @return the number of requests answered with a cached response after the server confirmed it
+     */
+    public long getRevalidatedCount() {
+        return revalidatedCount.get();
+    }
+
+    /**
+     * @return the number of cacheable requests which had to be downloaded
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Downloader
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Override
+    public String download(String siteUrl, Localization localization) throws IOException, ReCaptchaException {
+        return download(siteUrl, Collections.singletonMap("Accept-Language", localization.getLanguage()));
+    }
+
+    @Override
+    public String download(String siteUrl, Map<String, String> customProperties)
+            throws IOException, ReCaptchaException {
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (Map.Entry<String, String> property : customProperties.entrySet()) {
+            headers.put(property.getKey(), Collections.singletonList(property.getValue()));
+        }
+        final DownloadRequest request = new DownloadRequest(null, headers);
+        if (!isCacheable(siteUrl, request)) return downloader.download(siteUrl, customProperties);
+        return get(siteUrl, request).getResponseBody();
+    }
+
+    @Override
+    public String download(String siteUrl) throws IOException, ReCaptchaException {
+        if (!isCacheable(siteUrl, DownloadRequest.emptyRequest)) return downloader.download(siteUrl);
+        return get(siteUrl, DownloadRequest.emptyRequest).getResponseBody();
+    }
+
+    @Override
+    public DownloadResponse get(String siteUrl, DownloadRequest request) throws IOException, ReCaptchaException {
+        if (!isCacheable(siteUrl, request)) return downloader.get(siteUrl, request);
+
+        final CachePolicy policy = policyOf(siteUrl);
+        final String key = keyOf(siteUrl, request);
+        final long now = now();
+
+        final HttpCacheEntry cached = lookUp(key, now, !requestsRevalidation(request));
+        if (cached != null && cached.isFresh(now) && !requestsRevalidation(request)) {
+            return cached.toResponse();
+        }
+
+        final HttpCacheEntry revalidating = cached != null && cached.canRevalidate() ? cached : null;
+        final DownloadResponse response = downloader.get(siteUrl,
+                revalidating == null ? request : conditionalRequest(request, revalidating));
+        return handleResponse(key, revalidating, response, policy);
+    }
+
+    @Override
+    public DownloadResponse get(String siteUrl) throws IOException, ReCaptchaException {
+        return get(siteUrl, DownloadRequest.emptyRequest);
+    }
+
+    @Override
+    public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException, ReCaptchaException {
+        return downloader.post(siteUrl, request);
+    }
+
+    /**
+     * Answer from the cache if there is a fresh response, otherwise the body is streamed without being cached.
+     */
+    @Nonnull
+    @Override
+    public StreamingResponse getStreaming(@Nonnull String siteUrl, @Nonnull DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        if (isCacheable(siteUrl, request) && !requestsRevalidation(request)) {
+            final long now = now();
+            final HttpCacheEntry cached = lookUp(keyOf(siteUrl, request), now, true);
+            if (cached != null && cached.isFresh(now)) {
+                return StreamingResponse.of(cached.toResponse());
+            }
+        }
+        return StreamingResponse.open(downloader, siteUrl, request);
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // AsyncDownloader
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nonnull
+    @Override
+    public AsyncDownloader async(@Nonnull Executor executor) {
+        final AsyncDownloader async = BlockingAsyncDownloader.of(downloader, executor);
+        return new AsyncDownloader() {
+            @Override
+            public Future<DownloadResponse> getAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                                     @Nullable DownloadCallback callback) {
+                if (!isCacheable(siteUrl, request)) return async.getAsync(siteUrl, request, callback);
+                return getCachedAsync(async, siteUrl, request, callback);
+            }
+
+            @Override
+            public Future<DownloadResponse> postAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                                      @Nullable DownloadCallback callback) {
+                return async.postAsync(siteUrl, request, callback);
+            }
+        };
+    }
+
+    private Future<DownloadResponse> getCachedAsync(AsyncDownloader async, String siteUrl, DownloadRequest request,
+                                                    @Nullable DownloadCallback callback) {
+        final CachePolicy policy = policyOf(siteUrl);
+        final String key = keyOf(siteUrl, request);
+        final long now = now();
+
+        final HttpCacheEntry cached = lookUp(key, now, !requestsRevalidation(request));
+        if (cached != null && cached.isFresh(now) && !requestsRevalidation(request)) {
+            final DownloadFuture future = new DownloadFuture(callback);
+            future.complete(cached.toResponse());
+            return future;
+        }
+
+        final HttpCacheEntry revalidating = cached != null && cached.canRevalidate() ? cached : null;
+        final ForwardingFuture future = new ForwardingFuture(callback);
+        future.forwardTo(async.getAsync(siteUrl,
+                revalidating == null ? request : conditionalRequest(request, revalidating),
+                new DownloadCallback() {
+                    @Override
+                    public void onResponse(DownloadResponse response) {
+                        future.complete(handleResponse(key, revalidating, response, policy));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        future.fail(e);
+                    }
+                }));
+        return future;
+    }
+
+    /**
+     * A future completed by the callback of another request, which is cancelled together with it.
+     */
+    private static final class ForwardingFuture extends DownloadFuture {
+        @Nullable
+        private Future<DownloadResponse> request;
+
+        ForwardingFuture(@Nullable DownloadCallback callback) {
+            super(callback);
+        }
+
+        void forwardTo(Future<DownloadResponse> request) {
+            synchronized (this) {
+                this.request = request;
+            }
+            if (isCancelled()) request.cancel(true);
+        }
+
+        @Override
+        protected void onCancel() {
+            final Future<DownloadResponse> cancelled;
+            synchronized (this) {
+                cancelled = request;
+            }
+            if (cancelled != null) cancelled.cancel(true);
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Cache
+    //////////////////////////////////////////////////////////////////////////*/
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @param countHits whether a fresh entry is counted as hit
+     */
+    @Nullable
+    private HttpCacheEntry lookUp(String key, long now, boolean countHits) {
+        synchronized (memory) {
+            final HttpCacheEntry entry = memory.get(key);
+            if (entry != null) {
+                if (countHits && entry.isFresh(now)) memoryHitCount.incrementAndGet();
+                return entry;
+            }
+        }
+        if (disk == null) return null;
+
+        final HttpCacheEntry entry = disk.get(key);
+        if (entry != null) {
+            if (countHits && entry.isFresh(now)) diskHitCount.incrementAndGet();
+            putInMemory(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Store the response of a request for the key, or refresh the entry it revalidated.
+     *
+     * @param revalidating the entry whose validators were sent, or null if the request was not conditional
+     */
+    private DownloadResponse handleResponse(String key, @Nullable HttpCacheEntry revalidating,
+                                            DownloadResponse response, CachePolicy policy) {
+        if (revalidating != null && response.getResponseCode() == 304) {
+            revalidatedCount.incrementAndGet();
+            final HttpCacheEntry revalidated = revalidating.revalidated(response, now(), policy);
+            store(revalidated);
+            return revalidated.toResponse();
+        }
+        missCount.incrementAndGet();
+        // without a status code this may be a 304 with an empty body
+        if (revalidating != null && response.getResponseCode() == -1) return response;
+        return storeIfCacheable(key, response, policy);
+    }
+
+    private DownloadResponse storeIfCacheable(String key, DownloadResponse response, CachePolicy policy) {
+        final HttpCacheEntry entry = HttpCacheEntry.of(key, response, now(), policy);
+        if (entry != null) store(entry);
+        return response;
+    }
+
+    private void store(HttpCacheEntry entry) {
+        putInMemory(entry);
+        if (disk != null) disk.put(entry);
+    }
+
+    private void putInMemory(HttpCacheEntry entry) {
+        final long weight = entry.weight();
+        synchronized (memory) {
+            final HttpCacheEntry previous = memory.remove(entry.key);
+            if (previous != null) memoryWeight -= previous.weight();
+            // a single large response must not push out everything else
+            if (weight > memorySize / 4) return;
+
+            memory.put(entry.key, entry);
+            memoryWeight += weight;
+            final Iterator<HttpCacheEntry> eldest = memory.values().iterator();
+            while (memoryWeight > memorySize && eldest.hasNext()) {
+                memoryWeight -= eldest.next().weight();
+                eldest.remove();
+            }
+        }
+    }
+
+    private boolean isCacheable(String siteUrl, DownloadRequest request) {
+        if (!policyOf(siteUrl).isStore()) return false;
+        for (String name : request.getRequestHeaders().keySet()) {
+            if ("range".equalsIgnoreCase(name) || "authorization".equalsIgnoreCase(name)) return false;
+        }
+        return !HttpCacheEntry.cacheControl(lowerCaseHeaders(request)).containsKey("no-store");
+    }
+
+    /**
+     * @return true if the request asks for the response to be confirmed by the server
+     */
+    private static boolean requestsRevalidation(DownloadRequest request) {
+        final Map<String, String> cacheControl = HttpCacheEntry.cacheControl(lowerCaseHeaders(request));
+        return cacheControl.containsKey("no-cache") || "0".equals(cacheControl.get("max-age"));
+    }
+
+    private CachePolicy policyOf(String siteUrl) {
+        if (policies.isEmpty()) return CachePolicy.HEADERS;
+        try {
+            final CachePolicy policy = policies.get(new URL(siteUrl).getHost().toLowerCase(Locale.ROOT));
+            return policy == null ? CachePolicy.HEADERS : policy;
+        } catch (MalformedURLException e) {
+            return CachePolicy.HEADERS;
+        }
+    }
+
+    private static DownloadRequest conditionalRequest(DownloadRequest request, HttpCacheEntry cached) {
+        final Map<String, List<String>> headers = new HashMap<>(request.getRequestHeaders());
+        if (cached.getETag() != null) {
+            headers.put("If-None-Match", Collections.singletonList(cached.getETag()));
+        }
+        if (cached.getLastModified() != null) {
+            headers.put("If-Modified-Since", Collections.singletonList(cached.getLastModified()));
+        }
+        return new DownloadRequest(request.getRequestBody(), headers);
+    }
+
+    private static Map<String, List<String>> lowerCaseHeaders(DownloadRequest request) {
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : request.getRequestHeaders().entrySet()) {
+            headers.put(header.getKey().toLowerCase(Locale.ROOT), header.getValue());
+        }
+        return headers;
+    }
+
+    /**
+     * @return the url followed by the sorted headers of the request, except the ones controlling the cache
+     */
+    private static String keyOf(String siteUrl, DownloadRequest request) {
+        final Map<String, List<String>> sorted = new TreeMap<>(lowerCaseHeaders(request));
+        sorted.keySet().removeAll(CACHE_HEADERS);
+
+        final StringBuilder key = new StringBuilder(siteUrl);
+        for (Map.Entry<String, List<String>> header : sorted.entrySet()) {
+            key.append('\n').append(header.getKey()).append(": ").append(header.getValue());
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,404 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator of a {@link Downloader} which lets concurrent get requests for the same url and headers
+ * share a single call of the downloader.
+ * <p>
+ * The first thread asking for a resource downloads it, every thread asking for the same resource
+ * before it arrived waits for that download and gets the same result or exception. If the
+ * downloading thread was interrupted though, the waiting threads download the resource again.
+ * Nothing is kept once the download finished, so this is not a cache.
+ * <p>
+ * Posts are never shared. A single request can opt out by sending the {@link #NO_COALESCING} header,
+ * which is removed before the request is passed on. Streaming responses are never shared either,
+ * because their body can only be read once.
+ * <p>
+ * {@link BlockingAsyncDownloader#of} shares asynchronous gets the same way, among themselves.
+ * Their requests to the downloader are only cancelled once every caller cancelled its future.
+ */
+public class CoalescingDownloader implements Downloader, StreamingDownloader, AsyncDecorator {
+
+    /**
+     * Request header to download a resource on its own. The value is ignored.
+     */
+    public static final String NO_COALESCING = "X-NewPipe-No-Coalescing";
+
+    private final Downloader downloader;
+    private final ConcurrentMap<Key, FutureTask<?>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, SharedDownload> inFlightAsync = new ConcurrentHashMap<>();
+
+    private final AtomicLong downloadCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    public CoalescingDownloader(@Nonnull Downloader downloader) {
+        this.downloader = downloader;
+    }
+
+    /**
+     * @return the number of requests which were passed on to the downloader
+     */
+    public long getDownloadCount() {
+        return downloadCount.get();
+    }
+
+    /**
+     * @return the number of requests which were answered by the download of another request
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Downloader
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Override
+    public String download(String siteUrl, Localization localization) throws IOException, ReCaptchaException {
+        return download(siteUrl, Collections.singletonMap("Accept-Language", localization.getLanguage()));
+    }
+
+    @Override
+    public String download(final String siteUrl, Map<String, String> customProperties)
+            throws IOException, ReCaptchaException {
+        if (customProperties.containsKey(NO_COALESCING)) {
+            final Map<String, String> properties = new HashMap<>(customProperties);
+            properties.remove(NO_COALESCING);
+            downloadCount.incrementAndGet();
+            return downloader.download(siteUrl, properties);
+        }
+
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (Map.Entry<String, String> property : customProperties.entrySet()) {
+            headers.put(property.getKey(), Collections.singletonList(property.getValue()));
+        }
+        final Map<String, String> properties = customProperties;
+        return coalesce(new Key(false, siteUrl, headers), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return downloader.download(siteUrl, properties);
+            }
+        });
+    }
+
+    @Override
+    public String download(final String siteUrl) throws IOException, ReCaptchaException {
+        return coalesce(new Key(false, siteUrl, Collections.<String, List<String>>emptyMap()),
+                new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return downloader.download(siteUrl);
+                    }
+                });
+    }
+
+    @Override
+    public DownloadResponse get(final String siteUrl, DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        if (request.getRequestHeaders().containsKey(NO_COALESCING)) {
+            downloadCount.incrementAndGet();
+            return downloader.get(siteUrl, withoutOptOut(request));
+        }
+
+        final DownloadRequest sharedRequest = request;
+        return coalesce(new Key(true, siteUrl, request.getRequestHeaders()), new Callable<DownloadResponse>() {
+            @Override
+            public DownloadResponse call() throws Exception {
+                return downloader.get(siteUrl, sharedRequest);
+            }
+        });
+    }
+
+    @Override
+    public DownloadResponse get(String siteUrl) throws IOException, ReCaptchaException {
+        return get(siteUrl, DownloadRequest.emptyRequest);
+    }
+
+    @Override
+    public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException, ReCaptchaException {
+        downloadCount.incrementAndGet();
+        return downloader.post(siteUrl, withoutOptOut(request));
+    }
+
+    @Nonnull
+    @Override
+    public StreamingResponse getStreaming(@Nonnull String siteUrl, @Nonnull DownloadRequest request)
+            throws IOException, ReCaptchaException {
+        downloadCount.incrementAndGet();
+        return StreamingResponse.open(downloader, siteUrl, withoutOptOut(request));
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // AsyncDownloader
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nonnull
+    @Override
+    public AsyncDownloader async(@Nonnull Executor executor) {
+        final AsyncDownloader async = BlockingAsyncDownloader.of(downloader, executor);
+        return new AsyncDownloader() {
+            @Override
+            public Future<DownloadResponse> getAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                                     @Nullable DownloadCallback callback) {
+                if (request.getRequestHeaders().containsKey(NO_COALESCING)) {
+                    downloadCount.incrementAndGet();
+                    return async.getAsync(siteUrl, withoutOptOut(request), callback);
+                }
+                return coalesceAsync(async, siteUrl, request, callback);
+            }
+
+            @Override
+            public Future<DownloadResponse> postAsync(@Nonnull String siteUrl, @Nonnull DownloadRequest request,
+                                                      @Nullable DownloadCallback callback) {
+                downloadCount.incrementAndGet();
+                return async.postAsync(siteUrl, withoutOptOut(request), callback);
+            }
+        };
+    }
+
+    /**
+     * Start the download, or join the one which is already running for the same key.
+     */
+    private Future<DownloadResponse> coalesceAsync(AsyncDownloader async, String siteUrl, DownloadRequest request,
+                                                   @Nullable DownloadCallback callback) {
+        final Key key = new Key(true, siteUrl, request.getRequestHeaders());
+        while (true) {
+            final SharedDownload running = inFlightAsync.get(key);
+            if (running != null) {
+                final DownloadFuture future = running.join(callback);
+                if (future != null) {
+                    coalescedCount.incrementAndGet();
+                    return future;
+                }
+                // it finished in the meantime
+                inFlightAsync.remove(key, running);
+                continue;
+            }
+
+            final SharedDownload download = new SharedDownload(key);
+            if (inFlightAsync.putIfAbsent(key, download) != null) continue;
+            downloadCount.incrementAndGet();
+            final DownloadFuture future = download.join(callback);
+            download.start(async.getAsync(siteUrl, request, download));
+            return future;
+        }
+    }
+
+    /**
+     * An asynchronous download and the futures of the callers waiting for it.
+     */
+    private final class SharedDownload implements DownloadCallback {
+        private final Key key;
+        private final List<DownloadFuture> futures = new ArrayList<>();
+        private boolean done = false;
+        @Nullable
+        private Future<DownloadResponse> request;
+
+        SharedDownload(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * @return the future of a new caller, or null if the download is already done
+         */
+        @Nullable
+        synchronized DownloadFuture join(@Nullable DownloadCallback callback) {
+            if (done) return null;
+            final DownloadFuture future = new DownloadFuture(callback) {
+                @Override
+                protected void onCancel() {
+                    leave(this);
+                }
+            };
+            futures.add(future);
+            return future;
+        }
+
+        void start(Future<DownloadResponse> request) {
+            final boolean cancelled;
+            synchronized (this) {
+                this.request = request;
+                // every caller may have left before the request was sent
+                cancelled = done && futures.isEmpty();
+            }
+            if (cancelled) request.cancel(true);
+        }
+
+        private void leave(DownloadFuture future) {
+            final Future<DownloadResponse> cancelled;
+            synchronized (this) {
+                if (!futures.remove(future) || !futures.isEmpty() || done) return;
+                done = true;
+                cancelled = request;
+            }
+            inFlightAsync.remove(key, this);
+            if (cancelled != null) cancelled.cancel(true);
+        }
+
+        private List<DownloadFuture> finish() {
+            inFlightAsync.remove(key, this);
+            synchronized (this) {
+                done = true;
+                final List<DownloadFuture> waiting = new ArrayList<>(futures);
+                futures.clear();
+                return waiting;
+            }
+        }
+
+        @Override
+        public void onResponse(DownloadResponse response) {
+            for (DownloadFuture future : finish()) future.complete(response);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            for (DownloadFuture future : finish()) future.fail(e);
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Utils
+    //////////////////////////////////////////////////////////////////////////*/
+
+    private static DownloadRequest withoutOptOut(DownloadRequest request) {
+        if (!request.getRequestHeaders().containsKey(NO_COALESCING)) return request;
+        final Map<String, List<String>> headers = new HashMap<>(request.getRequestHeaders());
+        headers.remove(NO_COALESCING);
+        return new DownloadRequest(request.getRequestBody(), headers);
+    }
+
+    /**
+     * Run the download, or wait for the one which is already running for the same key.
+     * <p>
+     * If the thread running a shared download is interrupted, e.g. because its extraction was cancelled,
+     * the threads waiting for it do not get its exception but start the download again.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Key key, final Callable<T> download) throws IOException, ReCaptchaException {
+        while (true) {
+            final FutureTask<T> task = new FutureTask<>(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    try {
+                        return download.call();
+                    } catch (Exception e) {
+                        if (isInterruption(e)) throw new OwnerInterruptedException(e);
+                        throw e;
+                    }
+                }
+            });
+            final FutureTask<T> running = (FutureTask<T>) inFlight.putIfAbsent(key, task);
+            final boolean owner = running == null;
+            if (owner) {
+                downloadCount.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(key, task);
+                }
+            } else {
+                coalescedCount.incrementAndGet();
+            }
+
+            try {
+                return owner ? task.get() : running.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + key.url);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof OwnerInterruptedException) {
+                    if (!owner) {
+                        // the owner may not have removed it yet
+                        inFlight.remove(key, running);
+                        continue;
+                    }
+                    cause = cause.getCause();
+                }
+                if (cause instanceof IOException) throw (IOException) cause;
+                if (cause instanceof ReCaptchaException) throw (ReCaptchaException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IOException("Could not download " + key.url, cause);
+            }
+        }
+    }
+
+    /**
+     * @return true if the download failed because its thread was interrupted, not because of the request
+     */
+    private static boolean isInterruption(Exception e) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        // some clients clear the interrupt flag when they throw, timeouts are real failures though
+        return e instanceof InterruptedException || e instanceof ClosedByInterruptException
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+
+    /**
+     * Wraps the exception of a download which failed because the thread running it was interrupted.
+     */
+    private static final class OwnerInterruptedException extends Exception {
+        OwnerInterruptedException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * The url and headers of a request. Strings and responses are kept apart,
+     * because the downloader may return different bodies for them.
+     */
+    private static final class Key {
+        private final boolean response;
+        private final String url;
+        // names in lower case, as they are not case sensitive
+        private final Map<String, List<String>> headers;
+
+        Key(boolean response, String url, Map<String, List<String>> headers) {
+            this.response = response;
+            this.url = url;
+            this.headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                this.headers.put(header.getKey().toLowerCase(Locale.ROOT), new ArrayList<>(header.getValue()));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key other = (Key) o;
+            return response == other.response && url.equals(other.url) && headers.equals(other.headers);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (response ? 1 : 0) + url.hashCode()) + headers.hashCode();
+        }
+    }
+}
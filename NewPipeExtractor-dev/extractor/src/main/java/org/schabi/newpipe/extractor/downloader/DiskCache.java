@@ -0,0 +1,137 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The disk tier of the {@link CachingDownloader}, one file per entry in a directory, e.g. below /tmp.
+ * <p>
+ * Files are written to a temporary file first and then renamed, so readers never see a partially
+ * written entry. When the directory grows beyond its size the least recently used files are deleted.
+ * Failures are ignored, the cache is only an optimization.
+ */
+final class DiskCache {
+
+    private static final String SUFFIX = ".entry";
+
+    private final File directory;
+    private final long maxSize;
+    private long size;
+
+    DiskCache(@Nonnull File directory, long maxSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create cache directory " + directory);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        for (File file : listEntries()) {
+            size += file.length();
+        }
+    }
+
+    @Nullable
+    HttpCacheEntry get(@Nonnull String key) {
+        final File file = fileOf(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final HttpCacheEntry entry = HttpCacheEntry.read(in);
+            if (entry == null || !entry.key.equals(key)) return null;
+            // the modification time orders the files for trimming
+            file.setLastModified(System.currentTimeMillis());
+            return entry;
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            // a broken file, e.g. from a full disk
+            remove(file);
+            return null;
+        }
+    }
+
+    void put(@Nonnull HttpCacheEntry entry) {
+        final File file = fileOf(entry.key);
+        final File temp = new File(directory, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                entry.write(out);
+            }
+            synchronized (this) {
+                size -= file.length();
+                if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+                    throw new IOException("Could not move " + temp + " to " + file);
+                }
+                size += file.length();
+                if (size > maxSize) trim();
+            }
+        } catch (IOException e) {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Delete the least recently used files until the directory only takes three quarters of its size.
+     */
+    private void trim() {
+        final File[] files = listEntries();
+        final long[] lastModified = new long[files.length];
+        final Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            // read every time only once, they change while sorting
+            lastModified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(lastModified[a], lastModified[b]);
+            }
+        });
+
+        for (Integer i : order) {
+            if (size <= maxSize / 4 * 3) break;
+            remove(files[i]);
+        }
+    }
+
+    private synchronized void remove(File file) {
+        final long length = file.length();
+        if (file.delete()) size -= length;
+    }
+
+    private File[] listEntries() {
+        final File[] files = directory.listFiles();
+        if (files == null) return new File[0];
+
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(SUFFIX)) files[count++] = file;
+        }
+        return Arrays.copyOf(files, count);
+    }
+
+    private File fileOf(String key) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+            final StringBuilder name = new StringBuilder(hash.length * 2 + SUFFIX.length());
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return new File(directory, name.append(SUFFIX).toString());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            // every java platform has SHA-1 and UTF-8
+            throw new IllegalStateException(e);
+        }
+    }
+}
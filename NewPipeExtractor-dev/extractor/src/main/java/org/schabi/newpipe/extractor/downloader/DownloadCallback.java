@@ -0,0 +1,17 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadResponse;
+
+/**
+ * Notified when an asynchronous download is done.
+ * It is called by the thread which completed the download, so it should return quickly.
+ */
+public interface DownloadCallback {
+    void onResponse(DownloadResponse response);
+
+    /**
+     * @param e an {@link java.io.IOException} or a {@link org.schabi.newpipe.extractor.exceptions.ReCaptchaException},
+     *          like the blocking methods of the {@link org.schabi.newpipe.extractor.Downloader} throw
+     */
+    void onFailure(Exception e);
+}
@@ -0,0 +1,74 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadResponse;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The future of an asynchronous download, which is completed by the downloader and notifies the callback.
+ * <p>
+ * Downloaders which can abort their requests override {@link #onCancel()}.
+ */
+public class DownloadFuture extends FutureTask<DownloadResponse> {
+
+    private static final Callable<DownloadResponse> NOTHING = new Callable<DownloadResponse>() {
+        @Override
+        public DownloadResponse call() {
+            throw new IllegalStateException("A download future is completed by its downloader");
+        }
+    };
+
+    @Nullable
+    private final DownloadCallback callback;
+
+    public DownloadFuture(@Nullable DownloadCallback callback) {
+        super(NOTHING);
+        this.callback = callback;
+    }
+
+    /**
+     * Used by {@link BlockingAsyncDownloader} to run a blocking download as the task of the future.
+     */
+    DownloadFuture(Callable<DownloadResponse> download, @Nullable DownloadCallback callback) {
+        super(download);
+        this.callback = callback;
+    }
+
+    public void complete(DownloadResponse response) {
+        set(response);
+    }
+
+    public void fail(Exception e) {
+        setException(e);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) onCancel();
+        return cancelled;
+    }
+
+    /**
+     * Called once if the future was cancelled before the download was done.
+     */
+    protected void onCancel() {
+    }
+
+    @Override
+    protected void done() {
+        if (callback == null || isCancelled()) return;
+        try {
+            callback.onResponse(get());
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            callback.onFailure(cause instanceof Exception ? (Exception) cause : e);
+        } catch (InterruptedException e) {
+            // can not happen, the future is done
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadResponse;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A response kept by the {@link CachingDownloader}, together with the time it stops being fresh.
+ * <p>
+ * The freshness follows RFC 7234 for a shared cache: {@code s-maxage} and {@code max-age} of the
+ * {@code Cache-Control} header come first, then {@code Expires}, then a tenth of the time since
+ * {@code Last-Modified} (at most a day). The {@code Age} header is subtracted.
+ * <p>
+ * The headers keep the names the downloader returned them with, so a cached response looks like
+ * the one that was downloaded. Cookies are left out, as the entry is shared by all users.
+ */
+final class HttpCacheEntry {
+
+    // 2: header names as sent by the server, without cookies
+    private static final int VERSION = 2;
+    private static final long MAX_HEURISTIC_LIFETIME = TimeUnit.DAYS.toMillis(1);
+
+    final String key;
+    final int responseCode;
+    final String body;
+    final Map<String, List<String>> headers;
+    final long expiresAt;
+
+    private HttpCacheEntry(String key, int responseCode, String body, Map<String, List<String>> headers,
+                           long expiresAt) {
+        this.key = key;
+        this.responseCode = responseCode;
+        this.body = body;
+        this.headers = headers;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return the entry of the response, or null if the response may not be cached
+     */
+    @Nullable
+    static HttpCacheEntry of(@Nonnull String key, @Nonnull DownloadResponse response, long now,
+                             @Nonnull CachePolicy policy) {
+        if (response.getResponseBody() == null) return null;
+        if (response.getResponseCode() != 200 && response.getResponseCode() != -1) return null;
+
+        final Map<String, List<String>> headers = copyHeaders(response.getResponseHeaders());
+        if (policy.getMaxAge() < 0) {
+            final Map<String, String> cacheControl = cacheControl(headers);
+            if (cacheControl.containsKey("no-store") || cacheControl.containsKey("private")) return null;
+        }
+
+        final HttpCacheEntry entry = new HttpCacheEntry(key, response.getResponseCode(), response.getResponseBody(),
+                headers, expiresAt(headers, now, policy));
+        if (!entry.isFresh(now) && !entry.canRevalidate()) return null;
+        return entry;
+    }
+
+    /**
+     * @return the entry with the headers of a {@code 304 Not Modified} response to its revalidation
+     */
+    @Nonnull
+    HttpCacheEntry revalidated(@Nonnull DownloadResponse notModified, long now, @Nonnull CachePolicy policy) {
+        final Map<String, List<String>> merged = new HashMap<>(headers);
+        for (Map.Entry<String, List<String>> header : copyHeaders(notModified.getResponseHeaders()).entrySet()) {
+            // the names may be written differently this time
+            final Iterator<String> names = merged.keySet().iterator();
+            while (names.hasNext()) {
+                if (names.next().equalsIgnoreCase(header.getKey())) names.remove();
+            }
+            merged.put(header.getKey(), header.getValue());
+        }
+        return new HttpCacheEntry(key, responseCode, body, merged, expiresAt(merged, now, policy));
+    }
+
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    boolean hasValidators() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    /**
+     * A conditional request is only sent if the downloader reports status codes,
+     * otherwise a {@code 304 Not Modified} can not be told from a new, empty response.
+     */
+    boolean canRevalidate() {
+        return responseCode != -1 && hasValidators();
+    }
+
+    @Nullable
+    String getETag() {
+        return header(headers, "etag");
+    }
+
+    @Nullable
+    String getLastModified() {
+        return header(headers, "last-modified");
+    }
+
+    @Nonnull
+    DownloadResponse toResponse() {
+        return new DownloadResponse(responseCode, body, headers);
+    }
+
+    /**
+     * @return roughly the number of bytes the entry takes in memory
+     */
+    long weight() {
+        long weight = 2L * (key.length() + body.length());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += 2L * header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += 2L * value.length();
+            }
+        }
+        return weight;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Serialization
+    //////////////////////////////////////////////////////////////////////////*/
+
+    void write(@Nonnull DataOutputStream out) throws IOException {
+        out.writeInt(VERSION);
+        out.writeUTF(key);
+        out.writeInt(responseCode);
+        out.writeLong(expiresAt);
+        out.writeInt(headers.size());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                out.writeUTF(value);
+            }
+        }
+        final byte[] bytes = body.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @return the entry, or null if it was written by another version
+     */
+    @Nullable
+    static HttpCacheEntry read(@Nonnull DataInputStream in) throws IOException {
+        if (in.readInt() != VERSION) return null;
+        final String key = in.readUTF();
+        final int responseCode = in.readInt();
+        final long expiresAt = in.readLong();
+
+        final int headerCount = in.readInt();
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            final String name = in.readUTF();
+            final int valueCount = in.readInt();
+            final List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(in.readUTF());
+            }
+            headers.put(name, values);
+        }
+
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new HttpCacheEntry(key, responseCode, new String(bytes, "UTF-8"), headers, expiresAt);
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Headers
+    //////////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * @return the headers which may be shared, without cookies and the status line some downloaders
+     * keep as null name
+     */
+    private static Map<String, List<String>> copyHeaders(@Nullable Map<String, List<String>> headers) {
+        if (headers == null) return Collections.emptyMap();
+        final Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            final String name = header.getKey();
+            if (name == null || header.getValue() == null) continue;
+            if (name.equalsIgnoreCase("set-cookie") || name.equalsIgnoreCase("set-cookie2")) continue;
+            copy.put(name, new ArrayList<>(header.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * @return the values of the header, whatever case its name is written in
+     */
+    @Nullable
+    private static List<String> headerValues(Map<String, List<String>> headers, String name) {
+        final List<String> values = headers.get(name);
+        if (values != null) return values;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) return header.getValue();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String header(Map<String, List<String>> headers, String name) {
+        final List<String> values = headerValues(headers, name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * @return the directives of the {@code Cache-Control} header, with an empty value if they have none
+     */
+    static Map<String, String> cacheControl(Map<String, List<String>> headers) {
+        final List<String> values = headerValues(headers, "cache-control");
+        if (values == null) return Collections.emptyMap();
+
+        final Map<String, String> directives = new HashMap<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                final int equals = directive.indexOf('=');
+                if (equals == -1) {
+                    directives.put(directive.trim().toLowerCase(Locale.ROOT), "");
+                } else {
+                    directives.put(directive.substring(0, equals).trim().toLowerCase(Locale.ROOT),
+                            directive.substring(equals + 1).trim().replace("\"", ""));
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static long expiresAt(Map<String, List<String>> headers, long now, CachePolicy policy) {
+        if (policy.getMaxAge() >= 0) return now + policy.getMaxAge();
+
+        final Map<String, String> cacheControl = cacheControl(headers);
+        if (cacheControl.containsKey("no-cache")) return now;
+
+        final long lifetime;
+        final long date = parseDate(header(headers, "date"), now);
+        if (cacheControl.containsKey("s-maxage")) {
+            lifetime = parseSeconds(cacheControl.get("s-maxage"));
+        } else if (cacheControl.containsKey("max-age")) {
+            lifetime = parseSeconds(cacheControl.get("max-age"));
+        } else if (header(headers, "expires") != null) {
+            // invalid dates like "0" mean the response is already expired
+            lifetime = parseDate(header(headers, "expires"), date) - date;
+        } else if (header(headers, "last-modified") != null) {
+            final long lastModified = parseDate(header(headers, "last-modified"), date);
+            lifetime = Math.min((date - lastModified) / 10, MAX_HEURISTIC_LIFETIME);
+        } else {
+            lifetime = 0;
+        }
+
+        return now + lifetime - parseSeconds(header(headers, "age"));
+    }
+
+    private static long parseSeconds(@Nullable String seconds) {
+        if (seconds == null) return 0;
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(seconds.trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long parseDate(@Nullable String date, long fallback) {
+        if (date == null) return fallback;
+        final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return format.parse(date).getTime();
+        } catch (ParseException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a downloader when the server answered with an unsuccessful status code,
+ * so callers can react to a specific code, e.g. fetch new credentials on {@code 401}.
+ */
+public class HttpResponseException extends IOException {
+
+    private final int responseCode;
+
+    public HttpResponseException(int responseCode, String message) {
+        super(message);
+        this.responseCode = responseCode;
+    }
+
+    public HttpResponseException(int responseCode, String message, Throwable cause) {
+        super(message, cause);
+        this.responseCode = responseCode;
+    }
+
+    public int getResponseCode() {
+        return responseCode;
+    }
+}
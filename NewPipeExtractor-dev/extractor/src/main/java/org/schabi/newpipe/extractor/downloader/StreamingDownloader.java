@@ -0,0 +1,27 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * Companion of the {@link org.schabi.newpipe.extractor.Downloader} which hands out the body of a response
+ * while it is still being downloaded.
+ * <p>
+ * Large bodies like manifests or scripts can then be parsed without keeping them in memory as a whole.
+ * Use {@link StreamingResponse#open} to get a streaming response from any downloader.
+ */
+public interface StreamingDownloader {
+
+    /**
+     * Send a get request and return as soon as the headers arrived.
+     * Failed requests throw like {@link org.schabi.newpipe.extractor.Downloader#get} does.
+     *
+     * @return the response, which has to be closed by the caller
+     */
+    @Nonnull
+    StreamingResponse getStreaming(@Nonnull String siteUrl, @Nonnull DownloadRequest request)
+            throws IOException, ReCaptchaException;
+}
@@ -0,0 +1,181 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response whose body is read while it arrives, instead of being kept as one string
+ * like in a {@link DownloadResponse}.
+ * <p>
+ * The body can only be read once, as bytes or as characters. The response has to be closed when it is not needed
+ * anymore. Closing it before the whole body was read stops the download, so a caller which found what it was
+ * looking for does not have to wait for the rest.
+ * <p>
+ * Use {@link #open} to get one from any downloader.
+ */
+public class StreamingResponse implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Nullable
+    private final InputStream body;
+    // the body of a response which was downloaded as a string
+    @Nullable
+    private final String text;
+    @Nullable
+    private final String charset;
+    private final long contentLength;
+    private final Map<String, List<String>> responseHeaders;
+
+    /**
+     * @param body          the body as it arrives, it is closed with the response
+     * @param charset       the charset declared by the server, or null if it declared none
+     * @param contentLength the length of the body in bytes, or -1 if it is unknown
+     * @param headers       the headers of the response
+     */
+    public StreamingResponse(@Nonnull InputStream body, @Nullable String charset, long contentLength,
+                             @Nullable Map<String, List<String>> headers) {
+        this.body = body;
+        this.text = null;
+        this.charset = charset;
+        this.contentLength = contentLength;
+        this.responseHeaders = headers;
+    }
+
+    private StreamingResponse(@Nonnull DownloadResponse response) {
+        this.body = null;
+        this.text = response.getResponseBody() == null ? "" : response.getResponseBody();
+        this.charset = null;
+        this.contentLength = -1;
+        this.responseHeaders = response.getResponseHeaders();
+    }
+
+    /**
+     * Wrap a response which was already downloaded.
+     */
+    @Nonnull
+    public static StreamingResponse of(@Nonnull DownloadResponse response) {
+        return new StreamingResponse(response);
+    }
+
+    /**
+     * Send a get request with the downloader. If it is a {@link StreamingDownloader} the body is read as it arrives,
+     * otherwise the response is downloaded as a string and wrapped.
+     */
+    @Nonnull
+    public static StreamingResponse open(@Nonnull Downloader downloader, @Nonnull String siteUrl,
+                                         @Nonnull DownloadRequest request) throws IOException, ReCaptchaException {
+        if (downloader instanceof StreamingDownloader) {
+            return ((StreamingDownloader) downloader).getStreaming(siteUrl, request);
+        }
+        return of(downloader.get(siteUrl, request));
+    }
+
+    @Nonnull
+    public static StreamingResponse open(@Nonnull Downloader downloader, @Nonnull String siteUrl)
+            throws IOException, ReCaptchaException {
+        return open(downloader, siteUrl, DownloadRequest.emptyRequest);
+    }
+
+    /**
+     * @return the charset declared by the server, or null if it declared none
+     */
+    @Nullable
+    public String getCharset() {
+        return charset;
+    }
+
+    /**
+     * @return the length of the body in bytes, or -1 if it is unknown
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return the body as bytes, e.g. for parsers which find out the encoding themselves
+     */
+    @Nonnull
+    public InputStream getInputStream() {
+        if (body != null) return body;
+        return new ByteArrayInputStream(text.getBytes(UTF_8));
+    }
+
+    /**
+     * @return the body decoded with the declared charset, or UTF-8 if there is none
+     */
+    @Nonnull
+    public Reader getReader() {
+        if (body == null) return new StringReader(text);
+        return new InputStreamReader(body, charset == null ? UTF_8 : Charset.forName(charset));
+    }
+
+    /**
+     * Read the rest of the body at once. The buffer is sized by the content length if it is known.
+     */
+    @Nonnull
+    public ByteBuffer readBytes() throws IOException {
+        if (body == null) return ByteBuffer.wrap(text.getBytes(UTF_8));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : 16 * 1024);
+        final byte[] buffer = new byte[8 * 1024];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    /**
+     * Read the rest of the body at once, like it would be in a {@link DownloadResponse}.
+     */
+    @Nonnull
+    public String readString() throws IOException {
+        if (body == null) return text;
+
+        final StringBuilder result = new StringBuilder(
+                contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : 16 * 1024);
+        final char[] buffer = new char[8 * 1024];
+        final Reader reader = getReader();
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Nonnull
+    public List<String> getResponseCookies() {
+        if (responseHeaders == null) return Collections.emptyList();
+        final List<String> cookies = responseHeaders.get("Set-Cookie");
+        return cookies == null ? Collections.<String>emptyList() : cookies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (body != null) body.close();
+    }
+}
@@ -116,14 +116,8 @@ public class MediaCCCStreamExtractor extends StreamExtractor {
             final String mimeType = recording.getString("mime_type");
             if(mimeType.startsWith("audio")) {
                 //first we need to resolve the actual video data from CDN
-                final MediaFormat mediaFormat;
-                if(mimeType.endsWith("opus")) {
-                    mediaFormat = MediaFormat.OPUS;
-                } else if(mimeType.endsWith("mpeg")) {
-                    mediaFormat = MediaFormat.MP3;
-                } else if(mimeType.endsWith("ogg")){
-                    mediaFormat = MediaFormat.OGG;
-                } else {
+                final MediaFormat mediaFormat = MediaFormat.getFromMimeType(mimeType);
+                if (mediaFormat == null) {
                     throw new ExtractionException("Unknown media format: " + mimeType);
                 }
 
@@ -143,12 +137,8 @@ public class MediaCCCStreamExtractor extends StreamExtractor {
             if(mimeType.startsWith("video")) {
                 //first we need to resolve the actual video data from CDN
 
-                final MediaFormat mediaFormat;
-                if(mimeType.endsWith("webm")) {
-                    mediaFormat = MediaFormat.WEBM;
-                } else if(mimeType.endsWith("mp4")) {
-                    mediaFormat = MediaFormat.MPEG_4;
-                } else {
+                final MediaFormat mediaFormat = MediaFormat.getFromMimeType(mimeType);
+                if (mediaFormat == null) {
                     throw new ExtractionException("Unknown media format: " + mimeType);
                 }
 
@@ -36,7 +36,7 @@ public class SoundcloudChannelExtractor extends ChannelExtractor {
         String apiUrl = "https://api-v2.soundcloud.com/users/" + userId +
                 "?client_id=" + SoundcloudParsingHelper.clientId();
 
-        String response = downloader.download(apiUrl);
+        String response = SoundcloudParsingHelper.downloadApi(downloader, apiUrl);
         try {
             user = JsonParser.object().from(response);
         } catch (JsonParserException e) {
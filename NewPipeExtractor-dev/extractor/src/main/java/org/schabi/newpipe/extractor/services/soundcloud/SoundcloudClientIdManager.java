@@ -0,0 +1,299 @@
+package org.schabi.newpipe.extractor.services.soundcloud;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.AsyncDownloader;
+import org.schabi.newpipe.extractor.downloader.BlockingAsyncDownloader;
+import org.schabi.newpipe.extractor.downloader.DownloadCallback;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
+import org.schabi.newpipe.extractor.downloader.StreamingResponse;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.Parser;
+import org.schabi.newpipe.extractor.utils.Parser.RegexException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Process wide holder of the client id the SoundCloud api needs.
+ * <p>
+ * The id is scraped from the app script of soundcloud.com, which takes two downloads. To keep them off
+ * the path of the first request, the id can be kept in a {@link Store} across restarts and fetched ahead
+ * of time with {@link #prefetch()}. An id older than three quarters of its maximum age is refreshed
+ * on the executor while the old one is still handed out; without an executor it is refreshed once it
+ * is too old. When the api rejects an id, {@link #renew(String)} replaces it.
+ * <p>
+ * It is safe to use from multiple threads, only one thread scrapes at a time.
+ */
+public class SoundcloudClientIdManager {
+
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+    private static final Pattern CLIENT_ID_PATTERN = Pattern.compile(",client_id:\"(.*?)\"");
+    // the api answers 401 or 403 to an invalid client id, whatever the path
+    private static final String VALIDATION_URL = "https://api-v2.soundcloud.com/?client_id=";
+
+    private static final SoundcloudClientIdManager instance = new SoundcloudClientIdManager();
+
+    /**
+     * Keeps the state of the manager, e.g. in a file, so the id survives a restart.
+     */
+    public interface Store {
+        /**
+         * @return the state saved last, or null if there is none
+         */
+        @Nullable
+        String load();
+
+        void save(@Nonnull String state);
+    }
+
+    private static final class ClientId {
+        final String id;
+        final long fetchedAt;
+
+        ClientId(String id, long fetchedAt) {
+            this.id = id;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final Object lock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    @Nullable
+    private volatile ClientId current;
+    @Nullable
+    private volatile Store store;
+    @Nullable
+    private volatile Executor executor;
+    private volatile long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+
+    SoundcloudClientIdManager() {
+    }
+
+    public static SoundcloudClientIdManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Save the id in the store from now on, and take the id saved there if there is none yet.
+     */
+    public void setStore(@Nullable Store store) {
+        this.store = store;
+        if (store == null || current != null) return;
+
+        final String state = store.load();
+        if (state == null) return;
+        final int separator = state.indexOf(' ');
+        if (separator == -1) return;
+        try {
+            final ClientId saved = new ClientId(state.substring(separator + 1),
+                    Long.parseLong(state.substring(0, separator)));
+            synchronized (lock) {
+                if (current == null && !saved.id.isEmpty()) current = saved;
+            }
+        } catch (NumberFormatException ignored) {
+            // not written by this class
+        }
+    }
+
+    /**
+     * @param executor runs refreshes and {@link #prefetch()} in the background, or null to run them
+     *                 on the calling thread
+     */
+    public void setExecutor(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    public void setMaxAge(long duration, @Nonnull TimeUnit unit) {
+        this.maxAgeMillis = unit.toMillis(duration);
+    }
+
+    /**
+     * @return a client id, scraping one if there is none
+     */
+    @Nonnull
+    public String getClientId() throws ReCaptchaException, IOException, RegexException {
+        final ClientId clientId = current;
+        if (clientId == null) return refresh(null);
+
+        final long age = now() - clientId.fetchedAt;
+        if (age >= maxAgeMillis / 4 * 3) {
+            if (executor != null) {
+                refreshInBackground(clientId.id, false);
+            } else if (age >= maxAgeMillis) {
+                return refresh(clientId.id);
+            }
+        }
+        return clientId.id;
+    }
+
+    /**
+     * Replace an id the api rejected.
+     *
+     * @param rejectedId the id of the rejected request
+     * @return a new id, or the current one if another thread replaced the rejected id already
+     */
+    @Nonnull
+    public String renew(@Nonnull String rejectedId) throws ReCaptchaException, IOException, RegexException {
+        return refresh(rejectedId);
+    }
+
+    /**
+     * Get an id ready for the first request: scrape one if there is none, otherwise make sure
+     * the api still accepts the current one. Runs on the executor if there is one, the current id
+     * is then checked with an asynchronous request.
+     */
+    public void prefetch() {
+        final ClientId clientId = current;
+        final Executor executor = this.executor;
+        if (clientId != null && executor != null) {
+            validateInBackground(clientId.id, executor);
+        } else {
+            refreshInBackground(clientId == null ? null : clientId.id, clientId != null);
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Internal
+    //////////////////////////////////////////////////////////////////////////*/
+
+    private void refreshInBackground(@Nullable final String staleId, final boolean validateFirst) {
+        // one refresh at a time is enough
+        if (!refreshing.compareAndSet(false, true)) return;
+        final Runnable refresh = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (validateFirst && staleId != null && isValid(staleId)) return;
+                    refresh(staleId);
+                } catch (Exception ignored) {
+                    // the current id stays, the next request tries again
+                } finally {
+                    refreshing.set(false);
+                }
+            }
+        };
+
+        final Executor executor = this.executor;
+        if (executor == null) {
+            refresh.run();
+            return;
+        }
+        try {
+            executor.execute(refresh);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Ask the api whether it still accepts the id, and refresh it on the executor if it does not.
+     * No thread waits for the answer if the downloader is asynchronous.
+     */
+    private void validateInBackground(final String id, Executor executor) {
+        if (!refreshing.compareAndSet(false, true)) return;
+        try {
+            asyncDownloader(executor).getAsync(VALIDATION_URL + id, DownloadRequest.emptyRequest,
+                    new DownloadCallback() {
+                        @Override
+                        public void onResponse(DownloadResponse response) {
+                            refreshing.set(false);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            refreshing.set(false);
+                            if (e instanceof HttpResponseException && isRejection((HttpResponseException) e)) {
+                                refreshInBackground(id, false);
+                            }
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * @param staleId the id to replace, or null if there is none
+     */
+    private String refresh(@Nullable String staleId) throws ReCaptchaException, IOException, RegexException {
+        synchronized (lock) {
+            // another thread may have replaced it while this one waited
+            final ClientId clientId = current;
+            if (clientId != null && !clientId.id.equals(staleId)) return clientId.id;
+
+            final String id = scrape();
+            final long fetchedAt = now();
+            current = new ClientId(id, fetchedAt);
+
+            final Store store = this.store;
+            if (store != null) store.save(fetchedAt + " " + id);
+            return id;
+        }
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return false if the api rejects the id, true if it accepts it or that is not known
+     */
+    boolean isValid(String id) throws ReCaptchaException {
+        try {
+            NewPipe.getDownloader().download(VALIDATION_URL + id);
+            return true;
+        } catch (HttpResponseException e) {
+            return !isRejection(e);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static boolean isRejection(HttpResponseException e) {
+        return e.getResponseCode() == 401 || e.getResponseCode() == 403;
+    }
+
+    AsyncDownloader asyncDownloader(Executor executor) {
+        return BlockingAsyncDownloader.of(NewPipe.getDownloader(), executor);
+    }
+
+    String scrape() throws ReCaptchaException, IOException, RegexException {
+        Downloader dl = NewPipe.getDownloader();
+        final Element jsElement;
+        try (StreamingResponse response = StreamingResponse.open(dl, "https://soundcloud.com")) {
+            Document doc = Jsoup.parse(response.getInputStream(), response.getCharset(), "https://soundcloud.com");
+            jsElement = doc.select("script[src^=https://a-v2.sndcdn.com/assets/app]").first();
+        }
+        if (jsElement == null) throw new RegexException("Could not find the app script of soundcloud");
+
+        try {
+            final HashMap<String, String> headers = new HashMap<>();
+            headers.put("Range", "bytes=0-16384");
+            String js = dl.download(jsElement.attr("src"), headers);
+
+            return Parser.matchGroup1(CLIENT_ID_PATTERN, js);
+        } catch (IOException | RegexException ignored) {
+            // Ignore it and proceed to download the whole js file
+        }
+
+        // stop downloading the whole js file once the id was found
+        try (StreamingResponse js = StreamingResponse.open(dl, jsElement.attr("src"))) {
+            return Parser.matchGroup1(CLIENT_ID_PATTERN, js.getReader(), 1024);
+        }
+    }
+}
@@ -5,11 +5,11 @@ import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.schabi.newpipe.extractor.Downloader;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.channel.ChannelInfoItemsCollector;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
+import org.schabi.newpipe.extractor.downloader.StreamingResponse;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
@@ -22,39 +22,55 @@ import java.net.URLEncoder;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.schabi.newpipe.extractor.utils.Utils.replaceHttpWithHttps;
 
 public class SoundcloudParsingHelper {
-    private static String clientId;
-    
+    private static final Pattern CLIENT_ID_PARAMETER = Pattern.compile("[?&]client_id=([^&]+)");
+
     private SoundcloudParsingHelper() {
     }
 
+    /**
+     * @see SoundcloudClientIdManager#getClientId()
+     */
     public static String clientId() throws ReCaptchaException, IOException, RegexException {
-        if (clientId != null && !clientId.isEmpty()) return clientId;
-
-        Downloader dl = NewPipe.getDownloader();
-        String response = dl.download("https://soundcloud.com");
-
-        Document doc = Jsoup.parse(response);
-        Element jsElement = doc.select("script[src^=https://a-v2.sndcdn.com/assets/app]").first();
-
-        final String clientIdPattern = ",client_id:\"(.*?)\"";
+        return SoundcloudClientIdManager.getInstance().getClientId();
+    }
 
+    /**
+     * Send a get request to an api url containing the client id. If the api rejects the id,
+     * it is replaced and the request is sent once more with the new id.
+     *
+     * @return the response, which has to be closed
+     */
+    public static StreamingResponse openApi(Downloader downloader, String apiUrl)
+            throws IOException, ReCaptchaException, RegexException {
         try {
-            final HashMap<String, String> headers = new HashMap<>();
-            headers.put("Range", "bytes=0-16384");
-            String js = dl.download(jsElement.attr("src"), headers);
-
-            return clientId = Parser.matchGroup1(clientIdPattern, js);
-        } catch (IOException | RegexException ignored) {
-            // Ignore it and proceed to download the whole js file
+            return StreamingResponse.open(downloader, apiUrl);
+        } catch (HttpResponseException e) {
+            if (e.getResponseCode() != 401 && e.getResponseCode() != 403) throw e;
+            final Matcher clientIdParameter = CLIENT_ID_PARAMETER.matcher(apiUrl);
+            // rejected for another reason than the client id
+            if (!clientIdParameter.find()) throw e;
+            final String rejectedId = clientIdParameter.group(1);
+            final String clientId = SoundcloudClientIdManager.getInstance().renew(rejectedId);
+            if (clientId.equals(rejectedId)) throw e;
+            return StreamingResponse.open(downloader,
+                    apiUrl.replace("client_id=" + rejectedId, "client_id=" + clientId));
         }
+    }
 
-        String js = dl.download(jsElement.attr("src"));
-        return clientId = Parser.matchGroup1(clientIdPattern, js);
+    /**
+     * Like {@link #openApi(Downloader, String)}, but the whole response is returned.
+     */
+    public static String downloadApi(Downloader downloader, String apiUrl)
+            throws IOException, ReCaptchaException, RegexException {
+        try (StreamingResponse response = openApi(downloader, apiUrl)) {
+            return response.readString();
+        }
     }
 
     public static String toDateString(String time) throws ParsingException {
@@ -84,8 +100,8 @@ public class SoundcloudParsingHelper {
                 + "?url=" + URLEncoder.encode(url, "UTF-8")
                 + "&client_id=" + clientId();
 
-        try {
-            return JsonParser.object().from(downloader.download(apiUrl));
+        try (StreamingResponse response = openApi(downloader, apiUrl)) {
+            return JsonParser.object().from(response.getInputStream());
         } catch (JsonParserException e) {
             throw new ParsingException("Could not parse json response", e);
         }
@@ -143,7 +159,7 @@ public class SoundcloudParsingHelper {
      * @return the next streams url, empty if don't have
      */
     public static String getUsersFromApi(ChannelInfoItemsCollector collector, String apiUrl) throws IOException, ReCaptchaException, ParsingException {
-        String response = NewPipe.getDownloader().download(apiUrl);
+        String response = downloadApi(NewPipe.getDownloader(), apiUrl);
         JsonObject responseObject;
         try {
             responseObject = JsonParser.object().from(response);
@@ -194,7 +210,7 @@ public class SoundcloudParsingHelper {
      * @return the next streams url, empty if don't have
      */
     public static String getStreamsFromApi(StreamInfoItemsCollector collector, String apiUrl, boolean charts) throws IOException, ReCaptchaException, ParsingException {
-        String response = NewPipe.getDownloader().download(apiUrl);
+        String response = downloadApi(NewPipe.getDownloader(), apiUrl);
         JsonObject responseObject;
         try {
             responseObject = JsonParser.object().from(response);
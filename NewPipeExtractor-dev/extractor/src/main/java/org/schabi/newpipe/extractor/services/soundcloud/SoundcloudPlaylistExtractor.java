@@ -36,7 +36,7 @@ public class SoundcloudPlaylistExtractor extends PlaylistExtractor {
                 "?client_id=" + SoundcloudParsingHelper.clientId() +
                 "&representation=compact";
 
-        String response = downloader.download(apiUrl);
+        String response = SoundcloudParsingHelper.downloadApi(downloader, apiUrl);
         try {
             playlist = JsonParser.object().from(response);
         } catch (JsonParserException e) {
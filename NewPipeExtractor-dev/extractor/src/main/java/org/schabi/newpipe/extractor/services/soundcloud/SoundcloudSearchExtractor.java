@@ -51,7 +51,7 @@ public class SoundcloudSearchExtractor extends SearchExtractor {
     public InfoItemsPage<InfoItem> getPage(String pageUrl) throws IOException, ExtractionException {
         final Downloader dl = getDownloader();
         try {
-            searchCollection = JsonParser.object().from(dl.download(pageUrl)).getArray("collection");
+            searchCollection = JsonParser.object().from(SoundcloudParsingHelper.downloadApi(dl, pageUrl)).getArray("collection");
         } catch (JsonParserException e) {
             throw new ParsingException("Could not parse json response", e);
         }
@@ -64,7 +64,7 @@ public class SoundcloudSearchExtractor extends SearchExtractor {
         final Downloader dl = getDownloader();
         final String url = getUrl();
         try {
-            searchCollection = JsonParser.object().from(dl.download(url)).getArray("collection");
+            searchCollection = JsonParser.object().from(SoundcloudParsingHelper.downloadApi(dl, url)).getArray("collection");
         } catch (JsonParserException e) {
             throw new ParsingException("Could not parse json response", e);
         }
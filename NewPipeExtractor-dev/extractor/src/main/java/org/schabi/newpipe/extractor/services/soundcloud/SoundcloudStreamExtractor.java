@@ -139,7 +139,7 @@ public class SoundcloudStreamExtractor extends StreamExtractor {
         String apiUrl = "https://api.soundcloud.com/i1/tracks/" + urlEncode(getId()) + "/streams"
                 + "?client_id=" + urlEncode(SoundcloudParsingHelper.clientId());
 
-        String response = dl.download(apiUrl);
+        String response = SoundcloudParsingHelper.downloadApi(dl, apiUrl);
         JsonObject responseObject;
         try {
             responseObject = JsonParser.object().from(response);
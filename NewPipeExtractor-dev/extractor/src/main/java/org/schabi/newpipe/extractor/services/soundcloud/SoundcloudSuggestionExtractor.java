@@ -35,7 +35,7 @@ public class SoundcloudSuggestionExtractor extends SuggestionExtractor {
                 + "&client_id=" + SoundcloudParsingHelper.clientId()
                 + "&limit=10";
 
-        String response = dl.download(url);
+        String response = SoundcloudParsingHelper.downloadApi(dl, url);
         try {
             JsonArray collection = JsonParser.object().from(response).getArray("collection");
             for (Object suggestion : collection) {
@@ -3,6 +3,8 @@ package org.schabi.newpipe.extractor.services.youtube;
 import org.schabi.newpipe.extractor.MediaFormat;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import javax.annotation.Nullable;
+
 import static org.schabi.newpipe.extractor.MediaFormat.*;
 import static org.schabi.newpipe.extractor.services.youtube.ItagItem.ItagType.*;
 
@@ -79,22 +81,39 @@ public class ItagItem {
     // Utils
     //////////////////////////////////////////////////////////////////////////*/
 
-    public static boolean isSupported(int itag) {
-        for (ItagItem item : ITAG_LIST) {
-            if (itag == item.id) {
-                return true;
-            }
+    // the items of ITAG_LIST by their id
+    private static final ItagItem[] ITAGS_BY_ID = indexById(ITAG_LIST);
+
+    private static ItagItem[] indexById(ItagItem[] items) {
+        int maxId = 0;
+        for (ItagItem item : items) {
+            maxId = Math.max(maxId, item.id);
         }
-        return false;
+        final ItagItem[] byId = new ItagItem[maxId + 1];
+        for (ItagItem item : items) {
+            byId[item.id] = item;
+        }
+        return byId;
+    }
+
+    public static boolean isSupported(int itag) {
+        return findItag(itag) != null;
     }
 
     public static ItagItem getItag(int itagId) throws ParsingException {
-        for (ItagItem item : ITAG_LIST) {
-            if (itagId == item.id) {
-                return item;
-            }
+        final ItagItem item = findItag(itagId);
+        if (item == null) {
+            throw new ParsingException("itag=" + Integer.toString(itagId) + " not supported");
         }
-        throw new ParsingException("itag=" + Integer.toString(itagId) + " not supported");
+        return item;
+    }
+
+    /**
+     * @return the item with the given id or null if the itag is not supported
+     */
+    @Nullable
+    public static ItagItem findItag(int itagId) {
+        return itagId >= 0 && itagId < ITAGS_BY_ID.length ? ITAGS_BY_ID[itagId] : null;
     }
 
     /*//////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,180 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.ScriptableObject;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decrypts the signatures of cipher protected youtube streams.
+ * <p>
+ * Usually the decryption code can be parsed into a {@link SignatureTransform}, which runs
+ * in plain java, so Rhino does not even need to be loaded.
+ * Otherwise the decryption code is compiled only once by Rhino into a sealed scope.
+ * Afterwards the compiled decrypt function can be called from any thread,
+ * each call only needs to enter a Rhino {@link Context}.
+ * Use {@link #decrypt(List)} to decrypt all signatures of a video inside a single context.
+ */
+public class SignatureDecipherer {
+    static final String DECRYPTION_FUNC_NAME = "decrypt";
+
+    private final String decryptionCode;
+    @Nullable
+    private final SignatureTransform transform;
+    @Nullable
+    private final RhinoProgram rhinoProgram;
+
+    private SignatureDecipherer(String decryptionCode,
+                                @Nullable SignatureTransform transform,
+                                @Nullable RhinoProgram rhinoProgram) {
+        this.decryptionCode = decryptionCode;
+        this.transform = transform;
+        this.rhinoProgram = rhinoProgram;
+    }
+
+    /**
+     * @param decryptionCode js code that contains a function called "decrypt"
+     */
+    @Nonnull
+    public static SignatureDecipherer compile(@Nonnull String decryptionCode) throws ParsingException {
+        final SignatureTransform transform = SignatureTransform.parse(decryptionCode);
+        if (transform != null) {
+            return new SignatureDecipherer(decryptionCode, transform, null);
+        }
+        return compileWithRhino(decryptionCode);
+    }
+
+    /**
+     * Compile the decryption code with Rhino, even if it could be run by a {@link SignatureTransform}.
+     */
+    @Nonnull
+    static SignatureDecipherer compileWithRhino(@Nonnull String decryptionCode) throws ParsingException {
+        return new SignatureDecipherer(decryptionCode, null, RhinoProgram.compile(decryptionCode));
+    }
+
+    @Nonnull
+    public String decrypt(@Nonnull String encryptedSig) throws ParsingException {
+        if (transform != null) {
+            return transform.apply(encryptedSig);
+        }
+        return rhinoProgram.decrypt(encryptedSig);
+    }
+
+    /**
+     * Decrypt several signatures at once (inside of one context, if Rhino is used).
+     *
+     * @return the decrypted signatures in the same order as the encrypted ones
+     */
+    @Nonnull
+    public List<String> decrypt(@Nonnull List<String> encryptedSigs) throws ParsingException {
+        if (transform != null) {
+            final List<String> result = new ArrayList<>(encryptedSigs.size());
+            for (String encryptedSig : encryptedSigs) {
+                result.add(transform.apply(encryptedSig));
+            }
+            return result;
+        }
+        return rhinoProgram.decrypt(encryptedSigs);
+    }
+
+    /**
+     * @return true if the decryption code is run by Rhino instead of a {@link SignatureTransform}
+     */
+    public boolean usesRhino() {
+        return rhinoProgram != null;
+    }
+
+    @Nonnull
+    public String getDecryptionCode() {
+        return decryptionCode;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Rhino
+    //////////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * Kept in its own class, so the Rhino classes are only loaded if they are really needed.
+     */
+    private static class RhinoProgram {
+        private final ScriptableObject scope;
+        private final Function decryptionFunction;
+
+        private RhinoProgram(ScriptableObject scope, Function decryptionFunction) {
+            this.scope = scope;
+            this.decryptionFunction = decryptionFunction;
+        }
+
+        static RhinoProgram compile(String decryptionCode) throws ParsingException {
+            final Context context = enterContext();
+            try {
+                final ScriptableObject scope = context.initSafeStandardObjects(null, true);
+                final Script script = context.compileString(decryptionCode, "decryptionCode", 1, null);
+                script.exec(context, scope);
+
+                final Object decryptionFunction = scope.get(DECRYPTION_FUNC_NAME, scope);
+                if (!(decryptionFunction instanceof Function)) {
+                    throw new ParsingException("Decryption code does not contain a \""
+                            + DECRYPTION_FUNC_NAME + "\" function");
+                }
+                // The decrypt function only works on its argument and the helper object,
+                // so sealing makes the scope safe to share between threads.
+                scope.sealObject();
+                return new RhinoProgram(scope, (Function) decryptionFunction);
+            } catch (ParsingException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ParsingException("Could not compile decryption code", e);
+            } finally {
+                Context.exit();
+            }
+        }
+
+        String decrypt(String encryptedSig) throws ParsingException {
+            final Context context = enterContext();
+            try {
+                return call(context, encryptedSig);
+            } finally {
+                Context.exit();
+            }
+        }
+
+        List<String> decrypt(List<String> encryptedSigs) throws ParsingException {
+            final List<String> result = new ArrayList<>(encryptedSigs.size());
+            if (encryptedSigs.isEmpty()) return result;
+
+            final Context context = enterContext();
+            try {
+                for (String encryptedSig : encryptedSigs) {
+                    result.add(call(context, encryptedSig));
+                }
+            } finally {
+                Context.exit();
+            }
+            return result;
+        }
+
+        private String call(Context context, String encryptedSig) throws ParsingException {
+            final Object result;
+            try {
+                result = decryptionFunction.call(context, scope, scope, new Object[]{encryptedSig});
+            } catch (Exception e) {
+                throw new ParsingException("could not get decrypt signature", e);
+            }
+            return result == null ? "" : result.toString();
+        }
+
+        private static Context enterContext() {
+            final Context context = Context.enter();
+            // Android can not load generated bytecode, so we always use the interpreter
+            context.setOptimizationLevel(-1);
+            return context;
+        }
+    }
+}
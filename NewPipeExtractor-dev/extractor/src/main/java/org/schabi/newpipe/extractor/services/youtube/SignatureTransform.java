@@ -0,0 +1,199 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pure java implementation of the youtube signature decrypt function.
+ * <p>
+ * The decrypt function of the youtube player only splits the signature into an array,
+ * calls methods of a helper object which reverse, splice or swap the array and joins it again.
+ * These calls are parsed once into a list of opcodes, which can then be applied to signatures
+ * without the need of a javascript engine.
+ * <p>
+ * If the decryption code contains anything else, {@link #parse(String)} returns null
+ * and the code has to be run by a javascript engine instead.
+ */
+public class SignatureTransform {
+    private static final int REVERSE = 0;
+    private static final int SPLICE = 1;
+    private static final int SWAP = 2;
+
+    private static final Pattern CALLER_PATTERN = Pattern.compile(
+            "function " + SignatureDecipherer.DECRYPTION_FUNC_NAME + "\\(\\w+\\)\\{return ([\\w$]+)\\(\\w+\\);\\}");
+    private static final Pattern HELPER_METHOD_PATTERN = Pattern.compile(
+            "([\\w$]+):function\\(([\\w$]+)(?:,([\\w$]+))?\\)\\{([^}]*)\\}");
+    private static final Pattern SPLIT_PATTERN = Pattern.compile("([\\w$]+)=\\1\\.split\\(\"\"\\)");
+    private static final Pattern CALL_PATTERN = Pattern.compile(
+            "([\\w$]+)(?:\\.([\\w$]+)|\\[\"([\\w$]+)\"\\])\\(([\\w$]+),(\\d+)\\)");
+    private static final Pattern JOIN_PATTERN = Pattern.compile("return ([\\w$]+)\\.join\\(\"\"\\)");
+
+    private final int[] opcodes;
+    private final int[] args;
+
+    private SignatureTransform(int[] opcodes, int[] args) {
+        this.opcodes = opcodes;
+        this.args = args;
+    }
+
+    /**
+     * Try to parse the decryption code (as produced by {@link YoutubeDecryptionCache}) into a transform.
+     *
+     * @param decryptionCode the helper object, the decrypt function and the "decrypt" caller function
+     * @return the transform or null if the code contains anything this class does not understand
+     */
+    @Nullable
+    public static SignatureTransform parse(@Nonnull String decryptionCode) {
+        final Matcher caller = CALLER_PATTERN.matcher(decryptionCode);
+        if (!caller.find()) return null;
+        final String functionName = caller.group(1);
+
+        final String functionBody = findBlock(decryptionCode, "var " + functionName + "=function(");
+        if (functionBody == null) return null;
+
+        final String[] statements = functionBody.split(";");
+        if (statements.length < 2) return null;
+
+        final Matcher split = SPLIT_PATTERN.matcher(statements[0]);
+        if (!split.matches()) return null;
+        final String argName = split.group(1);
+
+        final Matcher join = JOIN_PATTERN.matcher(statements[statements.length - 1]);
+        if (!join.matches() || !join.group(1).equals(argName)) return null;
+
+        final int[] opcodes = new int[statements.length - 2];
+        final int[] args = new int[statements.length - 2];
+        Map<String, Integer> helperMethods = null;
+        String helperName = null;
+
+        for (int i = 1; i < statements.length - 1; i++) {
+            final Matcher call = CALL_PATTERN.matcher(statements[i]);
+            if (!call.matches() || !call.group(4).equals(argName)) return null;
+
+            if (helperMethods == null) {
+                helperName = call.group(1);
+                helperMethods = parseHelperObject(decryptionCode, helperName);
+                if (helperMethods == null) return null;
+            } else if (!helperName.equals(call.group(1))) {
+                return null;
+            }
+
+            final String methodName = call.group(2) != null ? call.group(2) : call.group(3);
+            final Integer opcode = helperMethods.get(methodName);
+            if (opcode == null) return null;
+
+            try {
+                opcodes[i - 1] = opcode;
+                args[i - 1] = Integer.parseInt(call.group(5));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return new SignatureTransform(opcodes, args);
+    }
+
+    /**
+     * Apply the transform to an encrypted signature.
+     */
+    @Nonnull
+    public String apply(@Nonnull String encryptedSig) {
+        final char[] chars = encryptedSig.toCharArray();
+        int start = 0;
+        int length = chars.length;
+
+        for (int i = 0; i < opcodes.length; i++) {
+            switch (opcodes[i]) {
+                case REVERSE:
+                    for (int lo = start, hi = start + length - 1; lo < hi; lo++, hi--) {
+                        final char c = chars[lo];
+                        chars[lo] = chars[hi];
+                        chars[hi] = c;
+                    }
+                    break;
+                case SPLICE:
+                    // a.splice(0, b) removes the first b elements
+                    final int removed = Math.min(args[i], length);
+                    start += removed;
+                    length -= removed;
+                    break;
+                case SWAP:
+                    if (length == 0) break;
+                    final int other = start + args[i] % length;
+                    final char c = chars[start];
+                    chars[start] = chars[other];
+                    chars[other] = c;
+                    break;
+            }
+        }
+        return new String(chars, start, length);
+    }
+
+    /**
+     * @return the opcode of each method of the helper object or null if a method is unknown
+     */
+    @Nullable
+    private static Map<String, Integer> parseHelperObject(String decryptionCode, String helperName) {
+        final int helperStart = decryptionCode.indexOf("var " + helperName + "={");
+        if (helperStart == -1) return null;
+        final int helperEnd = decryptionCode.indexOf("}};", helperStart);
+        if (helperEnd == -1) return null;
+        final String helperObject = decryptionCode.substring(helperStart, helperEnd + 2);
+
+        final Map<String, Integer> methods = new HashMap<>();
+        final Matcher method = HELPER_METHOD_PATTERN.matcher(helperObject);
+        while (method.find()) {
+            final Integer opcode = opcodeOf(method.group(2), method.group(3), method.group(4));
+            if (opcode == null) return null;
+            methods.put(method.group(1), opcode);
+        }
+        return methods.isEmpty() ? null : methods;
+    }
+
+    /**
+     * Match the whole body of a helper method against the forms used by the player,
+     * as any other code (even if it also reverses, splices or swaps) may do something else.
+     *
+     * @param array the name of the array parameter
+     * @param number the name of the number parameter, if any
+     * @return the opcode of the method or null if the body is not exactly one of the known forms
+     */
+    @Nullable
+    private static Integer opcodeOf(String array, @Nullable String number, String body) {
+        final String a = Pattern.quote(array);
+        if (body.matches(a + "\\.reverse\\(\\);?")) {
+            return REVERSE;
+        }
+        if (number == null || number.equals(array)) return null;
+
+        final String b = Pattern.quote(number);
+        if (body.matches(a + "\\.splice\\(0," + b + "\\);?")) {
+            return SPLICE;
+        }
+        // var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c
+        final String other = a + "\\[" + b + "%" + a + "\\.length\\]";
+        final Matcher swap = Pattern.compile("var ([\\w$]+)=" + a + "\\[0\\];"
+                + a + "\\[0\\]=" + other + ";" + other + "=\\1;?").matcher(body);
+        if (swap.matches() && !swap.group(1).equals(array) && !swap.group(1).equals(number)) {
+            return SWAP;
+        }
+        return null;
+    }
+
+    /**
+     * @return the content of the block following the given prefix, or null if it can not be found
+     */
+    @Nullable
+    private static String findBlock(String code, String prefix) {
+        final int prefixStart = code.indexOf(prefix);
+        if (prefixStart == -1) return null;
+        final int blockStart = code.indexOf('{', prefixStart + prefix.length());
+        if (blockStart == -1) return null;
+        final int blockEnd = code.indexOf('}', blockStart);
+        if (blockEnd == -1) return null;
+        return code.substring(blockStart + 1, blockEnd);
+    }
+}
@@ -0,0 +1,275 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.Parser;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide cache of the compiled signature decryption code, keyed by the url of the youtube js player.
+ * <p>
+ * Loading the decryption code means downloading the whole js player and running several regexes
+ * over it, then it has to be compiled into a {@link SignatureDecipherer}. As the player url changes rarely,
+ * every stream extractor asks this cache first, so only the first extraction after a player update
+ * has to pay for it.
+ * <p>
+ * The cache is bounded by a maximum number of entries (least recently used entries are evicted first)
+ * and by a time to live for each entry. It is safe to use from multiple threads.
+ */
+public class YoutubeDecryptionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 8;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    private final static String DECYRYPTION_SIGNATURE_FUNCTION_REGEX =
+            "([\\w$]+)\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;";
+    private final static String DECRYPTION_AKAMAIZED_STRING_REGEX =
+            "yt\\.akamaized\\.net/\\)\\s*\\|\\|\\s*.*?\\s*c\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\(";
+    private final static String DECRYPTION_AKAMAIZED_SHORT_STRING_REGEX =
+            "\\bc\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\(";
+
+    private static final YoutubeDecryptionCache instance = new YoutubeDecryptionCache();
+
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+    private volatile long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private YoutubeDecryptionCache() {
+    }
+
+    public static YoutubeDecryptionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the decipherer of the given player, downloading and parsing the player
+     * if it is not cached yet (or if the cached entry has expired).
+     *
+     * @param playerUrl the url of the youtube js player
+     */
+    @Nonnull
+    public SignatureDecipherer getDecipherer(@Nonnull String playerUrl) throws ParsingException {
+        playerUrl = normalizePlayerUrl(playerUrl);
+
+        final SignatureDecipherer cached = getIfPresent(playerUrl);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The player is loaded outside of the lock, so a slow download does not block
+        // extractions that use another (already cached) player.
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(loadDecryptionCode(playerUrl));
+        put(playerUrl, decipherer);
+        return decipherer;
+    }
+
+    /**
+     * Load the decryption code of the given player ahead of time, e.g. while warming up.
+     *
+     * @param playerUrl the url of the youtube js player
+     */
+    public void preload(@Nonnull String playerUrl) throws ParsingException {
+        getDecipherer(playerUrl);
+    }
+
+    /**
+     * Put already known decryption code into the cache, e.g. from a snapshot of a previous run.
+     */
+    public void put(@Nonnull String playerUrl, @Nonnull String decryptionCode) throws ParsingException {
+        put(playerUrl, SignatureDecipherer.compile(decryptionCode));
+    }
+
+    private void put(@Nonnull String playerUrl, @Nonnull SignatureDecipherer decipherer) {
+        playerUrl = normalizePlayerUrl(playerUrl);
+        synchronized (entries) {
+            final int sizeBefore = entries.size();
+            final boolean replaced = entries.put(playerUrl,
+                    new CacheEntry(decipherer, System.currentTimeMillis() + ttlMillis)) != null;
+            if (!replaced && entries.size() <= sizeBefore) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return the cached decipherer or null if it is not cached or expired
+     */
+    @Nullable
+    public SignatureDecipherer getIfPresent(@Nonnull String playerUrl) {
+        playerUrl = normalizePlayerUrl(playerUrl);
+        synchronized (entries) {
+            final CacheEntry entry = entries.get(playerUrl);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hitCount.incrementAndGet();
+                return entry.decipherer;
+            }
+            if (entry != null) {
+                entries.remove(playerUrl);
+                evictionCount.incrementAndGet();
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @param maxEntries the maximum number of players to keep, must be at least 1
+     */
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1");
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+            // removeEldestEntry only removes one entry per insertion, so shrink by hand
+            while (entries.size() > maxEntries) {
+                final String eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @param ttl time after which a cached player is downloaded again, applies to new entries only
+     */
+    public void setTimeToLive(long ttl, TimeUnit unit) {
+        if (ttl <= 0) throw new IllegalArgumentException("ttl must be positive");
+        this.ttlMillis = unit.toMillis(ttl);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Loading
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nonnull
+    private static String normalizePlayerUrl(@Nonnull String playerUrl) {
+        if (!playerUrl.contains("https://youtube.com")) {
+            //sometimes the https://youtube.com part does not get send with
+            //than we have to add it by hand
+            return "https://youtube.com" + playerUrl;
+        }
+        return playerUrl;
+    }
+
+    @Nonnull
+    static String loadDecryptionCode(@Nonnull String playerUrl) throws ParsingException {
+        final String playerCode;
+        try {
+            final Downloader downloader = NewPipe.getDownloader();
+            playerCode = downloader.download(playerUrl);
+        } catch (IOException | ReCaptchaException e) {
+            throw new ParsingException("Could not load decrypt function", e);
+        }
+        return extractDecryptionCode(playerCode);
+    }
+
+    /**
+     * Extract the decrypt function and its helper object out of the js player.
+     *
+     * @param playerCode the whole js player
+     * @return js code containing a function called "decrypt"
+     */
+    @Nonnull
+    static String extractDecryptionCode(@Nonnull String playerCode) throws ParsingException {
+        try {
+            final String decryptionFunctionName = getDecryptionFuncName(playerCode);
+
+            final String functionPattern = "("
+                    + decryptionFunctionName.replace("$", "\\$")
+                    + "=function\\([a-zA-Z0-9_]+\\)\\{.+?\\})";
+            final String decryptionFunction = "var " + Parser.matchGroup1(functionPattern, playerCode) + ";";
+
+            final String helperObjectName =
+                    Parser.matchGroup1(";([A-Za-z0-9_\\$]{2})\\...\\(", decryptionFunction);
+            final String helperPattern =
+                    "(var " + helperObjectName.replace("$", "\\$") + "=\\{.+?\\}\\};)";
+            final String helperObject =
+                    Parser.matchGroup1(helperPattern, playerCode.replace("\n", ""));
+
+            final String callerFunction =
+                    "function " + SignatureDecipherer.DECRYPTION_FUNC_NAME + "(a){return " + decryptionFunctionName + "(a);}";
+
+            return helperObject + decryptionFunction + callerFunction;
+        } catch (Exception e) {
+            throw new ParsingException("Could not parse decrypt function ", e);
+        }
+    }
+
+    @Nonnull
+    private static String getDecryptionFuncName(String playerCode) throws ParsingException {
+        String decryptionFunctionName;
+        // Cascading things in catch is ugly, but its faster than running a match before getting the actual name
+        // to se if the function can actually be found with the given regex.
+        // However if this cascading should propably be cleaned up somehow as it looks a bit weird.
+        try {
+            decryptionFunctionName = Parser.matchGroup1(DECYRYPTION_SIGNATURE_FUNCTION_REGEX, playerCode);
+        } catch (Parser.RegexException re) {
+            try {
+                decryptionFunctionName = Parser.matchGroup1(DECRYPTION_AKAMAIZED_SHORT_STRING_REGEX, playerCode);
+            } catch (Parser.RegexException re2) {
+                try {
+                    decryptionFunctionName = Parser.matchGroup1(DECRYPTION_AKAMAIZED_STRING_REGEX, playerCode);
+                } catch (Parser.RegexException re3) {
+                    throw new ParsingException("Could not find decrypt function with any of the given patterns.", re);
+                }
+            }
+        }
+        return decryptionFunctionName;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Data Class
+    //////////////////////////////////////////////////////////////////////////*/
+
+    private static class CacheEntry {
+        final SignatureDecipherer decipherer;
+        final long expiresAt;
+
+        CacheEntry(final SignatureDecipherer decipherer, final long expiresAt) {
+            this.decipherer = decipherer;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
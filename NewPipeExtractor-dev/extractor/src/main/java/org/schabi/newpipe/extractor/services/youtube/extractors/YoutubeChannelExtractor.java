@@ -20,6 +20,7 @@ import org.schabi.newpipe.extractor.utils.DonationLinkHelper;
 import org.schabi.newpipe.extractor.utils.Localization;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -96,7 +97,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
     @Override
     public String getName() throws ParsingException {
         try {
-            return doc.select("meta[property=\"og:title\"]").first().attr("content");
+            return select(doc, "meta[property=\"og:title\"]").first().attr("content");
         } catch (Exception e) {
             throw new ParsingException("Could not get channel name", e);
         }
@@ -105,7 +106,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
     @Override
     public String getAvatarUrl() throws ParsingException {
         try {
-            return doc.select("img[class=\"channel-header-profile-image\"]").first().attr("abs:src");
+            return select(doc, "img[class=\"channel-header-profile-image\"]").first().attr("abs:src");
         } catch (Exception e) {
             throw new ParsingException("Could not get avatar", e);
         }
@@ -114,7 +115,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
     @Override
     public String getBannerUrl() throws ParsingException {
         try {
-            Element el = doc.select("div[id=\"gh-banner\"]").first().select("style").first();
+            Element el = select(select(doc, "div[id=\"gh-banner\"]").first(), "style").first();
             String cssContent = el.html();
             String url = "https:" + Parser.matchGroup1("url\\(([^)]+)\\)", cssContent);
 
@@ -135,7 +136,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
 
     @Override
     public long getSubscriberCount() throws ParsingException {
-        final Element el = doc.select("span[class*=\"yt-subscription-button-subscriber-count\"]").first();
+        final Element el = select(doc, "span[class*=\"yt-subscription-button-subscriber-count\"]").first();
         if (el != null) {
             try {
                 return Long.parseLong(Utils.removeNonDigitCharacters(el.text()));
@@ -151,7 +152,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
     @Override
     public String getDescription() throws ParsingException {
         try {
-            return doc.select("meta[name=\"description\"]").first().attr("content");
+            return select(doc, "meta[name=\"description\"]").first().attr("content");
         } catch (Exception e) {
             throw new ParsingException("Could not get channel description", e);
         }
@@ -161,7 +162,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
     @Override
     public InfoItemsPage<StreamInfoItem> getInitialPage() throws ExtractionException {
         StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        Element ul = doc.select("ul[id=\"browse-items-primary\"]").first();
+        Element ul = select(doc, "ul[id=\"browse-items-primary\"]").first();
         collectStreamsFrom(collector, ul);
         return new InfoItemsPage<>(collector, getNextPageUrl());
     }
@@ -185,7 +186,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
         }
 
         final Document ajaxHtml = Jsoup.parse(ajaxJson.getString("content_html"), pageUrl);
-        collectStreamsFrom(collector, ajaxHtml.select("body").first());
+        collectStreamsFrom(collector, select(ajaxHtml, "body").first());
 
         return new InfoItemsPage<>(collector, getNextPageUrlFromAjaxPage(ajaxJson, pageUrl));
     }
@@ -202,7 +203,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
 
     private String getNextPageUrlFrom(Document d) throws ParsingException {
         try {
-            Element button = d.select("button[class*=\"yt-uix-load-more\"]").first();
+            Element button = select(d, "button[class*=\"yt-uix-load-more\"]").first();
             if (button != null) {
                 return button.attr("abs:data-uix-load-more-href");
             } else {
@@ -220,13 +221,13 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
         final String uploaderName = getName();
         final String uploaderUrl = getUrl();
         for (final Element li : element.children()) {
-            if (li.select("div[class=\"feed-item-dismissable\"]").first() != null) {
+            if (select(li, "div[class=\"feed-item-dismissable\"]").first() != null) {
                 collector.commit(new YoutubeStreamInfoItemExtractor(li) {
                     @Override
                     public String getUrl() throws ParsingException {
                         try {
-                            Element el = li.select("div[class=\"feed-item-dismissable\"]").first();
-                            Element dl = el.select("h3").first().select("a").first();
+                            Element el = select(li, "div[class=\"feed-item-dismissable\"]").first();
+                            Element dl = select(select(el, "h3").first(), "a").first();
                             return dl.attr("abs:href");
                         } catch (Exception e) {
                             throw new ParsingException("Could not get web page url for the video", e);
@@ -236,8 +237,8 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
                     @Override
                     public String getName() throws ParsingException {
                         try {
-                            Element el = li.select("div[class=\"feed-item-dismissable\"]").first();
-                            Element dl = el.select("h3").first().select("a").first();
+                            Element el = select(li, "div[class=\"feed-item-dismissable\"]").first();
+                            Element dl = select(select(el, "h3").first(), "a").first();
                             return dl.text();
                         } catch (Exception e) {
                             throw new ParsingException("Could not get title", e);
@@ -258,8 +259,7 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
                     public String getThumbnailUrl() throws ParsingException {
                         try {
                             String url;
-                            Element te = li.select("span[class=\"yt-thumb-clip\"]").first()
-                                    .select("img").first();
+                            Element te = select(select(li, "span[class=\"yt-thumb-clip\"]").first(), "img").first();
                             url = te.attr("abs:src");
                             // Sometimes youtube sends links to gif files which somehow seem to not exist
                             // anymore. Items with such gif also offer a secondary image source. So we are going
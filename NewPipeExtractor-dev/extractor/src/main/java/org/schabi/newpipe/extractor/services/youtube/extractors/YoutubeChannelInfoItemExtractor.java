@@ -4,6 +4,7 @@ import org.jsoup.nodes.Element;
 import org.schabi.newpipe.extractor.channel.ChannelInfoItemExtractor;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,8 +38,7 @@ public class YoutubeChannelInfoItemExtractor implements ChannelInfoItemExtractor
 
     @Override
     public String getThumbnailUrl() throws ParsingException {
-        Element img = el.select("span[class*=\"yt-thumb-simple\"]").first()
-                .select("img").first();
+        Element img = select(select(el, "span[class*=\"yt-thumb-simple\"]").first(), "img").first();
 
         String url = img.attr("abs:src");
 
@@ -50,13 +50,13 @@ public class YoutubeChannelInfoItemExtractor implements ChannelInfoItemExtractor
 
     @Override
     public String getName() throws ParsingException {
-        return el.select("a[class*=\"yt-uix-tile-link\"]").first()
+        return select(el, "a[class*=\"yt-uix-tile-link\"]").first()
                 .text();
     }
 
     @Override
     public String getUrl() throws ParsingException {
-        String buttonTrackingUrl = el.select("button[class*=\"yt-uix-button\"]").first()
+        String buttonTrackingUrl = select(el, "button[class*=\"yt-uix-button\"]").first()
                 .attr("abs:data-href");
 
         Pattern channelIdPattern = Pattern.compile("(?:.*?)\\%252Fchannel\\%252F([A-Za-z0-9\\-\\_]+)(?:.*)");
@@ -67,14 +67,14 @@ public class YoutubeChannelInfoItemExtractor implements ChannelInfoItemExtractor
         } else {
             // fallback method just in case youtube changes things; it should never run and tests will fail
             // provides an url with "/user/NAME", that is inconsistent with stream and channel extractor
-            return el.select("a[class*=\"yt-uix-tile-link\"]").first()
+            return select(el, "a[class*=\"yt-uix-tile-link\"]").first()
                     .attr("abs:href");
         }
     }
 
     @Override
     public long getSubscriberCount() throws ParsingException {
-        final Element subsEl = el.select("span[class*=\"yt-subscriber-count\"]").first();
+        final Element subsEl = select(el, "span[class*=\"yt-subscriber-count\"]").first();
         if (subsEl != null) {
             try {
                 return Long.parseLong(Utils.removeNonDigitCharacters(subsEl.text()));
@@ -89,7 +89,7 @@ public class YoutubeChannelInfoItemExtractor implements ChannelInfoItemExtractor
 
     @Override
     public long getStreamCount() throws ParsingException {
-        Element metaEl = el.select("ul[class*=\"yt-lockup-meta-info\"]").first();
+        Element metaEl = select(el, "ul[class*=\"yt-lockup-meta-info\"]").first();
         if (metaEl == null) {
             return 0;
         } else {
@@ -99,7 +99,7 @@ public class YoutubeChannelInfoItemExtractor implements ChannelInfoItemExtractor
 
     @Override
     public String getDescription() throws ParsingException {
-        Element desEl = el.select("div[class*=\"yt-lockup-description\"]").first();
+        Element desEl = select(el, "div[class*=\"yt-lockup-description\"]").first();
         if (desEl == null) {
             return "";
         } else {
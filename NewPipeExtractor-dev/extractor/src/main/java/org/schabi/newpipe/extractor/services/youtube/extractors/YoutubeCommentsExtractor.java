@@ -24,7 +24,8 @@ import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
-import org.schabi.newpipe.extractor.utils.JsonUtils;
+import org.schabi.newpipe.extractor.utils.JsonPath;
+import org.schabi.newpipe.extractor.utils.JsonScanner;
 import org.schabi.newpipe.extractor.utils.Localization;
 import org.schabi.newpipe.extractor.utils.Parser;
 
@@ -39,6 +40,16 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
     private static final String USER_AGENT = "Mozilla/5.0 (Android 8.1.0; Mobile; rv:62.0) Gecko/62.0 Firefox/62.0";
     private static final Pattern YT_CLIENT_NAME_PATTERN = Pattern.compile("INNERTUBE_CONTEXT_CLIENT_NAME\\\":(.*?)[,}]");
 
+    private static final JsonPath ITEMS_PATH =
+            JsonPath.compile("response.continuationContents.commentSectionContinuation.items");
+    private static final JsonPath NEXT_CONTINUATION_PATH = JsonPath.compile(
+            "response.continuationContents.commentSectionContinuation.continuations[0].nextContinuationData.continuation");
+    private static final JsonPath COMMENT_RENDERER_PATH = JsonPath.compile("commentThreadRenderer.comment.commentRenderer");
+    private static final JsonPath TARGET_TITLE_PATH = JsonPath.compile("commentThreadRenderer.commentTargetTitle");
+    private static final JsonPath SIMPLE_TEXT_PATH = JsonPath.compile("simpleText");
+    private static final JsonPath RUNS_PATH = JsonPath.compile("runs");
+    private static final JsonPath TEXT_PATH = JsonPath.compile("text");
+
     private String ytClientVersion;
     private String ytClientName;
     private String title;
@@ -64,19 +75,8 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
 
     private String getNextPageUrl(JsonObject ajaxJson) throws IOException, ParsingException {
         
-        JsonArray arr;
-        try {
-            arr = JsonUtils.getArray(ajaxJson, "response.continuationContents.commentSectionContinuation.continuations");
-        } catch (Exception e) {
-            return "";
-        }
-        if(arr.isEmpty()) {
-            return "";
-        }
-        String continuation;
-        try {
-            continuation = JsonUtils.getString(arr.getObject(0), "nextContinuationData.continuation");
-        } catch (Exception e) {
+        String continuation = NEXT_CONTINUATION_PATH.getString(ajaxJson);
+        if(continuation == null) {
             return "";
         }
         return getNextPageUrl(continuation);
@@ -113,24 +113,20 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
 
     private void collectCommentsFrom(CommentsInfoItemsCollector collector, JsonObject ajaxJson) throws ParsingException {
         
-        JsonArray contents;
-        try {
-            contents = JsonUtils.getArray(ajaxJson, "response.continuationContents.commentSectionContinuation.items");
-        }catch(Exception e) {
+        JsonArray contents = ITEMS_PATH.getArray(ajaxJson);
+        if(contents == null) {
             //no comments
             return;
         }
         fetchTitle(contents);
-        List<Object> comments;
-        try {
-            comments = JsonUtils.getValues(contents, "commentThreadRenderer.comment.commentRenderer");
-        }catch(Exception e) {
-            throw new ParsingException("unable to get parse youtube comments", e);
-        }
-        
-        for(Object c: comments) {
-            if(c instanceof JsonObject) {
-                CommentsInfoItemExtractor extractor = new YoutubeCommentsInfoItemExtractor((JsonObject) c, getUrl());
+
+        for(int i = 0; i < contents.size(); i++) {
+            Object comment = COMMENT_RENDERER_PATH.get(contents.getObject(i));
+            if(comment == null) {
+                throw new ParsingException("unable to get parse youtube comments: no " + COMMENT_RENDERER_PATH + " in item " + i);
+            }
+            if(comment instanceof JsonObject) {
+                CommentsInfoItemExtractor extractor = new YoutubeCommentsInfoItemExtractor((JsonObject) comment, getUrl());
                 collector.commit(extractor);
             }
         }
@@ -139,7 +135,8 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
     private void fetchTitle(JsonArray contents) {
         if(null == title) {
             try {
-                title = getYoutubeText(JsonUtils.getObject(contents.getObject(0), "commentThreadRenderer.commentTargetTitle"));
+                JsonObject targetTitle = TARGET_TITLE_PATH.getObject(contents.getObject(0));
+                title = targetTitle == null ? "Youtube Comments" : getYoutubeText(targetTitle);
             } catch (Exception e) {
                 title = "Youtube Comments";
             }
@@ -155,7 +152,10 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
         String responseBody = response.getResponseBody();
         ytClientVersion = findValue(responseBody, "INNERTUBE_CONTEXT_CLIENT_VERSION\":\"", "\"");
         ytClientName = Parser.matchGroup1(YT_CLIENT_NAME_PATTERN, responseBody);
-        String commentsTokenInside = findValue(responseBody, "commentSectionRenderer", "}");
+        String commentsTokenInside = JsonScanner.extractValueAfter(responseBody, "\"commentSectionRenderer\"");
+        if (commentsTokenInside == null) {
+            commentsTokenInside = findValue(responseBody, "commentSectionRenderer", "}");
+        }
         String commentsToken = findValue(commentsTokenInside, "continuation\":\"", "\"");
         initPage = getPage(getNextPageUrl(commentsToken));
     }
@@ -199,20 +199,23 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
     }
     
     public static String getYoutubeText(@Nonnull JsonObject object) throws ParsingException {
-        try {
-            return JsonUtils.getString(object, "simpleText");
-        } catch (Exception e1) {
-            try {
-                JsonArray arr = JsonUtils.getArray(object, "runs");
-                String result = "";
-                for(int i=0; i<arr.size();i++) {
-                    result = result + JsonUtils.getString(arr.getObject(i), "text");
-                }
-                return result;
-            } catch (Exception e2) {
+        String simpleText = SIMPLE_TEXT_PATH.getString(object);
+        if(simpleText != null) {
+            return simpleText;
+        }
+        JsonArray arr = RUNS_PATH.getArray(object);
+        if(arr == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder();
+        for(int i=0; i<arr.size();i++) {
+            String text = TEXT_PATH.getString(arr.getObject(i));
+            if(text == null) {
                 return "";
             }
+            result.append(text);
         }
+        return result.toString();
     }
     
 }
@@ -2,14 +2,17 @@ package org.schabi.newpipe.extractor.services.youtube.extractors;
 
 import org.schabi.newpipe.extractor.comments.CommentsInfoItemExtractor;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.JsonPath;
 import org.schabi.newpipe.extractor.utils.JsonUtils;
 import org.schabi.newpipe.extractor.utils.Utils;
 
-import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
 
 public class YoutubeCommentsInfoItemExtractor implements CommentsInfoItemExtractor {
 
+    private static final JsonPath AUTHOR_THUMBNAIL_PATH = JsonPath.compile("authorThumbnail.thumbnails[2].url");
+    private static final JsonPath AUTHOR_ID_PATH = JsonPath.compile("authorEndpoint.browseEndpoint.browseId");
+
     private final JsonObject json;
     private final String url;
 
@@ -26,8 +29,7 @@ public class YoutubeCommentsInfoItemExtractor implements CommentsInfoItemExtract
     @Override
     public String getThumbnailUrl() throws ParsingException {
         try {
-            JsonArray arr = JsonUtils.getArray(json, "authorThumbnail.thumbnails");
-            return JsonUtils.getString(arr.getObject(2), "url");
+            return (String) JsonUtils.getValue(json, AUTHOR_THUMBNAIL_PATH);
         } catch (Exception e) {
             throw new ParsingException("Could not get thumbnail url", e);
         }
@@ -83,8 +85,7 @@ public class YoutubeCommentsInfoItemExtractor implements CommentsInfoItemExtract
     @Override
     public String getAuthorThumbnail() throws ParsingException {
         try {
-            JsonArray arr = JsonUtils.getArray(json, "authorThumbnail.thumbnails");
-            return JsonUtils.getString(arr.getObject(2), "url");
+            return (String) JsonUtils.getValue(json, AUTHOR_THUMBNAIL_PATH);
         } catch (Exception e) {
             throw new ParsingException("Could not get author thumbnail", e);
         }
@@ -102,7 +103,7 @@ public class YoutubeCommentsInfoItemExtractor implements CommentsInfoItemExtract
     @Override
     public String getAuthorEndpoint() throws ParsingException {
         try {
-            return "https://youtube.com/channel/" + JsonUtils.getString(json, "authorEndpoint.browseEndpoint.browseId");
+            return "https://youtube.com/channel/" + (String) JsonUtils.getValue(json, AUTHOR_ID_PATH);
         } catch (Exception e) {
             return "";
         }
@@ -0,0 +1,219 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+import org.schabi.newpipe.extractor.services.youtube.SignatureDecipherer;
+import org.schabi.newpipe.extractor.utils.Memoizer;
+import org.schabi.newpipe.extractor.utils.QueryString;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The formats of a youtube player response, read once.
+ * <p>
+ * The table walks {@code streamingData.formats} and {@code streamingData.adaptiveFormats} a single time
+ * and sorts every supported format by the type of its itag. Muxed videos are taken from the formats,
+ * audio and video only streams from the adaptive formats.
+ * The urls of a type are resolved the first time they are asked for, so signatures are only decrypted
+ * for the types of streams that are actually used, all of them in one call to the decipherer.
+ * <p>
+ * The table can be used from multiple threads.
+ */
+public final class YoutubeFormatTable {
+
+    private static final String FORMATS = "formats";
+    private static final String ADAPTIVE_FORMATS = "adaptiveFormats";
+
+    private final Map<ItagItem.ItagType, List<Format>> formats = new EnumMap<>(ItagItem.ItagType.class);
+    // the resolved urls of every type
+    private final Memoizer urls = new Memoizer();
+
+    /**
+     * @param streamingData the {@code streamingData} of the player response, or null if it has none
+     */
+    public YoutubeFormatTable(@Nullable JsonObject streamingData) {
+        for (ItagItem.ItagType type : ItagItem.ItagType.values()) {
+            formats.put(type, new ArrayList<Format>());
+        }
+        if (streamingData == null) return;
+
+        addFormats(streamingData.getArray(FORMATS), false);
+        addFormats(streamingData.getArray(ADAPTIVE_FORMATS), true);
+    }
+
+    private void addFormats(@Nullable JsonArray formatArray, boolean adaptive) {
+        if (formatArray == null) return;
+
+        for (int i = 0; i < formatArray.size(); i++) {
+            final JsonObject data = formatArray.getObject(i);
+            if (data == null) continue;
+
+            final ItagItem itag = ItagItem.findItag(data.getInt("itag", -1));
+            if (itag == null) continue;
+            // muxed streams are in the formats, the others in the adaptive formats
+            if ((itag.itagType == ItagItem.ItagType.VIDEO) == adaptive) continue;
+
+            final QueryString cipher;
+            if (data.has("url")) {
+                cipher = null;
+            } else if (data.has("cipher")) {
+                cipher = QueryString.parse(data.getString("cipher"));
+            } else if (data.has("signatureCipher")) {
+                cipher = QueryString.parse(data.getString("signatureCipher"));
+            } else {
+                continue;
+            }
+            formats.get(itag.itagType).add(new Format(itag, data, cipher));
+        }
+    }
+
+    /**
+     * @return the supported formats of the type, in the order of the player response
+     */
+    @Nonnull
+    public List<Format> getFormats(@Nonnull ItagItem.ItagType type) {
+        return Collections.unmodifiableList(formats.get(type));
+    }
+
+    public boolean hasCipheredFormats(@Nonnull ItagItem.ItagType type) {
+        for (Format format : formats.get(type)) {
+            if (format.isCiphered()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the urls of the formats of the type. The signatures of ciphered formats are decrypted
+     * the first time, all at once.
+     *
+     * @param decipherer the decipherer of the player, only needed if there are ciphered formats
+     * @return the urls in the same order as {@link #getFormats(ItagItem.ItagType)}
+     */
+    @Nonnull
+    public List<String> getUrls(@Nonnull final ItagItem.ItagType type, @Nullable final SignatureDecipherer decipherer)
+            throws ParsingException {
+        return urls.get(type.name(), new Memoizer.Computation<List<String>>() {
+            @Override
+            public List<String> compute() throws ParsingException {
+                return resolveUrls(formats.get(type), decipherer);
+            }
+        });
+    }
+
+    private static List<String> resolveUrls(List<Format> formats, @Nullable SignatureDecipherer decipherer)
+            throws ParsingException {
+        final List<String> encryptedSigs = new ArrayList<>();
+        for (Format format : formats) {
+            if (format.isCiphered()) encryptedSigs.add(format.cipher.get("s"));
+        }
+
+        final Iterator<String> decryptedSigs;
+        if (encryptedSigs.isEmpty()) {
+            decryptedSigs = Collections.<String>emptyList().iterator();
+        } else if (decipherer == null) {
+            throw new ParsingException("Decryption code is not loaded");
+        } else {
+            decryptedSigs = decipherer.decrypt(encryptedSigs).iterator();
+        }
+
+        final List<String> urls = new ArrayList<>(formats.size());
+        for (Format format : formats) {
+            if (format.isCiphered()) {
+                final String sp = format.cipher.get("sp");
+                urls.add(format.cipher.get("url") + "&" + (sp == null ? "signature" : sp) + "=" + decryptedSigs.next());
+            } else if (format.cipher != null) {
+                urls.add(format.cipher.get("url"));
+            } else {
+                urls.add(format.data.getString("url"));
+            }
+        }
+        return Collections.unmodifiableList(urls);
+    }
+
+    /**
+     * A supported format of the player response.
+     */
+    public static final class Format {
+        private final ItagItem itag;
+        private final JsonObject data;
+        @Nullable
+        private final QueryString cipher;
+
+        Format(ItagItem itag, JsonObject data, @Nullable QueryString cipher) {
+            this.itag = itag;
+            this.data = data;
+            this.cipher = cipher;
+        }
+
+        @Nonnull
+        public ItagItem getItag() {
+            return itag;
+        }
+
+        /**
+         * @return true if the url of the format has an encrypted signature
+         */
+        public boolean isCiphered() {
+            return cipher != null && cipher.containsKey("s");
+        }
+
+        /**
+         * @return the bitrate in bits per second or -1 if it is unknown
+         */
+        public int getBitrate() {
+            return data.getInt("bitrate", -1);
+        }
+
+        /**
+         * @return the size of the stream in bytes or -1 if it is unknown
+         */
+        public long getContentLength() {
+            final String contentLength = data.getString("contentLength");
+            if (contentLength == null) return -1;
+            try {
+                return Long.parseLong(contentLength);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * @return the mime type without parameters, e.g. {@code audio/webm}, or null if it is unknown
+         */
+        @Nullable
+        public String getMimeType() {
+            final String mimeType = data.getString("mimeType");
+            if (mimeType == null) return null;
+            final int parameters = mimeType.indexOf(';');
+            return (parameters == -1 ? mimeType : mimeType.substring(0, parameters)).trim();
+        }
+
+        /**
+         * @return the codecs parameter of the mime type, e.g. {@code opus}, or null if there is none
+         */
+        @Nullable
+        public String getCodecs() {
+            final String mimeType = data.getString("mimeType");
+            if (mimeType == null) return null;
+            final int codecs = mimeType.indexOf("codecs=");
+            if (codecs == -1) return null;
+
+            final int start = codecs + "codecs=".length();
+            if (start < mimeType.length() && mimeType.charAt(start) == '"') {
+                final int end = mimeType.indexOf('"', start + 1);
+                return mimeType.substring(start + 1, end == -1 ? mimeType.length() : end);
+            }
+            final int end = mimeType.indexOf(';', start);
+            return mimeType.substring(start, end == -1 ? mimeType.length() : end).trim();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
 import org.schabi.newpipe.extractor.stream.StreamType;
 import org.schabi.newpipe.extractor.utils.Localization;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -48,7 +49,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     @Override
     public String getName() throws ParsingException {
         try {
-            return doc.select("div[id=pl-header] h1[class=pl-header-title]").first().text();
+            return select(doc, "div[id=pl-header] h1[class=pl-header-title]").first().text();
         } catch (Exception e) {
             throw new ParsingException("Could not get playlist name", e);
         }
@@ -57,7 +58,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     @Override
     public String getThumbnailUrl() throws ParsingException {
         try {
-            return doc.select("div[id=pl-header] div[class=pl-header-thumb] img").first().attr("abs:src");
+            return select(doc, "div[id=pl-header] div[class=pl-header-thumb] img").first().attr("abs:src");
         } catch (Exception e) {
             throw new ParsingException("Could not get playlist thumbnail", e);
         }
@@ -73,7 +74,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     public String getUploaderUrl() throws ParsingException {
         try {
             return YoutubeChannelExtractor.CHANNEL_URL_BASE +
-                    doc.select("button[class*=\"yt-uix-subscription-button\"]")
+                    select(doc, "button[class*=\"yt-uix-subscription-button\"]")
                             .first().attr("data-channel-external-id");
         } catch (Exception e) {
             throw new ParsingException("Could not get playlist uploader url", e);
@@ -83,7 +84,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     @Override
     public String getUploaderName() throws ParsingException {
         try {
-            return doc.select("span[class=\"qualified-channel-title-text\"]").first().select("a").first().text();
+            return select(select(doc, "span[class=\"qualified-channel-title-text\"]").first(), "a").first().text();
         } catch (Exception e) {
             throw new ParsingException("Could not get playlist uploader name", e);
         }
@@ -92,7 +93,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     @Override
     public String getUploaderAvatarUrl() throws ParsingException {
         try {
-            return doc.select("div[id=gh-banner] img[class=channel-header-profile-image]").first().attr("abs:src");
+            return select(doc, "div[id=gh-banner] img[class=channel-header-profile-image]").first().attr("abs:src");
         } catch (Exception e) {
             throw new ParsingException("Could not get playlist uploader avatar", e);
         }
@@ -103,7 +104,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
         String input;
 
         try {
-            input = doc.select("ul[class=\"pl-header-details\"] li").get(1).text();
+            input = select(doc, "ul[class=\"pl-header-details\"] li").get(1).text();
         } catch (IndexOutOfBoundsException e) {
             throw new ParsingException("Could not get video count from playlist", e);
         }
@@ -125,7 +126,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
     @Override
     public InfoItemsPage<StreamInfoItem> getInitialPage() throws ExtractionException {
         StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        Element tbody = doc.select("tbody[id=\"pl-load-more-destination\"]").first();
+        Element tbody = select(doc, "tbody[id=\"pl-load-more-destination\"]").first();
         collectStreamsFrom(collector, tbody);
         return new InfoItemsPage<>(collector, getNextPageUrl());
     }
@@ -148,7 +149,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
                 + pageJson.getString("content_html")
                 + "</tbody></table>", pageUrl);
 
-        collectStreamsFrom(collector, pageHtml.select("tbody[id=\"pl-load-more-destination\"]").first());
+        collectStreamsFrom(collector, select(pageHtml, "tbody[id=\"pl-load-more-destination\"]").first());
 
         return new InfoItemsPage<>(collector, getNextPageUrlFromAjax(pageJson, pageUrl));
     }
@@ -165,7 +166,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
 
     private String getNextPageUrlFrom(Document d) throws ParsingException {
         try {
-            Element button = d.select("button[class*=\"yt-uix-load-more\"]").first();
+            Element button = select(d, "button[class*=\"yt-uix-load-more\"]").first();
             if (button != null) {
                 return button.attr("abs:data-uix-load-more-href");
             } else {
@@ -221,7 +222,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
                     try {
                         if (getStreamType() == StreamType.LIVE_STREAM) return -1;
 
-                        Element first = li.select("div[class=\"timestamp\"] span").first();
+                        Element first = select(li, "div[class=\"timestamp\"] span").first();
                         if (first == null) {
                             // Video unavailable (private, deleted, etc.), this is a thing that happens specifically with playlists,
                             // because in other cases, those videos don't even show up
@@ -238,7 +239,7 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
                 private Element getUploaderLink() {
                     // should always be present since we filter deleted items
                     if(uploaderLink == null) {
-                        uploaderLink = li.select("div[class=pl-video-owner] a").first();
+                        uploaderLink = select(li, "div[class=pl-video-owner] a").first();
                     }
                     return uploaderLink;
                 }
@@ -283,6 +284,6 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
      * @return true if the item is deleted
      */
     private boolean isDeletedItem(Element li) {
-        return li.select("div[class=pl-video-owner] a").isEmpty();
+        return select(li, "div[class=pl-video-owner] a").isEmpty();
     }
 }
@@ -4,6 +4,7 @@ import org.jsoup.nodes.Element;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.playlist.PlaylistInfoItemExtractor;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtractor {
     private final Element el;
@@ -17,8 +18,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
         String url;
 
         try {
-            Element te = el.select("div[class=\"yt-thumb video-thumb\"]").first()
-                    .select("img").first();
+            Element te = select(select(el, "div[class=\"yt-thumb video-thumb\"]").first(), "img").first();
             url = te.attr("abs:src");
 
             if (url.contains(".gif")) {
@@ -35,8 +35,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
     public String getName() throws ParsingException {
         String name;
         try {
-            final Element title = el.select("[class=\"yt-lockup-title\"]").first()
-                    .select("a").first();
+            final Element title = select(select(el, "[class=\"yt-lockup-title\"]").first(), "a").first();
 
             name = title == null ? "" : title.text();
         } catch (Exception e) {
@@ -49,7 +48,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
     @Override
     public String getUrl() throws ParsingException {
         try {
-            final Element a = el.select("div[class=\"yt-lockup-meta\"]")
+            final Element a = select(el, "div[class=\"yt-lockup-meta\"]")
                     .select("ul[class=\"yt-lockup-meta-info\"]")
                     .select("li").select("a").first();
 
@@ -58,8 +57,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
             }
 
             // this is for yt premium playlists
-            return el.select("h3[class=\"yt-lockup-title\"").first()
-                    .select("a").first()
+            return select(select(el, "h3[class=\"yt-lockup-title\"").first(), "a").first()
                     .attr("abs:href");
 
         } catch (Exception e) {
@@ -72,8 +70,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
         String name;
 
         try {
-            final Element div = el.select("div[class=\"yt-lockup-byline\"]").first()
-                    .select("a").first();
+            final Element div = select(select(el, "div[class=\"yt-lockup-byline\"]").first(), "a").first();
 
             name = div.text();
         } catch (Exception e) {
@@ -86,8 +83,7 @@ public class YoutubePlaylistInfoItemExtractor implements PlaylistInfoItemExtract
     @Override
     public long getStreamCount() throws ParsingException {
         try {
-            final Element count = el.select("span[class=\"formatted-video-count-label\"]").first()
-                    .select("b").first();
+            final Element count = select(select(el, "span[class=\"formatted-video-count-label\"]").first(), "b").first();
 
             return count == null ? 0 : Long.parseLong(Utils.removeNonDigitCharacters(count.text()));
         } catch (Exception e) {
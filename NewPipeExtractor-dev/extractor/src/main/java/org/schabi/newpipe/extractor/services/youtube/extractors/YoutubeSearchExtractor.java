@@ -13,6 +13,7 @@ import org.schabi.newpipe.extractor.search.SearchExtractor;
 import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
 import org.schabi.newpipe.extractor.utils.Localization;
 import org.schabi.newpipe.extractor.utils.Parser;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -43,6 +44,11 @@ import java.net.URL;
 public class YoutubeSearchExtractor extends SearchExtractor {
 
     private Document doc;
+    // the page in streaming mode, it is only kept until its items are collected
+    private String pageHtml;
+    private String searchSuggestion;
+    private InfoItemsPage<InfoItem> initialPage;
+    private boolean streaming = false;
 
     public YoutubeSearchExtractor(StreamingService service,
                                   SearchQueryHandler linkHandler,
@@ -50,6 +56,22 @@ public class YoutubeSearchExtractor extends SearchExtractor {
         super(service, linkHandler, localization);
     }
 
+    /**
+     * In streaming mode the result page is not parsed into a document, its items are collected
+     * with a {@link YoutubeSearchTokenizer} instead. This takes less time and memory,
+     * but only works as long as the items can be told apart by their classes.
+     *
+     * @param streaming whether to use the streaming mode, has to be set before the page is fetched
+     */
+    public void setStreaming(boolean streaming) {
+        if (isPageFetched()) throw new IllegalStateException("Page is already fetched");
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     @Override
     public void onFetchPage(@Nonnull Downloader downloader) throws IOException, ExtractionException {
         final String site;
@@ -58,7 +80,12 @@ public class YoutubeSearchExtractor extends SearchExtractor {
         //if we've been passed a valid language code, append it to the URL
         site = downloader.download(url, getLocalization());
 
-        doc = Jsoup.parse(site, url);
+        if (streaming) {
+            pageHtml = site;
+            searchSuggestion = new YoutubeSearchTokenizer(site, url).getSearchSuggestion();
+        } else {
+            doc = Jsoup.parse(site, url);
+        }
     }
 
     @Override
@@ -68,9 +95,11 @@ public class YoutubeSearchExtractor extends SearchExtractor {
 
     @Override
     public String getSearchSuggestion() {
-        final Element el = doc.select("div[class*=\"spell-correction\"]").first();
+        if (streaming) return searchSuggestion;
+
+        final Element el = select(doc, "div[class*=\"spell-correction\"]").first();
         if (el != null) {
-            return el.select("a").first().text();
+            return select(el, "a").first().text();
         } else {
             return "";
         }
@@ -79,6 +108,13 @@ public class YoutubeSearchExtractor extends SearchExtractor {
     @Nonnull
     @Override
     public InfoItemsPage<InfoItem> getInitialPage() throws ExtractionException {
+        if (streaming) {
+            if (initialPage == null) {
+                initialPage = new InfoItemsPage<>(collectItems(pageHtml, getUrl()), getNextPageUrl());
+                pageHtml = null;
+            }
+            return initialPage;
+        }
         return new InfoItemsPage<>(collectItems(doc), getNextPageUrl());
     }
 
@@ -90,6 +126,9 @@ public class YoutubeSearchExtractor extends SearchExtractor {
     @Override
     public InfoItemsPage<InfoItem> getPage(String pageUrl) throws IOException, ExtractionException {
         String site = getDownloader().download(pageUrl);
+        if (streaming) {
+            return new InfoItemsPage<>(collectItems(site, pageUrl), getNextPageUrlFromCurrentUrl(pageUrl));
+        }
         doc = Jsoup.parse(site, pageUrl);
 
         return new InfoItemsPage<>(collectItems(doc), getNextPageUrlFromCurrentUrl(pageUrl));
@@ -110,7 +149,7 @@ public class YoutubeSearchExtractor extends SearchExtractor {
     private InfoItemsSearchCollector collectItems(Document doc) throws NothingFoundException  {
         InfoItemsSearchCollector collector = getInfoItemSearchCollector();
 
-        Element list = doc.select("ol[class=\"item-section\"]").first();
+        Element list = select(doc, "ol[class=\"item-section\"]").first();
 
         for (Element item : list.children()) {
             /* First we need to determine which kind of item we are working with.
@@ -126,20 +165,48 @@ public class YoutubeSearchExtractor extends SearchExtractor {
 
             Element el;
 
-            if ((el = item.select("div[class*=\"search-message\"]").first()) != null) {
+            if ((el = select(item, "div[class*=\"search-message\"]").first()) != null) {
                 throw new NothingFoundException(el.text());
 
                 // video item type
-            } else if ((el = item.select("div[class*=\"yt-lockup-video\"]").first()) != null) {
+            } else if ((el = select(item, "div[class*=\"yt-lockup-video\"]").first()) != null) {
                 collector.commit(new YoutubeStreamInfoItemExtractor(el));
-            } else if ((el = item.select("div[class*=\"yt-lockup-channel\"]").first()) != null) {
+            } else if ((el = select(item, "div[class*=\"yt-lockup-channel\"]").first()) != null) {
                 collector.commit(new YoutubeChannelInfoItemExtractor(el));
-            } else if ((el = item.select("div[class*=\"yt-lockup-playlist\"]").first()) != null &&
-                    item.select(".yt-pl-icon-mix").isEmpty()) {
+            } else if ((el = select(item, "div[class*=\"yt-lockup-playlist\"]").first()) != null &&
+                    select(item, ".yt-pl-icon-mix").isEmpty()) {
                 collector.commit(new YoutubePlaylistInfoItemExtractor(el));
             }
         }
 
         return collector;
     }
+
+    private InfoItemsSearchCollector collectItems(String html, String baseUri) throws ExtractionException {
+        final InfoItemsSearchCollector collector = getInfoItemSearchCollector();
+
+        new YoutubeSearchTokenizer(html, baseUri).tokenize(new YoutubeSearchTokenizer.ItemListener() {
+            @Override
+            public void onItem(YoutubeSearchTokenizer.ItemType type, Element lockup) {
+                switch (type) {
+                    case VIDEO:
+                        collector.commit(new YoutubeStreamInfoItemExtractor(lockup));
+                        break;
+                    case CHANNEL:
+                        collector.commit(new YoutubeChannelInfoItemExtractor(lockup));
+                        break;
+                    case PLAYLIST:
+                        collector.commit(new YoutubePlaylistInfoItemExtractor(lockup));
+                        break;
+                }
+            }
+
+            @Override
+            public void onNothingFound(String message) throws NothingFoundException {
+                throw new NothingFoundException(message);
+            }
+        });
+
+        return collector;
+    }
 }
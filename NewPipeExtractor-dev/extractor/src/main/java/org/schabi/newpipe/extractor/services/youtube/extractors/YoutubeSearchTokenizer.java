@@ -0,0 +1,282 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the items of a youtube search result page without building a document of the whole page.
+ * <p>
+ * The tags inside of {@code ol.item-section} are scanned once, keeping only the names of the open tags.
+ * When an item ({@code li}) closes, its type is known from the classes seen in it and only the
+ * {@code yt-lockup} block of the item is parsed, so the existing item extractors can be used on it.
+ * Nothing of an item is kept after it was handed to the {@link ItemListener}.
+ */
+public class YoutubeSearchTokenizer {
+
+    public enum ItemType {
+        VIDEO, CHANNEL, PLAYLIST
+    }
+
+    public interface ItemListener {
+        void onItem(ItemType type, Element lockup) throws ExtractionException;
+
+        /**
+         * Called for the "no results" message instead of any items.
+         */
+        void onNothingFound(String message) throws ExtractionException;
+    }
+
+    private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source",
+            "track", "wbr"));
+    private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList(
+            "script", "style", "textarea", "title"));
+
+    // the blocks of an item, in the order in which they are checked
+    private static final int MESSAGE = 0;
+    private static final int VIDEO = 1;
+    private static final int CHANNEL = 2;
+    private static final int PLAYLIST = 3;
+    private static final String[] BLOCK_CLASSES = {
+            "search-message", "yt-lockup-video", "yt-lockup-channel", "yt-lockup-playlist"};
+    private static final String MIX_CLASS = "yt-pl-icon-mix";
+
+    private final String html;
+    private final String baseUri;
+
+    public YoutubeSearchTokenizer(@Nonnull String html, @Nonnull String baseUri) {
+        this.html = html;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Hand all items of the page to the listener, in the order in which they appear.
+     */
+    public void tokenize(@Nonnull ItemListener listener) throws ExtractionException {
+        int index = findItemSection();
+        if (index == -1) {
+            throw new ParsingException("Could not find the search results");
+        }
+
+        // names of the open tags inside of the list, the list itself is not part of it
+        final List<String> openTags = new ArrayList<>();
+        // start and end of the first block of each kind in the current item, -1 if there is none (yet)
+        final int[] blockStarts = new int[BLOCK_CLASSES.length];
+        final int[] blockEnds = new int[BLOCK_CLASSES.length];
+        final int[] blockDepths = new int[BLOCK_CLASSES.length];
+        boolean inItem = false;
+        boolean isMix = false;
+
+        final int length = html.length();
+        while (index < length) {
+            final int tagStart = html.indexOf('<', index);
+            if (tagStart == -1) break;
+
+            if (html.startsWith("<!--", tagStart)) {
+                final int commentEnd = html.indexOf("-->", tagStart + 4);
+                index = commentEnd == -1 ? length : commentEnd + 3;
+                continue;
+            }
+
+            final int tagEnd = findTagEnd(tagStart);
+            if (tagEnd == -1) break;
+            index = tagEnd;
+
+            final boolean isEndTag = tagStart + 1 < length && html.charAt(tagStart + 1) == '/';
+            final String name = getTagName(isEndTag ? tagStart + 2 : tagStart + 1, tagEnd);
+            if (name.isEmpty()) continue;
+
+            if (isEndTag) {
+                final int open = openTags.lastIndexOf(name);
+                if (open == -1) {
+                    // the end of the list itself, or a tag that was never opened
+                    if (name.equals("ol") && openTags.isEmpty()) return;
+                    continue;
+                }
+                while (openTags.size() > open) {
+                    openTags.remove(openTags.size() - 1);
+                }
+                final int depth = openTags.size();
+                for (int i = 0; i < BLOCK_CLASSES.length; i++) {
+                    if (blockStarts[i] != -1 && blockEnds[i] == -1 && blockDepths[i] >= depth) {
+                        blockEnds[i] = tagEnd;
+                    }
+                }
+                if (inItem && depth == 0) {
+                    emitItem(listener, blockStarts, blockEnds, isMix);
+                    inItem = false;
+                }
+                continue;
+            }
+
+            if (openTags.isEmpty() && name.equals("li")) {
+                inItem = true;
+                isMix = false;
+                Arrays.fill(blockStarts, -1);
+                Arrays.fill(blockEnds, -1);
+            }
+
+            if (inItem) {
+                final String classes = getAttribute(tagStart, tagEnd, "class");
+                if (classes != null) {
+                    for (int i = 0; i < BLOCK_CLASSES.length; i++) {
+                        if (blockStarts[i] == -1 && classes.contains(BLOCK_CLASSES[i])) {
+                            blockStarts[i] = tagStart;
+                            blockDepths[i] = openTags.size();
+                        }
+                    }
+                    if (classes.contains(MIX_CLASS) && hasClass(classes, MIX_CLASS)) isMix = true;
+                }
+            }
+
+            if (RAW_TEXT_TAGS.contains(name)) {
+                final int rawEnd = html.indexOf("</" + name, tagEnd);
+                index = rawEnd == -1 ? length : rawEnd;
+            } else if (!VOID_TAGS.contains(name) && html.charAt(tagEnd - 2) != '/') {
+                openTags.add(name);
+            }
+        }
+
+        if (inItem) {
+            // the page ended inside of an item
+            emitItem(listener, blockStarts, blockEnds, isMix);
+        }
+    }
+
+    /**
+     * @return the text of the "did you mean" link or an empty string if there is none
+     */
+    @Nonnull
+    public String getSearchSuggestion() {
+        final int classIndex = html.indexOf("spell-correction");
+        if (classIndex == -1) return "";
+        int linkStart = html.indexOf("<a", classIndex);
+        while (linkStart != -1 && linkStart + 2 < html.length()
+                && !Character.isWhitespace(html.charAt(linkStart + 2)) && html.charAt(linkStart + 2) != '>') {
+            linkStart = html.indexOf("<a", linkStart + 2);
+        }
+        if (linkStart == -1) return "";
+        final int linkEnd = html.indexOf("</a>", linkStart);
+        if (linkEnd == -1) return "";
+        return Jsoup.parseBodyFragment(html.substring(linkStart, linkEnd + 4), baseUri).body().text();
+    }
+
+    private void emitItem(ItemListener listener, int[] blockStarts, int[] blockEnds, boolean isMix)
+            throws ExtractionException {
+        if (blockStarts[MESSAGE] != -1) {
+            listener.onNothingFound(parseBlock(blockStarts[MESSAGE], blockEnds[MESSAGE]).text());
+        } else if (blockStarts[VIDEO] != -1) {
+            listener.onItem(ItemType.VIDEO, parseBlock(blockStarts[VIDEO], blockEnds[VIDEO]));
+        } else if (blockStarts[CHANNEL] != -1) {
+            listener.onItem(ItemType.CHANNEL, parseBlock(blockStarts[CHANNEL], blockEnds[CHANNEL]));
+        } else if (blockStarts[PLAYLIST] != -1 && !isMix) {
+            listener.onItem(ItemType.PLAYLIST, parseBlock(blockStarts[PLAYLIST], blockEnds[PLAYLIST]));
+        }
+    }
+
+    private Element parseBlock(int start, int end) {
+        final String block = html.substring(start, end == -1 ? html.length() : end);
+        return Jsoup.parseBodyFragment(block, baseUri).body().child(0);
+    }
+
+    /**
+     * @return the index after the start tag of the list of results or -1 if there is none
+     */
+    private int findItemSection() {
+        int index = 0;
+        final int length = html.length();
+        while (index < length) {
+            final int tagStart = html.indexOf('<', index);
+            if (tagStart == -1) return -1;
+
+            if (html.startsWith("<!--", tagStart)) {
+                final int commentEnd = html.indexOf("-->", tagStart + 4);
+                if (commentEnd == -1) return -1;
+                index = commentEnd + 3;
+                continue;
+            }
+
+            final int tagEnd = findTagEnd(tagStart);
+            if (tagEnd == -1) return -1;
+            index = tagEnd;
+
+            // scripts may contain html in strings
+            if (html.startsWith("<script", tagStart) || html.startsWith("<style", tagStart)) {
+                final int rawEnd = html.indexOf(html.charAt(tagStart + 2) == 'c' ? "</script" : "</style", tagEnd);
+                if (rawEnd == -1) return -1;
+                index = rawEnd;
+            } else if (html.startsWith("<ol", tagStart) && "item-section".equals(getAttribute(tagStart, tagEnd, "class"))) {
+                return tagEnd;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the {@code >} of the tag, or -1 if the tag does not end
+     */
+    private int findTagEnd(int tagStart) {
+        char quote = 0;
+        for (int i = tagStart + 1; i < html.length(); i++) {
+            final char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private String getTagName(int start, int tagEnd) {
+        int end = start;
+        while (end < tagEnd && (Character.isLetterOrDigit(html.charAt(end)) || html.charAt(end) == '-')) {
+            end++;
+        }
+        return html.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    @Nullable
+    private String getAttribute(int tagStart, int tagEnd, String attribute) {
+        final int last = tagEnd - attribute.length() - 1;
+        for (int index = tagStart + 1; index < last; index++) {
+            if (!html.regionMatches(index, attribute, 0, attribute.length())) continue;
+
+            final int valueStart = index + attribute.length();
+            if (Character.isWhitespace(html.charAt(index - 1)) && html.charAt(valueStart) == '=') {
+                final char quote = html.charAt(valueStart + 1);
+                if (quote == '"' || quote == '\'') {
+                    final int valueEnd = html.indexOf(quote, valueStart + 2);
+                    return valueEnd == -1 || valueEnd > tagEnd ? null : html.substring(valueStart + 2, valueEnd);
+                }
+                int valueEnd = valueStart + 1;
+                while (valueEnd < tagEnd - 1 && !Character.isWhitespace(html.charAt(valueEnd))
+                        && html.charAt(valueEnd) != '>') {
+                    valueEnd++;
+                }
+                return html.substring(valueStart + 1, valueEnd);
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasClass(String classes, String className) {
+        for (String c : classes.split("\\s+")) {
+            if (c.equals(className)) return true;
+        }
+        return false;
+    }
+}
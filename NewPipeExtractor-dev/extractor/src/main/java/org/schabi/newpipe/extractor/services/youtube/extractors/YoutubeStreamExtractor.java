@@ -8,9 +8,6 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.mozilla.javascript.Context;
-import org.mozilla.javascript.Function;
-import org.mozilla.javascript.ScriptableObject;
 import org.schabi.newpipe.extractor.*;
 import org.schabi.newpipe.extractor.exceptions.ContentNotAvailableException;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
@@ -18,10 +15,16 @@ import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.linkhandler.LinkHandler;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+import org.schabi.newpipe.extractor.services.youtube.SignatureDecipherer;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeDecryptionCache;
 import org.schabi.newpipe.extractor.stream.*;
+import org.schabi.newpipe.extractor.utils.JsonScanner;
 import org.schabi.newpipe.extractor.utils.Localization;
+import org.schabi.newpipe.extractor.utils.Memoizer;
 import org.schabi.newpipe.extractor.utils.Parser;
+import org.schabi.newpipe.extractor.utils.QueryString;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -84,7 +87,8 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Nullable
     private JsonObject playerArgs;
     @Nonnull
-    private final Map<String, String> videoInfoPage = new HashMap<>();
+    // decoded lazily, only a few of its values are needed
+    private QueryString videoInfoPage = QueryString.EMPTY;
     private JsonObject playerResponse;
 
     @Nonnull
@@ -92,6 +96,9 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
     private boolean isAgeRestricted;
 
+    // values derived from the page, including the intermediate player config
+    private final Memoizer memoizer = new Memoizer();
+
     public YoutubeStreamExtractor(StreamingService service, LinkHandler linkHandler, Localization localization) {
         super(service, linkHandler, localization);
     }
@@ -105,10 +112,13 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     public String getName() throws ParsingException {
         assertPageFetched();
         String name = getStringFromMetaData("title");
-        if(name == null) {
+        if(name == null && playerResponse != null) {
+            name = playerResponse.getObject("videoDetails", new JsonObject()).getString("title");
+        }
+        if(name == null && doc != null) {
             // Fallback to HTML method
             try {
-                name = doc.select("meta[name=title]").attr(CONTENT);
+                name = select(doc, "meta[name=title]").attr(CONTENT);
             } catch (Exception e) {
                 throw new ParsingException("Could not get the title", e);
             }
@@ -123,46 +133,61 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Override
     public String getUploadDate() throws ParsingException {
         assertPageFetched();
-        try {
-            return doc.select("meta[itemprop=datePublished]").attr(CONTENT);
-        } catch (Exception e) {//todo: add fallback method
-            throw new ParsingException("Could not get upload date", e);
-        }
+        return memoizer.get("uploadDate", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                try {
+                    return select(doc, "meta[itemprop=datePublished]").attr(CONTENT);
+                } catch (Exception e) {//todo: add fallback method
+                    throw new ParsingException("Could not get upload date", e);
+                }
+            }
+        });
     }
 
     @Nonnull
     @Override
     public String getThumbnailUrl() throws ParsingException {
         assertPageFetched();
-        // Try to get high resolution thumbnail first, if it fails, use low res from the player instead
-        try {
-            return doc.select("link[itemprop=\"thumbnailUrl\"]").first().attr("abs:href");
-        } catch (Exception ignored) {
-            // Try other method...
-        }
+        return memoizer.get("thumbnailUrl", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                // Try to get high resolution thumbnail first, if it fails, use low res from the player instead
+                try {
+                    return select(doc, "link[itemprop=\"thumbnailUrl\"]").first().attr("abs:href");
+                } catch (Exception ignored) {
+                    // Try other method...
+                }
 
-        try {
-            if (playerArgs != null && playerArgs.isString("thumbnail_url")) return playerArgs.getString("thumbnail_url");
-        } catch (Exception ignored) {
-            // Try other method...
-        }
+                try {
+                    if (playerArgs != null && playerArgs.isString("thumbnail_url")) return playerArgs.getString("thumbnail_url");
+                } catch (Exception ignored) {
+                    // Try other method...
+                }
 
-        try {
-            return videoInfoPage.get("thumbnail_url");
-        } catch (Exception e) {
-            throw new ParsingException("Could not get thumbnail url", e);
-        }
+                try {
+                    return videoInfoPage.get("thumbnail_url");
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get thumbnail url", e);
+                }
+            }
+        });
     }
 
     @Nonnull
     @Override
     public String getDescription() throws ParsingException {
         assertPageFetched();
-        try {
-            return parseHtmlAndGetFullLinks(doc.select("p[id=\"eow-description\"]").first().html());
-        } catch (Exception e) {
-            throw new ParsingException("Could not get the description", e);
-        }
+        return memoizer.get("description", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                try {
+                    return parseHtmlAndGetFullLinks(select(doc, "p[id=\"eow-description\"]").first().html());
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get the description", e);
+                }
+            }
+        });
     }
 
     // onclick="yt.www.watch.player.seekTo(0*3600+00*60+00);return false;"
@@ -187,7 +212,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     private String parseHtmlAndGetFullLinks(String descriptionHtml)
             throws MalformedURLException, UnsupportedEncodingException, ParsingException {
         final Document description = Jsoup.parse(descriptionHtml, getUrl());
-        for(Element a : description.select("a")) {
+        for(Element a : select(description, "a")) {
             final String rawUrl = a.attr("abs:href");
             final URL redirectLink = new URL(rawUrl);
 
@@ -233,21 +258,26 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 a.attr("href", redirectLink.toString());
             }
         }
-        return description.select("body").first().html();
+        return select(description, "body").first().html();
     }
 
     @Override
     public int getAgeLimit() throws ParsingException {
         assertPageFetched();
-        if (!isAgeRestricted) {
-            return NO_AGE_LIMIT;
-        }
-        try {
-            return Integer.valueOf(doc.select("meta[property=\"og:restrictions:age\"]")
-                    .attr(CONTENT).replace("+", ""));
-        } catch (Exception e) {
-            throw new ParsingException("Could not get age restriction");
-        }
+        return memoizer.get("ageLimit", new Memoizer.Computation<Integer>() {
+            @Override
+            public Integer compute() throws ParsingException {
+                if (!isAgeRestricted) {
+                    return NO_AGE_LIMIT;
+                }
+                try {
+                    return Integer.valueOf(select(doc, "meta[property=\"og:restrictions:age\"]")
+                            .attr(CONTENT).replace("+", ""));
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get age restriction");
+                }
+            }
+        });
     }
 
     @Override
@@ -289,63 +319,83 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Override
     public long getViewCount() throws ParsingException {
         assertPageFetched();
-        try {
-            return Long.parseLong(doc.select("meta[itemprop=interactionCount]").attr(CONTENT));
-        } catch (Exception e) {//todo: find fallback method
-            throw new ParsingException("Could not get number of views", e);
-        }
+        return memoizer.get("viewCount", new Memoizer.Computation<Long>() {
+            @Override
+            public Long compute() throws ParsingException {
+                try {
+                    return Long.parseLong(select(doc, "meta[itemprop=interactionCount]").attr(CONTENT));
+                } catch (Exception e) {//todo: find fallback method
+                    throw new ParsingException("Could not get number of views", e);
+                }
+            }
+        });
     }
 
     @Override
     public long getLikeCount() throws ParsingException {
         assertPageFetched();
-        String likesString = "";
-        try {
-            Element button = doc.select("button.like-button-renderer-like-button").first();
-            try {
-                likesString = button.select("span.yt-uix-button-content").first().text();
-            } catch (NullPointerException e) {
-                //if this kicks in our button has no content and therefore likes/dislikes are disabled
-                return -1;
-            }
-            return Integer.parseInt(Utils.removeNonDigitCharacters(likesString));
-        } catch (NumberFormatException nfe) {
-            throw new ParsingException("Could not parse \"" + likesString + "\" as an Integer", nfe);
-        } catch (Exception e) {
-            throw new ParsingException("Could not get like count", e);
-        }
+        return memoizer.get("likeCount", new Memoizer.Computation<Long>() {
+            @Override
+            public Long compute() throws ParsingException {
+                String likesString = "";
+                try {
+                    Element button = select(doc, "button.like-button-renderer-like-button").first();
+                    try {
+                        likesString = select(button, "span.yt-uix-button-content").first().text();
+                    } catch (NullPointerException e) {
+                        //if this kicks in our button has no content and therefore likes/dislikes are disabled
+                        return -1L;
+                    }
+                    return Long.parseLong(Utils.removeNonDigitCharacters(likesString));
+                } catch (NumberFormatException nfe) {
+                    throw new ParsingException("Could not parse \"" + likesString + "\" as a number", nfe);
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get like count", e);
+                }
+            }
+        });
     }
 
     @Override
     public long getDislikeCount() throws ParsingException {
         assertPageFetched();
-        String dislikesString = "";
-        try {
-            Element button = doc.select("button.like-button-renderer-dislike-button").first();
-            try {
-                dislikesString = button.select("span.yt-uix-button-content").first().text();
-            } catch (NullPointerException e) {
-                //if this kicks in our button has no content and therefore likes/dislikes are disabled
-                return -1;
-            }
-            return Integer.parseInt(Utils.removeNonDigitCharacters(dislikesString));
-        } catch (NumberFormatException nfe) {
-            throw new ParsingException("Could not parse \"" + dislikesString + "\" as an Integer", nfe);
-        } catch (Exception e) {
-            throw new ParsingException("Could not get dislike count", e);
-        }
+        return memoizer.get("dislikeCount", new Memoizer.Computation<Long>() {
+            @Override
+            public Long compute() throws ParsingException {
+                String dislikesString = "";
+                try {
+                    Element button = select(doc, "button.like-button-renderer-dislike-button").first();
+                    try {
+                        dislikesString = select(button, "span.yt-uix-button-content").first().text();
+                    } catch (NullPointerException e) {
+                        //if this kicks in our button has no content and therefore likes/dislikes are disabled
+                        return -1L;
+                    }
+                    return Long.parseLong(Utils.removeNonDigitCharacters(dislikesString));
+                } catch (NumberFormatException nfe) {
+                    throw new ParsingException("Could not parse \"" + dislikesString + "\" as a number", nfe);
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get dislike count", e);
+                }
+            }
+        });
     }
 
     @Nonnull
     @Override
     public String getUploaderUrl() throws ParsingException {
         assertPageFetched();
-        try {
-            return doc.select("div[class=\"yt-user-info\"]").first().children()
-                    .select("a").first().attr("abs:href");
-        } catch (Exception e) {
-            throw new ParsingException("Could not get channel link", e);
-        }
+        return memoizer.get("uploaderUrl", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                try {
+                    return select(doc, "div[class=\"yt-user-info\"]").first().children()
+                            .select("a").first().attr("abs:href");
+                } catch (Exception e) {
+                    throw new ParsingException("Could not get channel link", e);
+                }
+            }
+        });
     }
 
 
@@ -368,33 +418,42 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Override
     public String getUploaderName() throws ParsingException {
         assertPageFetched();
-        String name = getStringFromMetaData("author");
-
-        if(name == null) {
-            try {
-                // Fallback to HTML method
-                name = doc.select("div.yt-user-info").first().text();
-            } catch (Exception e) {
-                throw new ParsingException("Could not get uploader name", e);
+        return memoizer.get("uploaderName", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                String name = getStringFromMetaData("author");
+
+                if(name == null) {
+                    try {
+                        // Fallback to HTML method
+                        name = select(doc, "div.yt-user-info").first().text();
+                    } catch (Exception e) {
+                        throw new ParsingException("Could not get uploader name", e);
+                    }
+                }
+                if(name == null || name.isEmpty()) {
+                    throw new ParsingException("Could not get uploader name");
+                }
+                return name;
             }
-        }
-        if(name == null || name.isEmpty()) {
-            throw new ParsingException("Could not get uploader name");
-        }
-        return name;
+        });
     }
 
     @Nonnull
     @Override
     public String getUploaderAvatarUrl() throws ParsingException {
         assertPageFetched();
-        try {
-            return doc.select("a[class*=\"yt-user-photo\"]").first()
-                    .select("img").first()
-                    .attr("abs:data-thumb");
-        } catch (Exception e) {//todo: add fallback method
-            throw new ParsingException("Could not get uploader thumbnail URL.", e);
-        }
+        return memoizer.get("uploaderAvatarUrl", new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                try {
+                    return select(select(doc, "a[class*=\"yt-user-photo\"]").first(), "img").first()
+                            .attr("abs:data-thumb");
+                } catch (Exception e) {//todo: add fallback method
+                    throw new ParsingException("Could not get uploader thumbnail URL.", e);
+                }
+            }
+        });
     }
 
     @Nonnull
@@ -415,7 +474,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 String encryptedSig = Parser.matchGroup1("/s/([a-fA-F0-9\\.]+)", dashManifestUrl);
                 String decryptedSig;
 
-                decryptedSig = decryptSignature(encryptedSig, decryptionCode);
+                decryptedSig = decryptSignature(encryptedSig);
                 dashManifestUrl = dashManifestUrl.replace("/s/" + encryptedSig, "/signature/" + decryptedSig);
             }
 
@@ -445,12 +504,16 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     public List<AudioStream> getAudioStreams() throws ExtractionException {
         assertPageFetched();
         List<AudioStream> audioStreams = new ArrayList<>();
+        SimilarStreams similarStreams = new SimilarStreams();
         try {
-            for (Map.Entry<String, ItagItem> entry : getItags(ADAPTIVE_FORMATS, ItagItem.ItagType.AUDIO).entrySet()) {
-                ItagItem itag = entry.getValue();
-
-                AudioStream audioStream = new AudioStream(entry.getKey(), itag.getMediaFormat(), itag.avgBitrate);
-                if (!Stream.containSimilarStream(audioStream, audioStreams)) {
+            final YoutubeFormatTable formatTable = formatTable();
+            final List<YoutubeFormatTable.Format> formats = formatTable.getFormats(ItagItem.ItagType.AUDIO);
+            final List<String> urls = getUrls(formatTable, ItagItem.ItagType.AUDIO);
+            for (int i = 0; i < formats.size(); i++) {
+                ItagItem itag = formats.get(i).getItag();
+
+                AudioStream audioStream = new AudioStream(urls.get(i), itag.getMediaFormat(), itag.avgBitrate);
+                if (similarStreams.add(audioStream)) {
                     audioStreams.add(audioStream);
                 }
             }
@@ -465,12 +528,16 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     public List<VideoStream> getVideoStreams() throws ExtractionException {
         assertPageFetched();
         List<VideoStream> videoStreams = new ArrayList<>();
+        SimilarStreams similarStreams = new SimilarStreams();
         try {
-            for (Map.Entry<String, ItagItem> entry : getItags(FORMATS, ItagItem.ItagType.VIDEO).entrySet()) {
-                ItagItem itag = entry.getValue();
-
-                VideoStream videoStream = new VideoStream(entry.getKey(), itag.getMediaFormat(), itag.resolutionString);
-                if (!Stream.containSimilarStream(videoStream, videoStreams)) {
+            final YoutubeFormatTable formatTable = formatTable();
+            final List<YoutubeFormatTable.Format> formats = formatTable.getFormats(ItagItem.ItagType.VIDEO);
+            final List<String> urls = getUrls(formatTable, ItagItem.ItagType.VIDEO);
+            for (int i = 0; i < formats.size(); i++) {
+                ItagItem itag = formats.get(i).getItag();
+
+                VideoStream videoStream = new VideoStream(urls.get(i), itag.getMediaFormat(), itag.resolutionString);
+                if (similarStreams.add(videoStream)) {
                     videoStreams.add(videoStream);
                 }
             }
@@ -485,12 +552,16 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     public List<VideoStream> getVideoOnlyStreams() throws ExtractionException {
         assertPageFetched();
         List<VideoStream> videoOnlyStreams = new ArrayList<>();
+        SimilarStreams similarStreams = new SimilarStreams();
         try {
-            for (Map.Entry<String, ItagItem> entry : getItags(ADAPTIVE_FORMATS, ItagItem.ItagType.VIDEO_ONLY).entrySet()) {
-                ItagItem itag = entry.getValue();
-
-                VideoStream videoStream = new VideoStream(entry.getKey(), itag.getMediaFormat(), itag.resolutionString, true);
-                if (!Stream.containSimilarStream(videoStream, videoOnlyStreams)) {
+            final YoutubeFormatTable formatTable = formatTable();
+            final List<YoutubeFormatTable.Format> formats = formatTable.getFormats(ItagItem.ItagType.VIDEO_ONLY);
+            final List<String> urls = getUrls(formatTable, ItagItem.ItagType.VIDEO_ONLY);
+            for (int i = 0; i < formats.size(); i++) {
+                ItagItem itag = formats.get(i).getItag();
+
+                VideoStream videoStream = new VideoStream(urls.get(i), itag.getMediaFormat(), itag.resolutionString, true);
+                if (similarStreams.add(videoStream)) {
                     videoOnlyStreams.add(videoStream);
                 }
             }
@@ -538,12 +609,12 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         try {
             StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
 
-            Elements watch = doc.select("div[class=\"watch-sidebar-section\"]");
+            Elements watch = select(doc, "div[class=\"watch-sidebar-section\"]");
             if (watch.size() < 1) {
                 return null;// prevent the snackbar notification "report error" on age-restricted videos
             }
             
-            collector.commit(extractVideoPreviewInfo(watch.first().select("li").first()));
+            collector.commit(extractVideoPreviewInfo(select(watch.first(), "li").first()));
             return collector.getItems().get(0);
         } catch (Exception e) {
             throw new ParsingException("Could not get next video", e);
@@ -555,11 +626,11 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         assertPageFetched();
         try {
             StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-            Element ul = doc.select("ul[id=\"watch-related\"]").first();
+            Element ul = select(doc, "ul[id=\"watch-related\"]").first();
             if (ul != null) {
                 for (Element li : ul.children()) {
                     // first check if we have a playlist. If so leave them out
-                    if (li.select("a[class*=\"content-link\"]").first() != null) {
+                    if (select(li, "a[class*=\"content-link\"]").first() != null) {
                         collector.commit(extractVideoPreviewInfo(li));
                     }
                 }
@@ -575,7 +646,8 @@ public class YoutubeStreamExtractor extends StreamExtractor {
      */
     @Override
     public String getErrorMessage() {
-        String errorMessage = doc.select("h1[id=\"unavailable-message\"]").first().text();
+        if (doc == null) return null;
+        String errorMessage = select(doc, "h1[id=\"unavailable-message\"]").first().text();
         StringBuilder errorReason;
 
         if (errorMessage == null || errorMessage.isEmpty()) {
@@ -589,7 +661,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         } else {
             errorReason = new StringBuilder(errorMessage);
             errorReason.append("  ");
-            errorReason.append(doc.select("[id=\"unavailable-submessage\"]").first().text());
+            errorReason.append(select(doc, "[id=\"unavailable-submessage\"]").first().text());
         }
 
         return errorReason != null ? errorReason.toString() : null;
@@ -600,21 +672,12 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     //////////////////////////////////////////////////////////////////////////*/
 
     private static final String FORMATS = "formats";
-    private static final String ADAPTIVE_FORMATS = "adaptiveFormats";
     private static final String HTTPS = "https:";
     private static final String CONTENT = "content";
-    private static final String DECRYPTION_FUNC_NAME = "decrypt";
 
     private static final String VERIFIED_URL_PARAMS = "&has_verified=1&bpctr=9999999999";
 
-    private final static String DECYRYPTION_SIGNATURE_FUNCTION_REGEX =
-            "([\\w$]+)\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;";
-    private final static String DECRYPTION_AKAMAIZED_STRING_REGEX =
-            "yt\\.akamaized\\.net/\\)\\s*\\|\\|\\s*.*?\\s*c\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\(";
-    private final static String DECRYPTION_AKAMAIZED_SHORT_STRING_REGEX =
-            "\\bc\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\(";
-
-    private volatile String decryptionCode = "";
+    private volatile SignatureDecipherer decipherer;
 
     private String pageHtml = null;
 
@@ -628,6 +691,11 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
     @Override
     public void onFetchPage(@Nonnull Downloader downloader) throws IOException, ExtractionException {
+        memoizer.clear();
+        if (isAudioOnly() && fetchVideoInfo(downloader)) {
+            return;
+        }
+
         final String pageContent = getPageHtml(downloader);
         doc = Jsoup.parse(pageContent, getUrl());
 
@@ -638,19 +706,19 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             final EmbeddedInfo info = getEmbeddedInfo();
             final String videoInfoUrl = getVideoInfoUrl(getId(), info.sts);
             final String infoPageResponse = downloader.download(videoInfoUrl);
-            videoInfoPage.putAll(Parser.compatParseMap(infoPageResponse));
+            videoInfoPage = QueryString.parse(infoPageResponse);
             playerUrl = info.url;
             isAgeRestricted = true;
         } else {
-            final JsonObject ytPlayerConfig = getPlayerConfig(pageContent);
+            final JsonObject ytPlayerConfig = getPlayerConfig();
             playerArgs = getPlayerArgs(ytPlayerConfig);
             playerUrl = getPlayerUrl(ytPlayerConfig);
             isAgeRestricted = false;
         }
         playerResponse = getPlayerResponse();
 
-        if (decryptionCode.isEmpty()) {
-            decryptionCode = loadDecryptionCode(playerUrl);
+        if (decipherer == null) {
+            decipherer = loadDecipherer(playerUrl);
         }
 
         if (subtitlesInfos.isEmpty()) {
@@ -658,20 +726,80 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         }
     }
 
-    private JsonObject getPlayerConfig(String pageContent) throws ParsingException {
+    /**
+     * Load the player response from get_video_info instead of downloading and parsing the whole watch page.
+     * The player is only needed (and then taken from the embed page) if the audio streams are ciphered.
+     *
+     * @return false if the video can not be played with the video info alone, e.g. if it is age restricted
+     */
+    private boolean fetchVideoInfo(Downloader downloader) throws IOException, ExtractionException {
+        final QueryString videoInfo = QueryString.parse(downloader.download(getVideoInfoUrl(getId(), "")));
+        if (!"ok".equals(videoInfo.get("status")) || !videoInfo.containsKey("player_response")) {
+            return false;
+        }
+
+        final JsonObject response;
         try {
-            String ytPlayerConfigRaw = Parser.matchGroup1("ytplayer.config\\s*=\\s*(\\{.*?\\});", pageContent);
-            return JsonParser.object().from(ytPlayerConfigRaw);
-        } catch (Parser.RegexException e) {
+            response = JsonParser.object().from(videoInfo.get("player_response"));
+        } catch (JsonParserException e) {
+            throw new ParsingException("Could not parse yt player response", e);
+        }
+        final String playability = response.getObject("playabilityStatus", new JsonObject()).getString("status");
+        if (!"OK".equals(playability) || !response.has("streamingData")) {
+            return false;
+        }
+
+        videoInfoPage = videoInfo;
+        playerResponse = response;
+        isAgeRestricted = false;
+        // the decipherer is loaded by getDecipherer() once ciphered urls are asked for
+        return true;
+    }
+
+    /**
+     * @return the formats of the player response, read once per fetched page
+     */
+    @Nonnull
+    public YoutubeFormatTable getFormatTable() throws ParsingException {
+        assertPageFetched();
+        return formatTable();
+    }
+
+    private YoutubeFormatTable formatTable() throws ParsingException {
+        return memoizer.get("formatTable", new Memoizer.Computation<YoutubeFormatTable>() {
+            @Override
+            public YoutubeFormatTable compute() {
+                return new YoutubeFormatTable(playerResponse.getObject("streamingData"));
+            }
+        });
+    }
+
+    private JsonObject getPlayerConfig() throws ParsingException {
+        return memoizer.get("playerConfig", new Memoizer.Computation<JsonObject>() {
+            @Override
+            public JsonObject compute() throws ParsingException {
+                return parsePlayerConfig(pageHtml);
+            }
+        });
+    }
+
+    private JsonObject parsePlayerConfig(String pageContent) throws ParsingException {
+        final String ytPlayerConfigRaw = JsonScanner.extractValueAfter(pageContent, "ytplayer.config");
+        if (ytPlayerConfigRaw == null) {
             String errorReason = getErrorMessage();
+            if (errorReason == null) errorReason = "";
             switch (errorReason) {
                 case "GEMA":
                     throw new GemaException(errorReason);
                 case "":
-                    throw new ContentNotAvailableException("Content not available: player config empty", e);
+                    throw new ContentNotAvailableException("Content not available: player config empty");
                 default:
-                    throw new ContentNotAvailableException("Content not available", e);
+                    throw new ContentNotAvailableException("Content not available");
             }
+        }
+
+        try {
+            return JsonParser.object().from(ytPlayerConfigRaw);
         } catch (Exception e) {
             throw new ParsingException("Could not parse yt player config", e);
         }
@@ -731,9 +859,14 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             final String embedPageContent = downloader.download(embedUrl);
 
             // Get player url
-            final String assetsPattern = "\"assets\":.+?\"js\":\\s*(\"[^\"]+\")";
-            String playerUrl = Parser.matchGroup1(assetsPattern, embedPageContent)
-                    .replace("\\", "").replace("\"", "");
+            final String assets = JsonScanner.extractValueAfter(embedPageContent, "\"assets\"");
+            if (assets == null) {
+                throw new ParsingException("Could not find the player assets in the embed page");
+            }
+            String playerUrl = JsonParser.object().from(assets).getString("js");
+            if (playerUrl == null) {
+                throw new ParsingException("Could not find the player url in the embed page");
+            }
             if (playerUrl.startsWith("//")) {
                 playerUrl = HTTPS + playerUrl;
             }
@@ -748,95 +881,69 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 return new EmbeddedInfo(playerUrl, "");
             }
 
-        } catch (IOException e) {
+        } catch (IOException | JsonParserException e) {
             throw new ParsingException(
                     "Could load decryption code form restricted video for the Youtube service.", e);
         }
     }
 
-    private String loadDecryptionCode(String playerUrl) throws DecryptException {
+    private SignatureDecipherer loadDecipherer(String playerUrl) throws DecryptException {
         try {
-            Downloader downloader = NewPipe.getDownloader();
-            if (!playerUrl.contains("https://youtube.com")) {
-                //sometimes the https://youtube.com part does not get send with
-                //than we have to add it by hand
-                playerUrl = "https://youtube.com" + playerUrl;
-            }
-
-            final String playerCode = downloader.download(playerUrl);
-            final String decryptionFunctionName = getDecryptionFuncName(playerCode);
-
-            final String functionPattern = "("
-                    + decryptionFunctionName.replace("$", "\\$")
-                    + "=function\\([a-zA-Z0-9_]+\\)\\{.+?\\})";
-            final String decryptionFunction = "var " + Parser.matchGroup1(functionPattern, playerCode) + ";";
-
-            final String helperObjectName =
-                    Parser.matchGroup1(";([A-Za-z0-9_\\$]{2})\\...\\(", decryptionFunction);
-            final String helperPattern =
-                    "(var " + helperObjectName.replace("$", "\\$") + "=\\{.+?\\}\\};)";
-            final String helperObject =
-                    Parser.matchGroup1(helperPattern, playerCode.replace("\n", ""));
-
-            final String callerFunction =
-                    "function " + DECRYPTION_FUNC_NAME + "(a){return " + decryptionFunctionName + "(a);}";
-
-            return helperObject + decryptionFunction + callerFunction;
-        } catch (IOException ioe) {
-            throw new DecryptException("Could not load decrypt function", ioe);
-        } catch (Exception e) {
-            throw new DecryptException("Could not parse decrypt function ", e);
+            return YoutubeDecryptionCache.getInstance().getDecipherer(playerUrl);
+        } catch (ParsingException e) {
+            throw new DecryptException(e.getMessage(), e);
         }
     }
 
-    private String decryptSignature(String encryptedSig, String decryptionCode) throws DecryptException {
-        Context context = Context.enter();
-        context.setOptimizationLevel(-1);
-        Object result;
-        try {
-            ScriptableObject scope = context.initStandardObjects();
-            context.evaluateString(scope, decryptionCode, "decryptionCode", 1, null);
-            Function decryptionFunc = (Function) scope.get("decrypt", scope);
-            result = decryptionFunc.call(context, scope, scope, new Object[]{encryptedSig});
-        } catch (Exception e) {
-            throw new DecryptException("could not get decrypt signature", e);
-        } finally {
-            Context.exit();
-        }
-        return result == null ? "" : result.toString();
+    /**
+     * @return the urls of the formats of the type, loading the decipherer first if they are ciphered
+     */
+    private List<String> getUrls(YoutubeFormatTable formatTable, ItagItem.ItagType type) throws ParsingException {
+        return formatTable.getUrls(type, formatTable.hasCipheredFormats(type) ? getDecipherer() : null);
     }
 
-    private String getDecryptionFuncName(String playerCode) throws DecryptException {
-        String decryptionFunctionName;
-        // Cascading things in catch is ugly, but its faster than running a match before getting the actual name
-        // to se if the function can actually be found with the given regex.
-        // However if this cascading should propably be cleaned up somehow as it looks a bit weird.
-        try {
-            decryptionFunctionName = Parser.matchGroup1(DECYRYPTION_SIGNATURE_FUNCTION_REGEX, playerCode);
-        } catch (Parser.RegexException re) {
-            try {
-                decryptionFunctionName = Parser.matchGroup1(DECRYPTION_AKAMAIZED_SHORT_STRING_REGEX, playerCode);
-            } catch (Parser.RegexException re2) {
-                try {
-                    decryptionFunctionName = Parser.matchGroup1(DECRYPTION_AKAMAIZED_STRING_REGEX, playerCode);
-                } catch (Parser.RegexException re3) {
-                    throw new DecryptException("Could not find decrypt function with any of the given patterns.", re);
+    /**
+     * @return the decipherer of the player, which is taken from the embed page the first time
+     * if the page was fetched without the player (in audio only mode)
+     */
+    private SignatureDecipherer getDecipherer() throws DecryptException {
+        SignatureDecipherer result = decipherer;
+        if (result == null) {
+            synchronized (this) {
+                if (decipherer == null) {
+                    try {
+                        decipherer = loadDecipherer(getEmbeddedInfo().url);
+                    } catch (DecryptException e) {
+                        throw e;
+                    } catch (ParsingException | ReCaptchaException e) {
+                        throw new DecryptException("Could not load the player", e);
+                    }
                 }
+                result = decipherer;
             }
         }
-        return decryptionFunctionName;
+        return result;
+    }
+
+    private String decryptSignature(String encryptedSig) throws DecryptException {
+        try {
+            return getDecipherer().decrypt(encryptedSig);
+        } catch (ParsingException e) {
+            throw new DecryptException("could not get decrypt signature", e);
+        }
     }
 
     @Nonnull
     private List<SubtitlesInfo> getAvailableSubtitlesInfo() throws SubtitlesException {
         // If the video is age restricted getPlayerConfig will fail
         if(isAgeRestricted) return Collections.emptyList();
+        // There is no player config without the watch page
+        if(doc == null) return Collections.emptyList();
 
-        final JsonObject playerConfig;
         try {
-            playerConfig = getPlayerConfig(getPageHtml(NewPipe.getDownloader()));
-        } catch (IOException | ExtractionException e) {
-            throw new SubtitlesException("Unable to download player configs", e);
+            getPlayerConfig();
+        } catch (ParsingException e) {
+            throw new SubtitlesException("Unable to get player configs", e);
         }
 
         final JsonObject captions;
@@ -913,42 +1020,6 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 "&sts=" + sts + "&ps=default&gl=US&hl=en";
     }
 
-    private Map<String, ItagItem> getItags(String streamingDataKey, ItagItem.ItagType itagTypeWanted) throws ParsingException {
-        Map<String, ItagItem> urlAndItags = new LinkedHashMap<>();
-        JsonObject streamingData = playerResponse.getObject("streamingData");
-        if (!streamingData.has(streamingDataKey)) {
-            return urlAndItags;
-        }
-
-        JsonArray formats = streamingData.getArray(streamingDataKey);
-        for (int i = 0; i != formats.size(); ++i) {
-            JsonObject formatData = formats.getObject(i);
-            int itag = formatData.getInt("itag");
-
-            if (ItagItem.isSupported(itag)) {
-                try {
-                    ItagItem itagItem = ItagItem.getItag(itag);
-                    if (itagItem.itagType == itagTypeWanted) {
-                        String streamUrl;
-                        if (formatData.has("url")) {
-                            streamUrl = formatData.getString("url");
-                        } else {
-                            // this url has an encrypted signature
-                            Map<String, String> cipher = Parser.compatParseMap(formatData.getString("cipher"));
-                            streamUrl = cipher.get("url") + "&" + cipher.get("sp") + "=" + decryptSignature(cipher.get("s"), decryptionCode);
-                        }
-
-                        urlAndItags.put(streamUrl, itagItem);
-                    }
-                } catch (UnsupportedEncodingException ignored) {
-
-                }
-            }
-        }
-
-        return urlAndItags;
-    }
-
     /**
      * Provides information about links to other videos on the video page, such as related videos.
      * This is encapsulated in a StreamInfoItem object, which is a subset of the fields in a full StreamInfo.
@@ -958,21 +1029,20 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
             @Override
             public String getUrl() throws ParsingException {
-                return li.select("a.content-link").first().attr("abs:href");
+                return select(li, "a.content-link").first().attr("abs:href");
             }
 
             @Override
             public String getName() throws ParsingException {
                 //todo: check NullPointerException causing
-                return li.select("span.title").first().text();
+                return select(li, "span.title").first().text();
                 //this page causes the NullPointerException, after finding it by searching for "tjvg":
                 //https://www.youtube.com/watch?v=Uqg0aEhLFAg
             }
 
             @Override
             public String getUploaderName() throws ParsingException {
-                return li.select("span[class*=\"attribution\"").first()
-                        .select("span").first().text();
+                return select(select(li, "span[class*=\"attribution\"").first(), "span").first().text();
             }
 
             @Override
@@ -991,7 +1061,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                     if (getStreamType() == StreamType.LIVE_STREAM) return -1;
 
                     return Long.parseLong(Utils.removeNonDigitCharacters(
-                            li.select("span.view-count").first().text()));
+                            select(li, "span.view-count").first().text()));
                 } catch (Exception e) {
                     //related videos sometimes have no view count
                     return 0;
@@ -1000,7 +1070,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
             @Override
             public String getThumbnailUrl() throws ParsingException {
-                Element img = li.select("img").first();
+                Element img = select(li, "img").first();
                 String thumbnailUrl = img.attr("abs:src");
                 // Sometimes youtube sends links to gif files which somehow seem to not exist
                 // anymore. Items with such gif also offer a secondary image source. So we are going
@@ -6,6 +6,7 @@ import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeParsingH
 import org.schabi.newpipe.extractor.stream.StreamInfoItemExtractor;
 import org.schabi.newpipe.extractor.stream.StreamType;
 import org.schabi.newpipe.extractor.utils.Utils;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 /*
  * Copyright (C) Christian Schabesberger 2016 <chris.schabesberger@mailbox.org>
@@ -44,13 +45,13 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
 
     @Override
     public boolean isAd() throws ParsingException {
-        return !item.select("span[class*=\"icon-not-available\"]").isEmpty()
-                || !item.select("span[class*=\"yt-badge-ad\"]").isEmpty()
+        return !select(item, "span[class*=\"icon-not-available\"]").isEmpty()
+                || !select(item, "span[class*=\"yt-badge-ad\"]").isEmpty()
                 || isPremiumVideo();
     }
 
     private boolean isPremiumVideo() {
-        Element premiumSpan = item.select("span[class=\"standalone-collection-badge-renderer-red-text\"]").first();
+        Element premiumSpan = select(item, "span[class=\"standalone-collection-badge-renderer-red-text\"]").first();
         if(premiumSpan == null) return false;
 
         // if this span has text it most likely says ("Free Video") so we can play this
@@ -61,8 +62,8 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
     @Override
     public String getUrl() throws ParsingException {
         try {
-            Element el = item.select("div[class*=\"yt-lockup-video\"]").first();
-            Element dl = el.select("h3").first().select("a").first();
+            Element el = select(item, "div[class*=\"yt-lockup-video\"]").first();
+            Element dl = select(select(el, "h3").first(), "a").first();
             return dl.attr("abs:href");
         } catch (Exception e) {
             throw new ParsingException("Could not get web page url for the video", e);
@@ -72,8 +73,8 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
     @Override
     public String getName() throws ParsingException {
         try {
-            Element el = item.select("div[class*=\"yt-lockup-video\"]").first();
-            Element dl = el.select("h3").first().select("a").first();
+            Element el = select(item, "div[class*=\"yt-lockup-video\"]").first();
+            Element dl = select(select(el, "h3").first(), "a").first();
             return dl.text();
         } catch (Exception e) {
             throw new ParsingException("Could not get title", e);
@@ -85,7 +86,7 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
         try {
             if (getStreamType() == StreamType.LIVE_STREAM) return -1;
 
-            final Element duration = item.select("span[class*=\"video-time\"]").first();
+            final Element duration = select(item, "span[class*=\"video-time\"]").first();
             // apparently on youtube, video-time element will not show up if the video has a duration of 00:00
             // see: https://www.youtube.com/results?sp=EgIQAVAU&q=asdfgf
             return duration == null ? 0 : YoutubeParsingHelper.parseDurationString(duration.text());
@@ -97,8 +98,7 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
     @Override
     public String getUploaderName() throws ParsingException {
         try {
-            return item.select("div[class=\"yt-lockup-byline\"]").first()
-                    .select("a").first()
+            return select(select(item, "div[class=\"yt-lockup-byline\"]").first(), "a").first()
                     .text();
         } catch (Exception e) {
             throw new ParsingException("Could not get uploader", e);
@@ -111,13 +111,12 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
         // sometimes Youtube provides urls in the from "/user/..."
         try {
             try {
-                return item.select("div[class=\"yt-lockup-byline\"]").first()
-                        .select("a").first()
+                return select(select(item, "div[class=\"yt-lockup-byline\"]").first(), "a").first()
                         .attr("abs:href");
             } catch (Exception e){}
 
             // try this if the first didn't work
-            return item.select("span[class=\"title\"")
+            return select(item, "span[class=\"title\"")
                     .text().split(" - ")[0];
         } catch (Exception e) {
             System.out.println(item.html());
@@ -128,13 +127,13 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
     @Override
     public String getUploadDate() throws ParsingException {
         try {
-            Element meta = item.select("div[class=\"yt-lockup-meta\"]").first();
+            Element meta = select(item, "div[class=\"yt-lockup-meta\"]").first();
             if (meta == null) return "";
 
-            Element li = meta.select("li").first();
+            Element li = select(meta, "li").first();
             if(li == null) return "";
 
-            return meta.select("li").first().text();
+            return select(meta, "li").first().text();
         } catch (Exception e) {
             throw new ParsingException("Could not get upload date", e);
         }
@@ -148,13 +147,13 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
             // -1 for no view count
             if (getStreamType() == StreamType.LIVE_STREAM) return -1;
 
-            Element meta = item.select("div[class=\"yt-lockup-meta\"]").first();
+            Element meta = select(item, "div[class=\"yt-lockup-meta\"]").first();
             if (meta == null) return -1;
 
             // This case can happen if google releases a special video
-            if(meta.select("li").size() < 2)  return -1;
+            if(select(meta, "li").size() < 2)  return -1;
 
-            input = meta.select("li").get(1).text();
+            input = select(meta, "li").get(1).text();
 
         } catch (IndexOutOfBoundsException e) {
             throw new ParsingException("Could not parse yt-lockup-meta although available: " + getUrl(), e);
@@ -176,8 +175,7 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
     public String getThumbnailUrl() throws ParsingException {
         try {
             String url;
-            Element te = item.select("div[class=\"yt-thumb video-thumb\"]").first()
-                    .select("img").first();
+            Element te = select(select(item, "div[class=\"yt-thumb video-thumb\"]").first(), "img").first();
             url = te.attr("abs:src");
             // Sometimes youtube sends links to gif files which somehow seem to not exist
             // anymore. Items with such gif also offer a secondary image source. So we are going
@@ -195,7 +193,7 @@ public class YoutubeStreamInfoItemExtractor implements StreamInfoItemExtractor {
      * Generic method that checks if the element contains any clues that it's a livestream item
      */
     protected static boolean isLiveStream(Element item) {
-        return !item.select("span[class*=\"yt-badge-live\"]").isEmpty()
-                || !item.select("span[class*=\"video-time-overlay-live\"]").isEmpty();
+        return !select(item, "span[class*=\"yt-badge-live\"]").isEmpty()
+                || !select(item, "span[class*=\"video-time-overlay-live\"]").isEmpty();
     }
 }
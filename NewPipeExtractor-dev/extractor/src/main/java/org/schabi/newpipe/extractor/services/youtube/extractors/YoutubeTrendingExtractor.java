@@ -33,6 +33,7 @@ import org.schabi.newpipe.extractor.kiosk.KioskExtractor;
 import org.schabi.newpipe.extractor.stream.StreamInfoItem;
 import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
 import org.schabi.newpipe.extractor.utils.Localization;
+import static org.schabi.newpipe.extractor.utils.Selectors.select;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -74,9 +75,9 @@ public class YoutubeTrendingExtractor extends KioskExtractor<StreamInfoItem> {
     @Override
     public String getName() throws ParsingException {
         try {
-            Element a = doc.select("a[href*=\"/feed/trending\"]").first();
-            Element span = a.select("span[class*=\"display-name\"]").first();
-            Element nameSpan = span.select("span").first();
+            Element a = select(doc, "a[href*=\"/feed/trending\"]").first();
+            Element span = select(a, "span[class*=\"display-name\"]").first();
+            Element nameSpan = select(span, "span").first();
             return nameSpan.text();
         } catch (Exception e) {
             throw new ParsingException("Could not get Trending name", e);
@@ -87,15 +88,15 @@ public class YoutubeTrendingExtractor extends KioskExtractor<StreamInfoItem> {
     @Override
     public InfoItemsPage<StreamInfoItem> getInitialPage() throws ParsingException {
         StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        Elements uls = doc.select("ul[class*=\"expanded-shelf-content-list\"]");
+        Elements uls = select(doc, "ul[class*=\"expanded-shelf-content-list\"]");
         for(Element ul : uls) {
             for(final Element li : ul.children()) {
-                final Element el = li.select("div[class*=\"yt-lockup-dismissable\"]").first();
+                final Element el = select(li, "div[class*=\"yt-lockup-dismissable\"]").first();
                 collector.commit(new YoutubeStreamInfoItemExtractor(li) {
                     @Override
                     public String getUrl() throws ParsingException {
                         try {
-                            Element dl = el.select("h3").first().select("a").first();
+                            Element dl = select(select(el, "h3").first(), "a").first();
                             return dl.attr("abs:href");
                         } catch (Exception e) {
                             throw new ParsingException("Could not get web page url for the video", e);
@@ -105,7 +106,7 @@ public class YoutubeTrendingExtractor extends KioskExtractor<StreamInfoItem> {
                     @Override
                     public String getName() throws ParsingException {
                         try {
-                            Element dl = el.select("h3").first().select("a").first();
+                            Element dl = select(select(el, "h3").first(), "a").first();
                             return dl.text();
                         } catch (Exception e) {
                             throw new ParsingException("Could not get web page url for the video", e);
@@ -128,8 +129,8 @@ public class YoutubeTrendingExtractor extends KioskExtractor<StreamInfoItem> {
                     private Element getUploaderLink() {
                         // this url is not always in the form "/channel/..."
                         // sometimes Youtube provides urls in the from "/user/..."
-                        Element uploaderEl = el.select("div[class*=\"yt-lockup-byline \"]").first();
-                        return uploaderEl.select("a").first();
+                        Element uploaderEl = select(el, "div[class*=\"yt-lockup-byline \"]").first();
+                        return select(uploaderEl, "a").first();
                     }
 
                     @Override
@@ -145,8 +146,7 @@ public class YoutubeTrendingExtractor extends KioskExtractor<StreamInfoItem> {
                     public String getThumbnailUrl() throws ParsingException {
                         try {
                             String url;
-                            Element te = li.select("span[class=\"yt-thumb-simple\"]").first()
-                                    .select("img").first();
+                            Element te = select(select(li, "span[class=\"yt-thumb-simple\"]").first(), "img").first();
                             url = te.attr("abs:src");
                             // Sometimes youtube sends links to gif files which somehow seem to not exist
                             // anymore. Items with such gif also offer a secondary image source. So we are going
@@ -0,0 +1,118 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.schabi.newpipe.extractor.MediaFormat;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of streams that answers {@link Stream#containSimilarStream(Stream, List)} without scanning a list.
+ * <p>
+ * The stats {@link Stream#equalStats(Stream)} compares (bitrate, resolution, language, ...) are numbered
+ * the first time they are seen, and every format has a bitset of the stats of its streams.
+ * Streams of other classes, which may compare anything, are still compared one by one.
+ * <p>
+ * The stats of a stream must not change after it was added. Not thread safe.
+ */
+public final class SimilarStreams {
+
+    // the kinds of streams, every stat has a bit for each of them
+    private static final int AUDIO = 0;
+    private static final int VIDEO = 1;
+    private static final int VIDEO_ONLY = 2;
+    private static final int SUBTITLES = 3;
+    private static final int AUTO_GENERATED_SUBTITLES = 4;
+    private static final int KINDS = 5;
+
+    private final BitSet[] statsByFormat = new BitSet[MediaFormat.values().length];
+    private final Map<Object, Integer> statIndexes = new HashMap<>();
+    private final List<Stream> otherStreams = new ArrayList<>();
+
+    public SimilarStreams() {
+    }
+
+    public SimilarStreams(@Nullable List<? extends Stream> streams) {
+        addAll(streams);
+    }
+
+    /**
+     * @return false if a similar stream was already added, or if the stream is null
+     */
+    public boolean add(@Nullable Stream stream) {
+        if (stream == null || contains(stream)) return false;
+
+        final int bit = getBit(stream, true);
+        if (bit == -1) {
+            otherStreams.add(stream);
+            return true;
+        }
+
+        final int format = stream.getFormat().ordinal();
+        BitSet stats = statsByFormat[format];
+        if (stats == null) {
+            stats = new BitSet();
+            statsByFormat[format] = stats;
+        }
+        stats.set(bit);
+        return true;
+    }
+
+    public void addAll(@Nullable List<? extends Stream> streams) {
+        if (streams == null) return;
+        for (Stream stream : streams) {
+            add(stream);
+        }
+    }
+
+    /**
+     * @return whether a stream with equal stats was added, like {@link Stream#containSimilarStream(Stream, List)}
+     */
+    public boolean contains(@Nullable Stream stream) {
+        if (stream == null) return false;
+
+        if (!otherStreams.isEmpty() && Stream.containSimilarStream(stream, otherStreams)) return true;
+
+        final int bit = getBit(stream, false);
+        if (bit < 0) return false;
+
+        final BitSet stats = statsByFormat[stream.getFormat().ordinal()];
+        return stats != null && stats.get(bit);
+    }
+
+    /**
+     * @return the bit of the stream in the bitset of its format, -1 if it is not a known kind of stream
+     * or -2 if its stats were never seen (and should not be numbered now)
+     */
+    private int getBit(Stream stream, boolean numberStats) {
+        final Class<?> type = stream.getClass();
+        final int kind;
+        final Object stat;
+        if (type == AudioStream.class) {
+            kind = AUDIO;
+            stat = ((AudioStream) stream).getAverageBitrate();
+        } else if (type == VideoStream.class) {
+            final VideoStream videoStream = (VideoStream) stream;
+            kind = videoStream.isVideoOnly() ? VIDEO_ONLY : VIDEO;
+            stat = videoStream.getResolution();
+        } else if (type == SubtitlesStream.class) {
+            final SubtitlesStream subtitlesStream = (SubtitlesStream) stream;
+            kind = subtitlesStream.isAutoGenerated() ? AUTO_GENERATED_SUBTITLES : SUBTITLES;
+            stat = subtitlesStream.getLanguageTag();
+        } else {
+            // a subclass may compare more than its parent
+            return -1;
+        }
+
+        Integer index = statIndexes.get(stat);
+        if (index == null) {
+            if (!numberStats) return -2;
+            index = statIndexes.size();
+            statIndexes.put(stat, index);
+        }
+        return index * KINDS + kind;
+    }
+}
@@ -36,7 +36,8 @@ public abstract class Stream implements Serializable {
     }
 
     /**
-     * Check if the list already contains one stream with equals stats
+     * Check if the list already contains one stream with equals stats.
+     * Use {@link SimilarStreams} to check many streams against the same list.
      */
     public static boolean containSimilarStream(Stream stream, List<? extends Stream> streamList) {
         if (stream == null || streamList == null) return false;
@@ -40,10 +40,27 @@ public abstract class StreamExtractor extends Extractor {
 
     public static final int NO_AGE_LIMIT = 0;
 
+    private boolean audioOnly = false;
+
     public StreamExtractor(StreamingService service, LinkHandler linkHandler, Localization localization) {
         super(service, linkHandler, localization);
     }
 
+    /**
+     * Only extract what is needed to play the audio of the stream: the name, the length,
+     * the stream type and the audio streams. Services can use this to skip loading and parsing
+     * everything else, so the other getters may fail in this mode.
+     * @param audioOnly whether only the audio should be extracted, has to be set before the page is fetched
+     */
+    public void setAudioOnly(boolean audioOnly) {
+        if (isPageFetched()) throw new IllegalStateException("Page is already fetched");
+        this.audioOnly = audioOnly;
+    }
+
+    public boolean isAudioOnly() {
+        return audioOnly;
+    }
+
     /**
      * The day on which the stream got uploaded/created. The return information should be in the format
      * dd.mm.yyyy, however it NewPipe will not crash if its not.
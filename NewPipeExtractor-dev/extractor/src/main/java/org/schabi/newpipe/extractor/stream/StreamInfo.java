@@ -3,6 +3,11 @@ package org.schabi.newpipe.extractor.stream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.Nullable;
 
 import org.schabi.newpipe.extractor.Info;
 import org.schabi.newpipe.extractor.InfoItem;
@@ -12,6 +17,7 @@ import org.schabi.newpipe.extractor.exceptions.ContentNotAvailableException;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.utils.DashMpdParser;
 import org.schabi.newpipe.extractor.utils.ExtractorHelper;
+import org.schabi.newpipe.extractor.utils.Tasks;
 
 /*
  * Created by Christian Schabesberger on 26.08.15.
@@ -56,16 +62,32 @@ public class StreamInfo extends Info {
     }
 
     public static StreamInfo getInfo(StreamingService service, String url) throws IOException, ExtractionException {
-        return getInfo(service.getStreamExtractor(url));
+        return getInfo(service.getStreamExtractor(url), null);
+    }
+
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, but the parts of the extraction which do not
+     * depend on each other run in parallel on the executor: the stream lists, the download of the dash manifest
+     * and the optional data which needs requests of its own (related streams, subtitles and the next stream).
+     * The important and the remaining optional data are extracted by the calling thread meanwhile.
+     * <p>
+     * Parts the executor did not start yet when they are needed are run by the calling thread,
+     * so it is fine to call this from a task of the same executor.
+     */
+    public static StreamInfo getInfo(StreamingService service, String url, Executor executor)
+            throws IOException, ExtractionException {
+        return getInfo(service.getStreamExtractor(url), executor);
     }
 
-    private static StreamInfo getInfo(StreamExtractor extractor) throws ExtractionException, IOException {
+    private static StreamInfo getInfo(StreamExtractor extractor, @Nullable Executor executor)
+            throws ExtractionException, IOException {
         extractor.fetchPage();
+        final OptionalTasks optionalTasks = new OptionalTasks(extractor, executor);
         StreamInfo streamInfo;
         try {
             streamInfo = extractImportantData(extractor);
-            streamInfo = extractStreams(streamInfo, extractor);
-            streamInfo = extractOptionalData(streamInfo, extractor);
+            streamInfo = extractStreams(streamInfo, extractor, executor);
+            streamInfo = extractOptionalData(streamInfo, extractor, optionalTasks);
         } catch (ExtractionException e) {
             // Currently YouTube does not distinguish between age restricted videos and
             // videos blocked
@@ -82,6 +104,9 @@ public class StreamInfo extends Info {
             } else {
                 throw e;
             }
+        } finally {
+            // nothing is left to do if the info is complete
+            optionalTasks.cancel();
         }
 
         return streamInfo;
@@ -108,8 +133,8 @@ public class StreamInfo extends Info {
         return new StreamInfo(serviceId, url, originalUrl, streamType, id, name, ageLimit);
     }
 
-    private static StreamInfo extractStreams(StreamInfo streamInfo, StreamExtractor extractor)
-            throws ExtractionException {
+    private static StreamInfo extractStreams(StreamInfo streamInfo, final StreamExtractor extractor,
+                                             @Nullable Executor executor) throws ExtractionException {
         /* ---- stream extraction goes here ---- */
         // At least one type of stream has to be available,
         // otherwise an exception will be thrown directly into the frontend.
@@ -126,21 +151,51 @@ public class StreamInfo extends Info {
             streamInfo.addError(new ExtractionException("Couldn't get HLS manifest", e));
         }
 
+        // the manifest is parsed without the other streams, similar streams are skipped when it is added
+        FutureTask<DashMpdParser.ParserResult> dashStreams = null;
+        final String dashMpdUrl = streamInfo.getDashMpdUrl();
+        if (dashMpdUrl != null && !dashMpdUrl.isEmpty()) {
+            dashStreams = Tasks.fork(executor, new Callable<DashMpdParser.ParserResult>() {
+                @Override
+                public DashMpdParser.ParserResult call() throws Exception {
+                    return DashMpdParser.getAllStreams(dashMpdUrl);
+                }
+            });
+        }
+        final FutureTask<List<AudioStream>> audioStreams = Tasks.fork(executor, new Callable<List<AudioStream>>() {
+            @Override
+            public List<AudioStream> call() throws Exception {
+                return extractor.getAudioStreams();
+            }
+        });
+        final FutureTask<List<VideoStream>> videoStreams = Tasks.fork(executor, new Callable<List<VideoStream>>() {
+            @Override
+            public List<VideoStream> call() throws Exception {
+                return extractor.getVideoStreams();
+            }
+        });
+        final FutureTask<List<VideoStream>> videoOnlyStreams = Tasks.fork(executor, new Callable<List<VideoStream>>() {
+            @Override
+            public List<VideoStream> call() throws Exception {
+                return extractor.getVideoOnlyStreams();
+            }
+        });
+
         /* Load and extract audio */
         try {
-            streamInfo.setAudioStreams(extractor.getAudioStreams());
+            streamInfo.setAudioStreams(Tasks.join(audioStreams));
         } catch (Exception e) {
             streamInfo.addError(new ExtractionException("Couldn't get audio streams", e));
         }
         /* Extract video stream url */
         try {
-            streamInfo.setVideoStreams(extractor.getVideoStreams());
+            streamInfo.setVideoStreams(Tasks.join(videoStreams));
         } catch (Exception e) {
             streamInfo.addError(new ExtractionException("Couldn't get video streams", e));
         }
         /* Extract video only stream url */
         try {
-            streamInfo.setVideoOnlyStreams(extractor.getVideoOnlyStreams());
+            streamInfo.setVideoOnlyStreams(Tasks.join(videoOnlyStreams));
         } catch (Exception e) {
             streamInfo.addError(new ExtractionException("Couldn't get video only streams", e));
         }
@@ -154,12 +209,12 @@ public class StreamInfo extends Info {
             streamInfo.setAudioStreams(new ArrayList<AudioStream>());
 
         Exception dashMpdError = null;
-        if (streamInfo.getDashMpdUrl() != null && !streamInfo.getDashMpdUrl().isEmpty()) {
+        if (dashStreams != null) {
             try {
-                DashMpdParser.ParserResult result = DashMpdParser.getStreams(streamInfo);
-                streamInfo.getVideoOnlyStreams().addAll(result.getVideoOnlyStreams());
-                streamInfo.getAudioStreams().addAll(result.getAudioStreams());
-                streamInfo.getVideoStreams().addAll(result.getVideoStreams());
+                DashMpdParser.ParserResult result = Tasks.join(dashStreams);
+                addNewStreams(streamInfo.getVideoOnlyStreams(), result.getVideoOnlyStreams());
+                addNewStreams(streamInfo.getAudioStreams(), result.getAudioStreams());
+                addNewStreams(streamInfo.getVideoStreams(), result.getVideoStreams());
                 streamInfo.segmentedVideoOnlyStreams = result.getSegmentedVideoOnlyStreams();
                 streamInfo.segmentedAudioStreams = result.getSegmentedAudioStreams();
                 streamInfo.segmentedVideoStreams = result.getSegmentedVideoStreams();
@@ -190,7 +245,56 @@ public class StreamInfo extends Info {
         return streamInfo;
     }
 
-    private static StreamInfo extractOptionalData(StreamInfo streamInfo, StreamExtractor extractor) {
+    /**
+     * Add the streams of the manifest which are not similar to one of the streams that were already there.
+     */
+    private static <S extends Stream> void addNewStreams(List<S> streams, List<S> manifestStreams) {
+        final SimilarStreams known = new SimilarStreams(streams);
+        for (S stream : manifestStreams) {
+            if (!known.contains(stream)) {
+                streams.add(stream);
+            }
+        }
+    }
+
+    /**
+     * The optional data which needs requests of its own.
+     */
+    private static class OptionalTasks {
+        final FutureTask<StreamInfoItem> nextStream;
+        final FutureTask<List<SubtitlesStream>> subtitles;
+        final FutureTask<StreamInfoItemsCollector> relatedStreams;
+
+        OptionalTasks(final StreamExtractor extractor, @Nullable Executor executor) {
+            nextStream = Tasks.fork(executor, new Callable<StreamInfoItem>() {
+                @Override
+                public StreamInfoItem call() throws Exception {
+                    return extractor.getNextStream();
+                }
+            });
+            subtitles = Tasks.fork(executor, new Callable<List<SubtitlesStream>>() {
+                @Override
+                public List<SubtitlesStream> call() throws Exception {
+                    return extractor.getSubtitlesDefault();
+                }
+            });
+            relatedStreams = Tasks.fork(executor, new Callable<StreamInfoItemsCollector>() {
+                @Override
+                public StreamInfoItemsCollector call() throws Exception {
+                    return extractor.getRelatedStreams();
+                }
+            });
+        }
+
+        void cancel() {
+            nextStream.cancel(false);
+            subtitles.cancel(false);
+            relatedStreams.cancel(false);
+        }
+    }
+
+    private static StreamInfo extractOptionalData(StreamInfo streamInfo, StreamExtractor extractor,
+                                                  OptionalTasks optionalTasks) {
         /* ---- optional data goes here: ---- */
         // If one of these fails, the frontend needs to handle that they are not
         // available.
@@ -254,17 +358,18 @@ public class StreamInfo extends Info {
             streamInfo.addError(e);
         }
         try {
-            streamInfo.setNextVideo(extractor.getNextStream());
+            streamInfo.setNextVideo(Tasks.join(optionalTasks.nextStream));
         } catch (Exception e) {
             streamInfo.addError(e);
         }
         try {
-            streamInfo.setSubtitles(extractor.getSubtitlesDefault());
+            streamInfo.setSubtitles(Tasks.join(optionalTasks.subtitles));
         } catch (Exception e) {
             streamInfo.addError(e);
         }
 
-        streamInfo.setRelatedStreams(ExtractorHelper.getRelatedVideosOrLogError(streamInfo, extractor));
+        streamInfo.setRelatedStreams(ExtractorHelper.getRelatedVideosOrLogError(streamInfo,
+                optionalTasks.relatedStreams));
 
         return streamInfo;
     }
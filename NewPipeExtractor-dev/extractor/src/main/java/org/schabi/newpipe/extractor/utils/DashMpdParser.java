@@ -3,23 +3,26 @@ package org.schabi.newpipe.extractor.utils;
 import org.schabi.newpipe.extractor.Downloader;
 import org.schabi.newpipe.extractor.MediaFormat;
 import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.StreamingResponse;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.SimilarStreams;
 import org.schabi.newpipe.extractor.stream.Stream;
 import org.schabi.newpipe.extractor.stream.StreamInfo;
 import org.schabi.newpipe.extractor.stream.VideoStream;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.annotation.Nullable;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -117,100 +120,204 @@ public class DashMpdParser {
      */
     public static ParserResult getStreams(final StreamInfo streamInfo)
             throws DashMpdParsingException, ReCaptchaException {
-        String dashDoc;
+        return downloadAndParse(streamInfo, streamInfo.getDashMpdUrl());
+    }
+
+    /**
+     * Download and parse the dash manifest at the url, keeping all streams.
+     * This does not need the other streams of the video, so it can run while they are extracted.
+     */
+    public static ParserResult getAllStreams(final String dashMpdUrl)
+            throws DashMpdParsingException, ReCaptchaException {
+        return downloadAndParse(null, dashMpdUrl);
+    }
+
+    /**
+     * The manifest is parsed while it is downloaded if the downloader can stream,
+     * the parser decodes the bytes itself unless the server declared a charset.
+     */
+    private static ParserResult downloadAndParse(@Nullable StreamInfo streamInfo, String dashMpdUrl)
+            throws DashMpdParsingException, ReCaptchaException {
         Downloader downloader = NewPipe.getDownloader();
-        try {
-            dashDoc = downloader.download(streamInfo.getDashMpdUrl());
+        try (StreamingResponse response = StreamingResponse.open(downloader, dashMpdUrl)) {
+            final InputSource source = new InputSource(response.getInputStream());
+            if (response.getCharset() != null) source.setEncoding(response.getCharset());
+            return parse(streamInfo, source);
         } catch (IOException ioe) {
-            throw new DashMpdParsingException("Could not get dash mpd: " + streamInfo.getDashMpdUrl(), ioe);
+            throw new DashMpdParsingException("Could not get dash mpd: " + dashMpdUrl, ioe);
         }
+    }
 
+    /**
+     * Same as {@link #getStreams(StreamInfo)}, but the manifest is read from the given reader.
+     * <p>
+     * The manifest is parsed as it is read, without building a document of it,
+     * so this can be handed the body of the response directly.
+     *
+     * @param streamInfo the streams that are already known, the parsed streams are not added to it.
+     *                   If it is null, all streams are kept.
+     * @param manifest   the dash manifest, it is not closed
+     */
+    public static ParserResult getStreams(@Nullable final StreamInfo streamInfo, final Reader manifest)
+            throws DashMpdParsingException {
+        return parse(streamInfo, new InputSource(manifest));
+    }
+
+    private static ParserResult parse(@Nullable StreamInfo streamInfo, InputSource manifest)
+            throws DashMpdParsingException {
         try {
-            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            final DocumentBuilder builder = factory.newDocumentBuilder();
-            final InputStream stream = new ByteArrayInputStream(dashDoc.getBytes());
+            final ManifestHandler handler = new ManifestHandler(streamInfo);
+            newParser().parse(manifest, handler);
+            return new ParserResult(
+                    handler.videoStreams,
+                    handler.audioStreams,
+                    handler.videoOnlyStreams,
+                    handler.segmentedVideoStreams,
+                    handler.segmentedAudioStreams,
+                    handler.segmentedVideoOnlyStreams);
+        } catch (Exception e) {
+            throw new DashMpdParsingException("Could not parse Dash mpd", e);
+        }
+    }
 
-            final Document doc = builder.parse(stream);
-            final NodeList representationList = doc.getElementsByTagName("Representation");
+    private static SAXParser newParser() throws ParserConfigurationException, SAXException {
+        final SAXParserFactory factory = SAXParserFactory.newInstance();
+        try {
+            // a manifest has no business loading other files
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (Exception ignored) {
+            // not every parser knows these features
+        }
+        return factory.newSAXParser();
+    }
 
-            final List<VideoStream> videoStreams = new ArrayList<>();
-            final List<AudioStream> audioStreams = new ArrayList<>();
-            final List<VideoStream> videoOnlyStreams = new ArrayList<>();
+    /**
+     * Builds the streams of every {@code Representation} when its end tag is read.
+     * Only the attributes and the url of the current representation are kept while parsing.
+     */
+    private static final class ManifestHandler extends DefaultHandler {
+        final List<VideoStream> videoStreams = new ArrayList<>();
+        final List<AudioStream> audioStreams = new ArrayList<>();
+        final List<VideoStream> videoOnlyStreams = new ArrayList<>();
 
-            final List<VideoStream> segmentedVideoStreams = new ArrayList<>();
-            final List<AudioStream> segmentedAudioStreams = new ArrayList<>();
-            final List<VideoStream> segmentedVideoOnlyStreams = new ArrayList<>();
+        final List<VideoStream> segmentedVideoStreams = new ArrayList<>();
+        final List<AudioStream> segmentedAudioStreams = new ArrayList<>();
+        final List<VideoStream> segmentedVideoOnlyStreams = new ArrayList<>();
 
-            for (int i = 0; i < representationList.getLength(); i++) {
-                final Element representation = (Element) representationList.item(i);
+        // the streams of the stream info, indexed once instead of scanning its lists for every representation
+        private final SimilarStreams knownAudioStreams;
+        private final SimilarStreams knownVideoStreams;
+        private final SimilarStreams knownVideoOnlyStreams;
+
+        private String adaptationSetMimeType;
+
+        private boolean inRepresentation;
+        private String id;
+        private StringBuilder url;
+        private boolean inUrl;
+        private boolean isSegmented;
+
+        ManifestHandler(@Nullable StreamInfo streamInfo) {
+            if (streamInfo == null) {
+                knownAudioStreams = new SimilarStreams();
+                knownVideoStreams = new SimilarStreams();
+                knownVideoOnlyStreams = new SimilarStreams();
+            } else {
+                knownAudioStreams = new SimilarStreams(streamInfo.getAudioStreams());
+                knownVideoStreams = new SimilarStreams(streamInfo.getVideoStreams());
+                knownVideoOnlyStreams = new SimilarStreams(streamInfo.getVideoOnlyStreams());
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (qName.equals("AdaptationSet")) {
+                adaptationSetMimeType = attributes.getValue("mimeType");
+            } else if (qName.equals("Representation")) {
+                inRepresentation = true;
+                id = attributes.getValue("id");
+                url = null;
+                isSegmented = false;
+            } else if (inRepresentation) {
+                if (qName.equals("BaseURL") && url == null) {
+                    url = new StringBuilder();
+                    inUrl = true;
+                } else if (qName.equals("SegmentList")) {
+                    isSegmented = true;
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inUrl) url.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (qName.equals("AdaptationSet")) {
+                adaptationSetMimeType = null;
+            } else if (qName.equals("BaseURL")) {
+                inUrl = false;
+            } else if (qName.equals("Representation")) {
+                inRepresentation = false;
                 try {
-                    final String mimeType = ((Element) representation.getParentNode()).getAttribute("mimeType");
-                    final String id = representation.getAttribute("id");
-                    final String url = representation.getElementsByTagName("BaseURL").item(0).getTextContent();
-                    final ItagItem itag = ItagItem.getItag(Integer.parseInt(id));
-                    final Node segmentationList = representation.getElementsByTagName("SegmentList").item(0);
-
-                    // if SegmentList is not null this means that BaseUrl is not representing the url to the stream.
-                    // instead we need to add the "media=" value from the <SegementURL/> tags inside the <SegmentList/>
-                    // tag in order to get a full working url. However each of these is just pointing to a part of the
-                    // video, so we can not return a URL with a working stream here.
-                    // Instead of putting those streams into the list of regular stream urls wie put them in a
-                    // for example "segmentedVideoStreams" list.
-                    if (itag != null) {
-                        final MediaFormat mediaFormat = MediaFormat.getFromMimeType(mimeType);
-
-                        if (itag.itagType.equals(ItagItem.ItagType.AUDIO)) {
-                            if(segmentationList == null) {
-                                final AudioStream audioStream = new AudioStream(url, mediaFormat, itag.avgBitrate);
-                                if (!Stream.containSimilarStream(audioStream, streamInfo.getAudioStreams())) {
-                                    audioStreams.add(audioStream);
-                                }
-                            } else {
-                                segmentedAudioStreams.add(
-                                        new AudioStream(id, mediaFormat, itag.avgBitrate));
-                            }
-                        } else {
-                            boolean isVideoOnly = itag.itagType.equals(ItagItem.ItagType.VIDEO_ONLY);
-
-                            if(segmentationList == null) {
-                                final VideoStream videoStream = new VideoStream(url,
-                                        mediaFormat,
-                                        itag.resolutionString,
-                                        isVideoOnly);
-
-                                if (isVideoOnly) {
-                                    if (!Stream.containSimilarStream(videoStream, streamInfo.getVideoOnlyStreams())) {
-                                        videoOnlyStreams.add(videoStream);
-                                    }
-                                } else if (!Stream.containSimilarStream(videoStream, streamInfo.getVideoStreams())) {
-                                    videoStreams.add(videoStream);
-                                }
-                            } else {
-                                final VideoStream videoStream = new VideoStream(id,
-                                        mediaFormat,
-                                        itag.resolutionString,
-                                        isVideoOnly);
-
-                                if(isVideoOnly) {
-                                    segmentedVideoOnlyStreams.add(videoStream);
-                                } else {
-                                    segmentedVideoStreams.add(videoStream);
-                                }
-                            }
+                    addRepresentation();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+
+        private void addRepresentation() {
+            final ItagItem itag = ItagItem.findItag(Integer.parseInt(id));
+            if (url == null || itag == null) return;
+            final MediaFormat mediaFormat = MediaFormat.getFromMimeType(adaptationSetMimeType);
+
+            // if SegmentList is not null this means that BaseUrl is not representing the url to the stream.
+            // instead we need to add the "media=" value from the <SegementURL/> tags inside the <SegmentList/>
+            // tag in order to get a full working url. However each of these is just pointing to a part of the
+            // video, so we can not return a URL with a working stream here.
+            // Instead of putting those streams into the list of regular stream urls wie put them in a
+            // for example "segmentedVideoStreams" list.
+            if (itag.itagType.equals(ItagItem.ItagType.AUDIO)) {
+                if (!isSegmented) {
+                    final AudioStream audioStream = new AudioStream(url.toString(), mediaFormat, itag.avgBitrate);
+                    if (!knownAudioStreams.contains(audioStream)) {
+                        audioStreams.add(audioStream);
+                    }
+                } else {
+                    segmentedAudioStreams.add(new AudioStream(id, mediaFormat, itag.avgBitrate));
+                }
+            } else {
+                boolean isVideoOnly = itag.itagType.equals(ItagItem.ItagType.VIDEO_ONLY);
+
+                if (!isSegmented) {
+                    final VideoStream videoStream = new VideoStream(url.toString(),
+                            mediaFormat,
+                            itag.resolutionString,
+                            isVideoOnly);
+
+                    if (isVideoOnly) {
+                        if (!knownVideoOnlyStreams.contains(videoStream)) {
+                            videoOnlyStreams.add(videoStream);
                         }
+                    } else if (!knownVideoStreams.contains(videoStream)) {
+                        videoStreams.add(videoStream);
+                    }
+                } else {
+                    final VideoStream videoStream = new VideoStream(id,
+                            mediaFormat,
+                            itag.resolutionString,
+                            isVideoOnly);
+
+                    if (isVideoOnly) {
+                        segmentedVideoOnlyStreams.add(videoStream);
+                    } else {
+                        segmentedVideoStreams.add(videoStream);
                     }
-                } catch (Exception ignored) {
                 }
             }
-            return new ParserResult(
-                    videoStreams,
-                    audioStreams,
-                    videoOnlyStreams,
-                    segmentedVideoStreams,
-                    segmentedAudioStreams,
-                    segmentedVideoOnlyStreams);
-        } catch (Exception e) {
-            throw new DashMpdParsingException("Could not parse Dash mpd", e);
         }
     }
 }
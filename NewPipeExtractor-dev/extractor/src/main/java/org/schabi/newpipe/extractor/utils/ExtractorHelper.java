@@ -11,6 +11,7 @@ import org.schabi.newpipe.extractor.stream.StreamInfo;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.FutureTask;
 
 public class ExtractorHelper {
     private ExtractorHelper() {}
@@ -30,16 +31,33 @@ public class ExtractorHelper {
 
     public static List<InfoItem> getRelatedVideosOrLogError(StreamInfo info, StreamExtractor extractor) {
         try {
-            InfoItemsCollector<? extends InfoItem, ?> collector = extractor.getRelatedStreams();
-            if(collector == null) return Collections.emptyList();
-            info.addAllErrors(collector.getErrors());
+            return getItemsOrLogError(info, extractor.getRelatedStreams());
+        } catch (Exception e) {
+            info.addError(e);
+            return Collections.emptyList();
+        }
+    }
 
-            //noinspection unchecked
-            return (List<InfoItem>) collector.getItems();
+    /**
+     * Same as {@link #getRelatedVideosOrLogError(StreamInfo, StreamExtractor)} for related streams
+     * that were {@link Tasks#fork forked}.
+     */
+    public static List<InfoItem> getRelatedVideosOrLogError(
+            StreamInfo info, FutureTask<? extends InfoItemsCollector<? extends InfoItem, ?>> relatedStreams) {
+        try {
+            return getItemsOrLogError(info, Tasks.join(relatedStreams));
         } catch (Exception e) {
             info.addError(e);
             return Collections.emptyList();
         }
     }
+
+    private static List<InfoItem> getItemsOrLogError(Info info, InfoItemsCollector<? extends InfoItem, ?> collector) {
+        if(collector == null) return Collections.emptyList();
+        info.addAllErrors(collector.getErrors());
+
+        //noinspection unchecked
+        return (List<InfoItem>) collector.getItems();
+    }
     
 }
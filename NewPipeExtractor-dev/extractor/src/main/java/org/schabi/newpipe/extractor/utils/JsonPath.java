@@ -0,0 +1,132 @@
+package org.schabi.newpipe.extractor.utils;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path to a value inside of a json object, like {@code response.items[0].title}, which is parsed once.
+ * <p>
+ * Keys are separated by dots, array indexes follow a key in square brackets.
+ * Paths are meant to be kept in constants and used for every object of a response.
+ * Unlike the methods of {@link JsonUtils} the getters return null if there is no value of the wanted type.
+ */
+public final class JsonPath {
+
+    private final String path;
+    // the key of every step, or null if the step is an array index
+    private final String[] keys;
+    private final int[] indexes;
+
+    private JsonPath(String path, String[] keys, int[] indexes) {
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path is not valid
+     */
+    @Nonnull
+    public static JsonPath compile(@Nonnull String path) {
+        final List<String> keys = new ArrayList<>();
+        final List<Integer> indexes = new ArrayList<>();
+
+        int start = 0;
+        final int length = path.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+            if (end == start) throw new IllegalArgumentException("Empty key in json path: " + path);
+            keys.add(path.substring(start, end));
+            indexes.add(-1);
+
+            while (end < length && path.charAt(end) == '[') {
+                final int close = path.indexOf(']', end);
+                if (close == -1) throw new IllegalArgumentException("Unclosed index in json path: " + path);
+                final int index;
+                try {
+                    index = Integer.parseInt(path.substring(end + 1, close));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid index in json path: " + path, e);
+                }
+                if (index < 0) throw new IllegalArgumentException("Negative index in json path: " + path);
+                keys.add(null);
+                indexes.add(index);
+                end = close + 1;
+            }
+
+            if (end < length) {
+                if (path.charAt(end) != '.' || end == length - 1) {
+                    throw new IllegalArgumentException("Invalid json path: " + path);
+                }
+                end++;
+            }
+            start = end;
+        }
+        if (keys.isEmpty()) throw new IllegalArgumentException("Empty json path");
+
+        final int[] indexArray = new int[indexes.size()];
+        for (int i = 0; i < indexArray.length; i++) indexArray[i] = indexes.get(i);
+        return new JsonPath(path, keys.toArray(new String[0]), indexArray);
+    }
+
+    /**
+     * @return the value at the end of the path or null if any part of the path does not exist
+     */
+    @Nullable
+    public Object get(@Nullable JsonObject object) {
+        Object current = object;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (!(current instanceof JsonObject)) return null;
+                current = ((JsonObject) current).get(keys[i]);
+            } else {
+                if (!(current instanceof JsonArray)) return null;
+                final JsonArray array = (JsonArray) current;
+                if (indexes[i] >= array.size()) return null;
+                current = array.get(indexes[i]);
+            }
+        }
+        return current;
+    }
+
+    @Nullable
+    public String getString(@Nullable JsonObject object) {
+        final Object value = get(object);
+        return value instanceof String ? (String) value : null;
+    }
+
+    @Nullable
+    public Number getNumber(@Nullable JsonObject object) {
+        final Object value = get(object);
+        return value instanceof Number ? (Number) value : null;
+    }
+
+    @Nullable
+    public Boolean getBoolean(@Nullable JsonObject object) {
+        final Object value = get(object);
+        return value instanceof Boolean ? (Boolean) value : null;
+    }
+
+    @Nullable
+    public JsonObject getObject(@Nullable JsonObject object) {
+        final Object value = get(object);
+        return value instanceof JsonObject ? (JsonObject) value : null;
+    }
+
+    @Nullable
+    public JsonArray getArray(@Nullable JsonObject object) {
+        final Object value = get(object);
+        return value instanceof JsonArray ? (JsonArray) value : null;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,104 @@
+package org.schabi.newpipe.extractor.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds JSON objects and arrays embedded in html or javascript without using regular expressions.
+ * <p>
+ * The anchor in front of the value is searched with {@link String#indexOf(String)}, the value itself
+ * is sliced out by walking its brackets and strings once. Unlike a lazy regex like {@code \{.*?\};}
+ * this never backtracks and is not fooled by brackets or semicolons inside of strings.
+ */
+public final class JsonScanner {
+
+    private JsonScanner() {
+    }
+
+    /**
+     * Extract the object or array following the anchor, e.g. {@code ytplayer.config = {...}}.
+     * Between the anchor and the value only whitespace and a single {@code =} or {@code :} are allowed.
+     * If the first occurrence of the anchor is not followed by a value, the next one is tried.
+     *
+     * @param text   the text to search in
+     * @param anchor the literal text in front of the value
+     * @return the object or array including its brackets, or null if there is none
+     */
+    @Nullable
+    public static String extractValueAfter(@Nonnull String text, @Nonnull String anchor) {
+        int anchorIndex = text.indexOf(anchor);
+        while (anchorIndex != -1) {
+            final int start = findValueStart(text, anchorIndex + anchor.length());
+            if (start != -1) {
+                final int end = findValueEnd(text, start);
+                if (end != -1) {
+                    return text.substring(start, end);
+                }
+            }
+            anchorIndex = text.indexOf(anchor, anchorIndex + 1);
+        }
+        return null;
+    }
+
+    /**
+     * @param start the index of the opening bracket of an object or array
+     * @return the index after the matching closing bracket, or -1 if the brackets are not balanced
+     */
+    public static int findValueEnd(@Nonnull String text, int start) {
+        final char first = text.charAt(start);
+        if (first != '{' && first != '[') {
+            throw new IllegalArgumentException("No object or array at " + start);
+        }
+
+        int depth = 0;
+        char quote = 0;
+        final int length = text.length();
+        for (int i = start; i < length; i++) {
+            final char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    // skip the escaped character
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"':
+                case '\'':
+                    quote = c;
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    if (depth == 0) return i + 1;
+                    break;
+            }
+        }
+        return -1;
+    }
+
+    private static int findValueStart(String text, int index) {
+        index = skipWhitespace(text, index);
+        if (index < text.length() && (text.charAt(index) == '=' || text.charAt(index) == ':')) {
+            index = skipWhitespace(text, index + 1);
+        }
+        if (index < text.length() && (text.charAt(index) == '{' || text.charAt(index) == '[')) {
+            return index;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(String text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -1,11 +1,11 @@
 package org.schabi.newpipe.extractor.utils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
@@ -14,16 +14,26 @@ import com.grack.nanojson.JsonObject;
 
 public class JsonUtils {
 
+    private static final int MAX_CACHED_PATHS = 256;
+    private static final ConcurrentMap<String, JsonPath> pathCache = new ConcurrentHashMap<>();
+
     private JsonUtils() {
     }
     
     @Nonnull
     public static Object getValue(@Nonnull JsonObject object, @Nonnull String path) throws ParsingException{
+        final JsonPath compiled;
+        try {
+            compiled = getPath(path);
+        } catch (IllegalArgumentException e) {
+            throw new ParsingException("Unable to get " + path, e);
+        }
+        return getValue(object, compiled);
+    }
 
-        List<String> keys = Arrays.asList(path.split("\\."));
-        object = getObject(object, keys.subList(0, keys.size() - 1));
-        if (null == object) throw new ParsingException("Unable to get " + path);
-        Object result = object.get(keys.get(keys.size() - 1));
+    @Nonnull
+    public static Object getValue(@Nonnull JsonObject object, @Nonnull JsonPath path) throws ParsingException {
+        Object result = path.get(object);
         if(null == result) throw new ParsingException("Unable to get " + path);
         return result;
     }
@@ -70,23 +80,42 @@ public class JsonUtils {
 
     @Nonnull
     public static List<Object> getValues(@Nonnull JsonArray array, @Nonnull String path) throws ParsingException {
-        
-        List<Object> result = new ArrayList<>();
+        final JsonPath compiled;
+        try {
+            compiled = getPath(path);
+        } catch (IllegalArgumentException e) {
+            throw new ParsingException("Unable to get " + path, e);
+        }
+        return getValues(array, compiled);
+    }
+
+    /**
+     * @return the value at the path of every object in the array
+     * @throws ParsingException if one of the objects does not have a value at the path
+     */
+    @Nonnull
+    public static List<Object> getValues(@Nonnull JsonArray array, @Nonnull JsonPath path) throws ParsingException {
+        List<Object> result = new ArrayList<>(array.size());
         for (int i = 0; i < array.size(); i++) {
-            JsonObject obj = array.getObject(i);
-            result.add(getValue(obj, path));
+            Object value = path.get(array.getObject(i));
+            if (null == value) throw new ParsingException("Unable to get " + path + " of item " + i);
+            result.add(value);
         }
         return result;
     }
 
-    @Nullable
-    private static JsonObject getObject(@Nonnull JsonObject object, @Nonnull List<String> keys) {
-        JsonObject result = object;
-        for (String key : keys) {
-            result = result.getObject(key);
-            if (null == result) break;
+    /**
+     * @return the parsed path, paths used before are not parsed again
+     */
+    @Nonnull
+    public static JsonPath getPath(@Nonnull String path) {
+        JsonPath compiled = pathCache.get(path);
+        if (compiled == null) {
+            compiled = JsonPath.compile(path);
+            if (pathCache.size() >= MAX_CACHED_PATHS) pathCache.clear();
+            pathCache.put(path, compiled);
         }
-        return result;
+        return compiled;
     }
 
 }
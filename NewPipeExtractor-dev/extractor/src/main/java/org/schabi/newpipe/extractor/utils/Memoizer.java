@@ -0,0 +1,67 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the values an extractor derived from its page, so every value is computed
+ * at most once and only when it is asked for.
+ * <p>
+ * Failures are remembered too: once a computation threw a {@link ParsingException},
+ * the same exception is thrown again instead of running the computation (and all its fallbacks) again.
+ * Different values can be computed from multiple threads at the same time, the same value is computed only once.
+ */
+public final class Memoizer {
+
+    public interface Computation<T> {
+        T compute() throws ParsingException;
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param key         the name of the value, unique within this memoizer
+     * @param computation computes the value if it was not computed before
+     * @return the value the computation returned the first time
+     * @throws ParsingException the exception the computation threw the first time
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull String key, @Nonnull Computation<T> computation) throws ParsingException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            final Entry created = new Entry();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) entry = created;
+        }
+        return (T) entry.get(computation);
+    }
+
+    /**
+     * Forget all values, e.g. because the page was fetched again.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+        private boolean computed;
+        private Object value;
+        private ParsingException failure;
+
+        synchronized Object get(Computation<?> computation) throws ParsingException {
+            if (!computed) {
+                try {
+                    value = computation.compute();
+                } catch (ParsingException e) {
+                    failure = e;
+                }
+                computed = true;
+            }
+            if (failure != null) throw failure;
+            return value;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.schabi.newpipe.extractor.utils;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -39,9 +42,43 @@ import org.schabi.newpipe.extractor.exceptions.ParsingException;
  */
 public class Parser {
 
+    // patterns used by the extractors are constants, this is only a safety net against unbounded growth
+    private static final int MAX_CACHED_PATTERNS = 512;
+    private static final ConcurrentMap<String, Pattern> patternCache = new ConcurrentHashMap<>();
+    private static final AtomicLong patternHitCount = new AtomicLong();
+    private static final AtomicLong patternCompileCount = new AtomicLong();
+
     private Parser() {
     }
 
+    /**
+     * Get the compiled pattern from a process wide cache, so the string overloads of this class
+     * do not have to compile the same pattern again on every call.
+     */
+    public static Pattern getPattern(String pattern) {
+        Pattern compiled = patternCache.get(pattern);
+        if (compiled != null) {
+            patternHitCount.incrementAndGet();
+            return compiled;
+        }
+
+        compiled = Pattern.compile(pattern);
+        patternCompileCount.incrementAndGet();
+        if (patternCache.size() >= MAX_CACHED_PATTERNS) {
+            patternCache.clear();
+        }
+        final Pattern previous = patternCache.putIfAbsent(pattern, compiled);
+        return previous != null ? previous : compiled;
+    }
+
+    public static long getPatternHitCount() {
+        return patternHitCount.get();
+    }
+
+    public static long getPatternCompileCount() {
+        return patternCompileCount.get();
+    }
+
     public static class RegexException extends ParsingException {
         public RegexException(String message) {
             super(message);
@@ -57,7 +94,7 @@ public class Parser {
     }
 
     public static String matchGroup(String pattern, String input, int group) throws RegexException {
-        Pattern pat = Pattern.compile(pattern);
+        Pattern pat = getPattern(pattern);
         return matchGroup(pat, input, group);
     }
     
@@ -75,23 +112,48 @@ public class Parser {
         }
     }
 
+    /**
+     * Find the first match of the pattern while the input is read, so reading can stop as soon as it was found.
+     * Only the last {@code maxMatchLength} characters are kept between two chunks,
+     * so no match may be longer than that.
+     * <p>
+     * The input is not closed.
+     */
+    public static String matchGroup1(Pattern pat, Reader input, int maxMatchLength)
+            throws RegexException, IOException {
+        final StringBuilder window = new StringBuilder();
+        final char[] buffer = new char[8 * 1024];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            window.append(buffer, 0, read);
+            final Matcher mat = pat.matcher(window);
+            // a match at the end of the window could still grow with the next chunk
+            if (mat.find() && !mat.hitEnd()) {
+                return mat.group(1);
+            }
+            if (window.length() > maxMatchLength) {
+                window.delete(0, window.length() - maxMatchLength);
+            }
+        }
+
+        final Matcher mat = pat.matcher(window);
+        if (mat.find()) {
+            return mat.group(1);
+        }
+        throw new RegexException("failed to find pattern \"" + pat.pattern());
+    }
+
     public static boolean isMatch(String pattern, String input) {
-        Pattern pat = Pattern.compile(pattern);
+        Pattern pat = getPattern(pattern);
         Matcher mat = pat.matcher(input);
         return mat.find();
     }
 
+    /**
+     * Parse and decode a url query string, see {@link QueryString} for looking up only a few of its values.
+     */
     public static Map<String, String> compatParseMap(final String input) throws UnsupportedEncodingException {
-        Map<String, String> map = new HashMap<>();
-        for (String arg : input.split("&")) {
-            String[] splitArg = arg.split("=");
-            if (splitArg.length > 1) {
-                map.put(splitArg[0], URLDecoder.decode(splitArg[1], "UTF-8"));
-            } else {
-                map.put(splitArg[0], "");
-            }
-        }
-        return map;
+        return QueryString.parse(input).toMap();
     }
 
     public static String[] getLinksFromString(final String txt) throws ParsingException {
@@ -0,0 +1,141 @@
+package org.schabi.newpipe.extractor.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A parsed url query string ({@code key=value&key=value}).
+ * <p>
+ * Parsing only records where the keys and values are, in a single pass and without splitting
+ * the input. Values are decoded when they are asked for (and then remembered), so looking up
+ * a few keys of a large query string like a get_video_info response does not decode all of it.
+ * <p>
+ * Lookups can be done from multiple threads, a value may then be decoded more than once.
+ */
+public final class QueryString {
+
+    public static final QueryString EMPTY = new QueryString("", new int[0], 0);
+
+    private final String query;
+    // for every parameter: start of the key, end of the key (the '=' if there is one), end of the value
+    private final int[] bounds;
+    private final int size;
+    private final String[] decodedValues;
+
+    private QueryString(String query, int[] bounds, int size) {
+        this.query = query;
+        this.bounds = bounds;
+        this.size = size;
+        this.decodedValues = new String[size];
+    }
+
+    @Nonnull
+    public static QueryString parse(@Nullable String query) {
+        if (query == null || query.isEmpty()) return EMPTY;
+
+        int[] bounds = new int[24];
+        int size = 0;
+        int start = 0;
+        final int length = query.length();
+        while (start <= length) {
+            int end = query.indexOf('&', start);
+            if (end == -1) end = length;
+
+            if (end > start) {
+                int separator = query.indexOf('=', start);
+                if (separator == -1 || separator > end) separator = end;
+
+                if (size * 3 == bounds.length) {
+                    final int[] grown = new int[bounds.length * 2];
+                    System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                    bounds = grown;
+                }
+                bounds[size * 3] = start;
+                bounds[size * 3 + 1] = separator;
+                bounds[size * 3 + 2] = end;
+                size++;
+            }
+            start = end + 1;
+        }
+        return new QueryString(query, bounds, size);
+    }
+
+    /**
+     * @return the decoded value of the first parameter with the given name, or null if there is none
+     */
+    @Nullable
+    public String get(@Nonnull String key) {
+        final int index = indexOf(key);
+        return index == -1 ? null : getValue(index);
+    }
+
+    public boolean containsKey(@Nonnull String key) {
+        return indexOf(key) != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decode all parameters into a map. If a key is given multiple times, the last value wins.
+     */
+    @Nonnull
+    public Map<String, String> toMap() {
+        final Map<String, String> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(decode(bounds[i * 3], bounds[i * 3 + 1]), getValue(i));
+        }
+        return map;
+    }
+
+    private int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            final int keyStart = bounds[i * 3];
+            final int keyEnd = bounds[i * 3 + 1];
+            if (needsDecoding(keyStart, keyEnd)) {
+                if (key.equals(decode(keyStart, keyEnd))) return i;
+            } else if (keyEnd - keyStart == key.length() && query.startsWith(key, keyStart)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String getValue(int index) {
+        String value = decodedValues[index];
+        if (value == null) {
+            final int separator = bounds[index * 3 + 1];
+            final int end = bounds[index * 3 + 2];
+            value = separator == end ? "" : decode(separator + 1, end);
+            decodedValues[index] = value;
+        }
+        return value;
+    }
+
+    private boolean needsDecoding(int start, int end) {
+        for (int i = start; i < end; i++) {
+            final char c = query.charAt(i);
+            if (c == '%' || c == '+') return true;
+        }
+        return false;
+    }
+
+    private String decode(int start, int end) {
+        final String raw = query.substring(start, end);
+        if (!needsDecoding(start, end)) return raw;
+        try {
+            return URLDecoder.decode(raw, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            // every jvm has to support UTF-8
+            throw new IllegalStateException(e);
+        } catch (IllegalArgumentException e) {
+            // malformed escape sequence, use the string without decoding
+            return raw;
+        }
+    }
+}
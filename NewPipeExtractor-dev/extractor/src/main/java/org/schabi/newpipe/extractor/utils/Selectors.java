@@ -0,0 +1,91 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.Selector;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of parsed css queries.
+ * <p>
+ * {@link Element#select(String)} parses its query into an {@link Evaluator} on every call,
+ * which adds up when the same handful of queries is run for every item of a page.
+ * Here every query is parsed once and the evaluator is shared by all extractors.
+ * Evaluators do not keep state while matching, so they can be used from multiple threads.
+ */
+public final class Selectors {
+
+    private static final ConcurrentMap<String, Evaluator> EVALUATORS = new ConcurrentHashMap<>();
+    // the parser of jsoup is not public, if it can not be reached the queries are parsed on every select
+    @Nullable
+    private static final Method PARSE_METHOD = getParseMethod();
+
+    private Selectors() {
+    }
+
+    /**
+     * Same as {@code root.select(query)}, without parsing the query again.
+     *
+     * @throws NullPointerException if the root is null, like calling select on it would
+     */
+    @Nonnull
+    public static Elements select(Element root, @Nonnull String query) {
+        if (root == null) throw new NullPointerException("Can not select \"" + query + "\" on null");
+
+        final Evaluator evaluator = getEvaluator(query);
+        if (evaluator == null) return root.select(query);
+        return Selector.select(evaluator, root);
+    }
+
+    /**
+     * @return the first element of {@code root.select(query)} or null if nothing matched
+     * @throws NullPointerException if the root is null, like calling select on it would
+     */
+    @Nullable
+    public static Element first(Element root, @Nonnull String query) {
+        return select(root, query).first();
+    }
+
+    /**
+     * @return the parsed query or null if the parser of jsoup is not available
+     */
+    @Nullable
+    public static Evaluator getEvaluator(@Nonnull String query) {
+        Evaluator evaluator = EVALUATORS.get(query);
+        if (evaluator == null && PARSE_METHOD != null) {
+            evaluator = parse(query);
+            EVALUATORS.putIfAbsent(query, evaluator);
+        }
+        return evaluator;
+    }
+
+    private static Evaluator parse(String query) {
+        try {
+            return (Evaluator) PARSE_METHOD.invoke(null, query);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            // an invalid query, throw what select would throw
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Method getParseMethod() {
+        try {
+            final Method method = Class.forName("org.jsoup.select.QueryParser").getMethod("parse", String.class);
+            method.setAccessible(true);
+            return method;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.schabi.newpipe.extractor.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Run parts of an extraction in parallel.
+ * <p>
+ * A task that was forked but not started by the executor yet is run by the thread that joins it.
+ * So a task waiting for its parts can never starve a small (or direct) executor, because in the
+ * worst case all parts run one after the other, like without an executor.
+ */
+public final class Tasks {
+
+    private Tasks() {
+    }
+
+    /**
+     * Start running the callable on the executor.
+     * If there is no executor or it rejects the task, the callable is run when it is joined.
+     */
+    @Nonnull
+    public static <T> FutureTask<T> fork(@Nullable Executor executor, @Nonnull Callable<T> callable) {
+        final FutureTask<T> task = new FutureTask<>(callable);
+        if (executor != null) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Wait for the result of a forked task, running it on this thread if it did not start yet.
+     *
+     * @throws Exception the exception the callable threw
+     */
+    public static <T> T join(@Nonnull FutureTask<T> task) throws Exception {
+        // does nothing if the task already started
+        task.run();
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+}
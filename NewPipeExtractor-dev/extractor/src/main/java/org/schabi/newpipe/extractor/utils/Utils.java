@@ -1,9 +1,7 @@
 package org.schabi.newpipe.extractor.utils;
 
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLDecoder;
 import java.util.List;
 
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
@@ -71,34 +69,7 @@ public class Utils {
      * @return a string that contains the value of the query parameter or null if nothing was found
      */
     public static String getQueryValue(URL url, String parameterName) {
-        String urlQuery = url.getQuery();
-
-        if (urlQuery != null) {
-            for (String param : urlQuery.split("&")) {
-                String[] params = param.split("=", 2);
-
-                String query;
-                try {
-                    query = URLDecoder.decode(params[0], "UTF-8");
-                } catch (UnsupportedEncodingException e) {
-                    System.err.println("Cannot decode string with UTF-8. using the string without decoding");
-                    e.printStackTrace();
-                    query = params[0];
-                }
-
-                if (query.equals(parameterName)) {
-                    try {
-                        return URLDecoder.decode(params[1], "UTF-8");
-                    } catch (UnsupportedEncodingException e) {
-                        System.err.println("Cannot decode string with UTF-8. using the string without decoding");
-                        e.printStackTrace();
-                        return params[1];
-                    }
-                }
-            }
-        }
-
-        return null;
+        return QueryString.parse(url.getQuery()).get(parameterName);
     }
 
     /**
@@ -0,0 +1,41 @@
+package org.schabi.newpipe.extractor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link MediaFormat}
+ */
+public class MediaFormatTest {
+
+    @Test
+    public void testGetById() {
+        for (MediaFormat format : MediaFormat.values()) {
+            assertSame(format, MediaFormat.getFormatById(format.id));
+            assertEquals(format.name, MediaFormat.getNameById(format.id));
+            assertEquals(format.suffix, MediaFormat.getSuffixById(format.id));
+            assertEquals(format.mimeType, MediaFormat.getMimeById(format.id));
+        }
+    }
+
+    @Test
+    public void testUnknownId() {
+        assertNull(MediaFormat.getFormatById(-1));
+        assertNull(MediaFormat.getFormatById(0x1));
+        assertNull(MediaFormat.getFormatById(0x7000));
+        assertEquals("", MediaFormat.getNameById(0x1));
+        assertEquals("", MediaFormat.getSuffixById(0x1));
+        assertEquals("", MediaFormat.getMimeById(0x1));
+    }
+
+    @Test
+    public void testGetFromMimeType() {
+        assertSame(MediaFormat.MPEG_4, MediaFormat.getFromMimeType("video/mp4"));
+        assertSame(MediaFormat.OPUS, MediaFormat.getFromMimeType("audio/opus"));
+        // the first format with the mime type
+        assertSame(MediaFormat.TRANSCRIPT1, MediaFormat.getFromMimeType("text/xml"));
+        assertNull(MediaFormat.getFromMimeType("video/x-unknown"));
+        assertNull(MediaFormat.getFromMimeType(null));
+    }
+}
@@ -0,0 +1,152 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link BlockingAsyncDownloader}
+ */
+public class BlockingAsyncDownloaderTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Answers every get with the url and fails every post.
+     */
+    private static class EchoDownloader implements Downloader {
+        @Override
+        public String download(String siteUrl, Localization localization) {
+            return siteUrl;
+        }
+
+        @Override
+        public String download(String siteUrl, Map<String, String> customProperties) {
+            return siteUrl;
+        }
+
+        @Override
+        public String download(String siteUrl) {
+            return siteUrl;
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl, DownloadRequest request) {
+            return new DownloadResponse(siteUrl, Collections.<String, List<String>>emptyMap());
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl) {
+            return get(siteUrl, DownloadRequest.emptyRequest);
+        }
+
+        @Override
+        public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException {
+            throw new IOException("post failed");
+        }
+    }
+
+    private static class RecordingCallback implements DownloadCallback {
+        final AtomicReference<Object> result = new AtomicReference<>();
+
+        @Override
+        public void onResponse(DownloadResponse response) {
+            result.set(response);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            result.set(e);
+        }
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        final AsyncDownloader downloader = BlockingAsyncDownloader.of(new EchoDownloader(), DIRECT);
+        final RecordingCallback callback = new RecordingCallback();
+
+        final Future<DownloadResponse> future = downloader.getAsync("https://example.com",
+                DownloadRequest.emptyRequest, callback);
+        assertEquals("https://example.com", future.get().getResponseBody());
+        assertSame(future.get(), callback.result.get());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final AsyncDownloader downloader = BlockingAsyncDownloader.of(new EchoDownloader(), DIRECT);
+        final RecordingCallback callback = new RecordingCallback();
+
+        final Future<DownloadResponse> future = downloader.postAsync("https://example.com",
+                DownloadRequest.emptyRequest, callback);
+        try {
+            future.get();
+            fail("the post should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+            assertSame(e.getCause(), callback.result.get());
+        }
+    }
+
+    @Test
+    public void testWithoutCallback() throws Exception {
+        final AsyncDownloader downloader = BlockingAsyncDownloader.of(new EchoDownloader(), DIRECT);
+        assertEquals("https://example.com",
+                downloader.getAsync("https://example.com", DownloadRequest.emptyRequest, null).get().getResponseBody());
+    }
+
+    @Test
+    public void testCancel() {
+        final RecordingCallback callback = new RecordingCallback();
+        final AtomicReference<Boolean> cancelled = new AtomicReference<>(false);
+        final DownloadFuture future = new DownloadFuture(callback) {
+            @Override
+            protected void onCancel() {
+                cancelled.set(true);
+            }
+        };
+
+        assertTrue(future.cancel(false));
+        assertTrue(cancelled.get());
+        // a cancelled download is not reported
+        future.complete(new DownloadResponse("late", null));
+        assertNull(callback.result.get());
+    }
+
+    @Test
+    public void testAsyncDownloaderIsNotWrapped() {
+        final AsyncDownloader downloader = new BlockingAsyncDownloader(new EchoDownloader(), DIRECT);
+        class Both extends EchoDownloader implements AsyncDownloader {
+            @Override
+            public Future<DownloadResponse> getAsync(String siteUrl, DownloadRequest request,
+                                                     DownloadCallback callback) {
+                return downloader.getAsync(siteUrl, request, callback);
+            }
+
+            @Override
+            public Future<DownloadResponse> postAsync(String siteUrl, DownloadRequest request,
+                                                      DownloadCallback callback) {
+                return downloader.postAsync(siteUrl, request, callback);
+            }
+        }
+        final Both both = new Both();
+        assertSame(both, BlockingAsyncDownloader.of(both, DIRECT));
+    }
+}
@@ -0,0 +1,304 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link CachingDownloader}
+ */
+public class CachingDownloaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Answers with the queued responses and remembers the requests.
+     */
+    private static class QueueDownloader implements Downloader {
+        final LinkedList<DownloadResponse> responses = new LinkedList<>();
+        final List<DownloadRequest> requests = new ArrayList<>();
+
+        void answer(int code, String body, String... headers) {
+            final Map<String, List<String>> map = new HashMap<>();
+            for (int i = 0; i < headers.length; i += 2) {
+                map.put(headers[i], Collections.singletonList(headers[i + 1]));
+            }
+            responses.add(new DownloadResponse(code, body, map));
+        }
+
+        @Override
+        public String download(String siteUrl, Localization localization) throws IOException {
+            throw new IOException("not expected");
+        }
+
+        @Override
+        public String download(String siteUrl, Map<String, String> customProperties) throws IOException {
+            throw new IOException("not expected");
+        }
+
+        @Override
+        public String download(String siteUrl) throws IOException {
+            return get(siteUrl).getResponseBody();
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl, DownloadRequest request) throws IOException {
+            requests.add(request);
+            if (responses.isEmpty()) throw new IOException("no response left");
+            return responses.removeFirst();
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl) throws IOException {
+            return get(siteUrl, DownloadRequest.emptyRequest);
+        }
+
+        @Override
+        public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException {
+            return get(siteUrl, request);
+        }
+    }
+
+    /**
+     * A cache whose clock is set by the test.
+     */
+    private static class ClockedCache extends CachingDownloader {
+        long now = 1000000;
+
+        ClockedCache(Downloader downloader, File directory) throws IOException {
+            super(downloader, 1024 * 1024, directory, 1024 * 1024);
+        }
+
+        @Override
+        long now() {
+            return now;
+        }
+    }
+
+    private static final String URL = "https://www.youtube.com/s/player/abc/base.js";
+
+    @Test
+    public void testFreshResponseIsCached() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "player", "Cache-Control", "public, max-age=60");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        assertEquals("player", cache.download(URL));
+        cache.now += 59000;
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertEquals(1, queue.requests.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getMemoryHitCount());
+
+        // another language is another resource
+        queue.answer(200, "player de");
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Accept-Language", Collections.singletonList("de"));
+        assertEquals("player de", cache.get(URL, new DownloadRequest(null, headers)).getResponseBody());
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "player", "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+        queue.answer(304, "", "Cache-Control", "max-age=120");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        cache.get(URL);
+        cache.now += 61000;
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertEquals(Arrays.asList("\"v1\""), queue.requests.get(1).getRequestHeaders().get("If-None-Match"));
+        assertEquals(1, cache.getRevalidatedCount());
+
+        // fresh again for the time of the 304
+        cache.now += 119000;
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertEquals(2, queue.requests.size());
+    }
+
+    @Test
+    public void testNoRevalidationWithoutResponseCodes() throws Exception {
+        // like the HttpURLConnection downloaders, which answer a 304 with code -1 and an empty body
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(-1, "player", "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+        queue.answer(-1, "player");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        assertEquals("player", cache.get(URL).getResponseBody());
+        cache.now += 30000;
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertEquals(1, queue.requests.size());
+
+        cache.now += 31000;
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertNull(queue.requests.get(1).getRequestHeaders().get("If-None-Match"));
+        assertEquals(0, cache.getRevalidatedCount());
+    }
+
+    @Test
+    public void testResponseWithoutCodeToConditionalRequestIsNotStored() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "player", "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+        queue.answer(-1, "");
+        queue.answer(304, "", "Cache-Control", "max-age=60");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        cache.get(URL);
+        cache.now += 61000;
+        cache.get(URL);
+        // the entry is still there to be revalidated
+        assertEquals("player", cache.get(URL).getResponseBody());
+        assertEquals(Arrays.asList("\"v1\""), queue.requests.get(2).getRequestHeaders().get("If-None-Match"));
+    }
+
+    @Test
+    public void testChangedResponseReplacesEntry() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "old", "Last-Modified", "Mon, 01 Jan 2018 00:00:00 GMT", "Cache-Control", "no-cache");
+        queue.answer(200, "new", "Cache-Control", "max-age=60");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        assertEquals("old", cache.get(URL).getResponseBody());
+        assertEquals("new", cache.get(URL).getResponseBody());
+        assertEquals(Arrays.asList("Mon, 01 Jan 2018 00:00:00 GMT"),
+                queue.requests.get(1).getRequestHeaders().get("If-Modified-Since"));
+        assertEquals("new", cache.get(URL).getResponseBody());
+        assertEquals(2, queue.requests.size());
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "a", "Cache-Control", "no-store");
+        queue.answer(200, "b", "Cache-Control", "private, max-age=60");
+        queue.answer(200, "c");
+        queue.answer(404, "d", "Cache-Control", "max-age=60");
+        queue.answer(200, "e");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        assertEquals("a", cache.get(URL).getResponseBody());
+        assertEquals("b", cache.get(URL).getResponseBody());
+        assertEquals("c", cache.get(URL).getResponseBody());
+        assertEquals("d", cache.get(URL).getResponseBody());
+        assertEquals("e", cache.get(URL).getResponseBody());
+        assertEquals(0, cache.getMemoryHitCount());
+    }
+
+    @Test
+    public void testPolicy() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "conference", "Cache-Control", "no-store");
+        queue.answer(200, "watch", "Cache-Control", "max-age=60");
+        queue.answer(200, "watch again");
+        final ClockedCache cache = new ClockedCache(queue, null);
+        cache.setPolicy("api.media.ccc.de", CachePolicy.maxAge(10, TimeUnit.MINUTES));
+        cache.setPolicy("www.youtube.com", CachePolicy.NO_STORE);
+
+        final String conference = "https://api.media.ccc.de/public/conferences/35c3";
+        assertEquals("conference", cache.get(conference).getResponseBody());
+        cache.now += TimeUnit.MINUTES.toMillis(9);
+        assertEquals("conference", cache.get(conference).getResponseBody());
+
+        assertEquals("watch", cache.get(URL).getResponseBody());
+        assertEquals("watch again", cache.get(URL).getResponseBody());
+    }
+
+    @Test
+    public void testDiskTier() throws Exception {
+        final File directory = folder.newFolder("http");
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "plâyer", "Cache-Control", "max-age=60", "Content-Type", "text/javascript");
+        new ClockedCache(queue, directory).get(URL);
+
+        // a new process finds the response on disk
+        final ClockedCache cache = new ClockedCache(queue, directory);
+        final DownloadResponse response = cache.get(URL);
+        assertEquals("plâyer", response.getResponseBody());
+        assertEquals(Arrays.asList("text/javascript"), response.getResponseHeaders().get("Content-Type"));
+        assertEquals(1, cache.getDiskHitCount());
+        assertEquals(1, queue.requests.size());
+
+        // and answers streaming requests from it
+        try (StreamingResponse streaming = cache.getStreaming(URL, DownloadRequest.emptyRequest)) {
+            assertEquals("plâyer", streaming.readString());
+        }
+    }
+
+    @Test
+    public void testHeadersOfCachedResponse() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "player", "Cache-Control", "max-age=60", "Content-Type", "text/javascript",
+                "Set-Cookie", "VISITOR_INFO1_LIVE=abc");
+        final ClockedCache cache = new ClockedCache(queue, null);
+
+        // the downloaded response is returned as it is
+        assertEquals(Arrays.asList("VISITOR_INFO1_LIVE=abc"), cache.get(URL).getResponseCookies());
+
+        // the cached one has the same header names, but no cookies of another user
+        final DownloadResponse cached = cache.get(URL);
+        assertEquals(1, cache.getMemoryHitCount());
+        assertEquals(Arrays.asList("text/javascript"), cached.getResponseHeaders().get("Content-Type"));
+        assertTrue(cached.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testBypass() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "first", "Cache-Control", "max-age=60");
+        queue.answer(200, "range");
+        queue.answer(200, "post");
+        final ClockedCache cache = new ClockedCache(queue, null);
+        cache.get(URL);
+
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", Collections.singletonList("bytes=0-16384"));
+        assertEquals("range", cache.get(URL, new DownloadRequest(null, headers)).getResponseBody());
+        assertEquals("post", cache.post(URL, DownloadRequest.emptyRequest).getResponseBody());
+        assertEquals("first", cache.get(URL).getResponseBody());
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        final QueueDownloader queue = new QueueDownloader();
+        queue.answer(200, "player", "Cache-Control", "max-age=60", "ETag", "\"v1\"");
+        queue.answer(304, "");
+        final ClockedCache cache = new ClockedCache(queue, null);
+        final AsyncDownloader async = BlockingAsyncDownloader.of(cache, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+
+        assertEquals("player", async.getAsync(URL, DownloadRequest.emptyRequest, null).get().getResponseBody());
+        // a fresh response is there at once
+        final Future<DownloadResponse> hit = async.getAsync(URL, DownloadRequest.emptyRequest, null);
+        assertTrue(hit.isDone());
+        assertEquals("player", hit.get().getResponseBody());
+        assertEquals(1, queue.requests.size());
+
+        cache.now += 61000;
+        assertEquals("player", async.getAsync(URL, DownloadRequest.emptyRequest, null).get().getResponseBody());
+        assertEquals(1, cache.getRevalidatedCount());
+    }
+}
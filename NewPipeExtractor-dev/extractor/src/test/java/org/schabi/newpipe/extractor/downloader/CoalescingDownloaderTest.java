@@ -0,0 +1,263 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.Downloader;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link CoalescingDownloader}
+ */
+public class CoalescingDownloaderTest {
+
+    /**
+     * Answers with the url and the number of the call, after the test released it.
+     * Fails every url containing "fail".
+     */
+    private static class SlowDownloader implements Downloader {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile Map<String, List<String>> lastHeaders;
+
+        private String answer(String siteUrl) throws IOException {
+            final int call = calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // like OkHttp does
+                throw new InterruptedIOException("interrupted");
+            }
+            if (siteUrl.contains("fail")) throw new IOException("failed " + call);
+            return siteUrl + " " + call;
+        }
+
+        @Override
+        public String download(String siteUrl, Localization localization) throws IOException {
+            return answer(siteUrl);
+        }
+
+        @Override
+        public String download(String siteUrl, Map<String, String> customProperties) throws IOException {
+            return answer(siteUrl);
+        }
+
+        @Override
+        public String download(String siteUrl) throws IOException {
+            return answer(siteUrl);
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl, DownloadRequest request) throws IOException {
+            lastHeaders = request.getRequestHeaders();
+            return new DownloadResponse(answer(siteUrl), null);
+        }
+
+        @Override
+        public DownloadResponse get(String siteUrl) throws IOException {
+            return get(siteUrl, DownloadRequest.emptyRequest);
+        }
+
+        @Override
+        public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException {
+            return new DownloadResponse(answer(siteUrl), null);
+        }
+    }
+
+    /**
+     * Asynchronous downloader whose requests are completed by the test.
+     */
+    private static class ManualAsyncDownloader extends SlowDownloader implements AsyncDownloader {
+        final List<DownloadFuture> requests = new ArrayList<>();
+
+        @Override
+        public Future<DownloadResponse> getAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+            final DownloadFuture future = new DownloadFuture(callback);
+            requests.add(future);
+            return future;
+        }
+
+        @Override
+        public Future<DownloadResponse> postAsync(String siteUrl, DownloadRequest request, DownloadCallback callback) {
+            return getAsync(siteUrl, request, callback);
+        }
+    }
+
+    /**
+     * Start the first download and wait until a second one joined it.
+     */
+    private static <T> List<Future<T>> startTogether(CoalescingDownloader downloader, SlowDownloader slow,
+                                                     ExecutorService executor, Callable<T> download)
+            throws Exception {
+        final Future<T> first = executor.submit(download);
+        slow.entered.await();
+        final Future<T> second = executor.submit(download);
+        while (downloader.getCoalescedCount() == 0) Thread.sleep(1);
+        slow.release.countDown();
+        return Arrays.asList(first, second);
+    }
+
+    @Test
+    public void testConcurrentDownloadsShareOneCall() throws Exception {
+        final SlowDownloader slow = new SlowDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(slow);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<String>> results = startTogether(downloader, slow, executor, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return downloader.download("https://example.com/watch");
+                }
+            });
+            assertEquals("https://example.com/watch 1", results.get(0).get());
+            assertEquals("https://example.com/watch 1", results.get(1).get());
+            assertEquals(1, slow.calls.get());
+            assertEquals(1, downloader.getDownloadCount());
+            assertEquals(1, downloader.getCoalescedCount());
+
+            // nothing is kept once the download finished
+            assertEquals("https://example.com/watch 2", downloader.download("https://example.com/watch"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsShared() throws Exception {
+        final SlowDownloader slow = new SlowDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(slow);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<DownloadResponse>> results = startTogether(downloader, slow, executor,
+                    new Callable<DownloadResponse>() {
+                        @Override
+                        public DownloadResponse call() throws Exception {
+                            return downloader.get("https://example.com/fail");
+                        }
+                    });
+            for (Future<DownloadResponse> result : results) {
+                try {
+                    result.get();
+                    fail("the download should have failed");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IOException);
+                    assertEquals("failed 1", e.getCause().getMessage());
+                }
+            }
+            assertEquals(1, slow.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInterruptedOwnerIsNotShared() throws Exception {
+        final SlowDownloader slow = new SlowDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(slow);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Callable<String> download = new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return downloader.download("https://example.com/watch");
+                }
+            };
+            final Future<String> first = executor.submit(download);
+            slow.entered.await();
+            final Future<String> second = executor.submit(download);
+            while (downloader.getCoalescedCount() == 0) Thread.sleep(1);
+
+            // e.g. a speculative extraction which lost
+            first.cancel(true);
+            while (slow.calls.get() < 2) Thread.sleep(1);
+            slow.release.countDown();
+
+            assertEquals("https://example.com/watch 2", second.get());
+            assertEquals(2, downloader.getDownloadCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOptOut() throws Exception {
+        final SlowDownloader slow = new SlowDownloader();
+        slow.release.countDown();
+        final CoalescingDownloader downloader = new CoalescingDownloader(slow);
+
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put(CoalescingDownloader.NO_COALESCING, Collections.singletonList(""));
+        headers.put("Accept-Language", Collections.singletonList("en"));
+        downloader.get("https://example.com/watch", new DownloadRequest(null, headers));
+
+        assertFalse(slow.lastHeaders.containsKey(CoalescingDownloader.NO_COALESCING));
+        assertTrue(slow.lastHeaders.containsKey("Accept-Language"));
+        assertEquals(1, downloader.getDownloadCount());
+        assertEquals(0, downloader.getCoalescedCount());
+    }
+
+    @Test
+    public void testAsyncDownloadsShareOneCall() throws Exception {
+        final ManualAsyncDownloader manual = new ManualAsyncDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(manual);
+        final AsyncDownloader async = BlockingAsyncDownloader.of(downloader, Executors.newSingleThreadExecutor());
+
+        final Future<DownloadResponse> first = async.getAsync("https://example.com/watch",
+                DownloadRequest.emptyRequest, null);
+        final Future<DownloadResponse> second = async.getAsync("https://example.com/watch",
+                DownloadRequest.emptyRequest, null);
+        assertEquals(1, manual.requests.size());
+        assertEquals(1, downloader.getCoalescedCount());
+
+        final DownloadResponse response = new DownloadResponse("watch", null);
+        manual.requests.get(0).complete(response);
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+
+        // nothing is kept once the download finished
+        async.getAsync("https://example.com/watch", DownloadRequest.emptyRequest, null);
+        assertEquals(2, manual.requests.size());
+    }
+
+    @Test
+    public void testAsyncCancel() throws Exception {
+        final ManualAsyncDownloader manual = new ManualAsyncDownloader();
+        final AsyncDownloader async = BlockingAsyncDownloader.of(new CoalescingDownloader(manual),
+                Executors.newSingleThreadExecutor());
+
+        final Future<DownloadResponse> first = async.getAsync("https://example.com/watch",
+                DownloadRequest.emptyRequest, null);
+        final Future<DownloadResponse> second = async.getAsync("https://example.com/watch",
+                DownloadRequest.emptyRequest, null);
+
+        // the other caller still waits for the request
+        first.cancel(true);
+        assertFalse(manual.requests.get(0).isCancelled());
+        second.cancel(true);
+        assertTrue(manual.requests.get(0).isCancelled());
+
+        // a cancelled download is not joined
+        async.getAsync("https://example.com/watch", DownloadRequest.emptyRequest, null);
+        assertEquals(2, manual.requests.size());
+    }
+}
@@ -0,0 +1,116 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.utils.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link StreamingResponse}
+ */
+public class StreamingResponseTest {
+
+    /**
+     * Counts the bytes read and remembers if it was closed.
+     */
+    private static class CountingStream extends ByteArrayInputStream {
+        int read = 0;
+        boolean closed = false;
+
+        CountingStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            final int count = super.read(b, off, len);
+            if (count > 0) read += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    @Test
+    public void testStreamedBody() throws Exception {
+        final byte[] latin1 = "café".getBytes("ISO-8859-1");
+        final Map<String, List<String>> headers = Collections.singletonMap("Set-Cookie", Arrays.asList("a=b"));
+
+        final StreamingResponse response = new StreamingResponse(new ByteArrayInputStream(latin1), "ISO-8859-1",
+                latin1.length, headers);
+        assertEquals("ISO-8859-1", response.getCharset());
+        assertEquals(4, response.getContentLength());
+        assertEquals(Arrays.asList("a=b"), response.getResponseCookies());
+        assertEquals("café", response.readString());
+    }
+
+    @Test
+    public void testReadBytes() throws Exception {
+        final byte[] bytes = new byte[20000];
+        Arrays.fill(bytes, (byte) 7);
+        final StreamingResponse response = new StreamingResponse(new ByteArrayInputStream(bytes), null, -1, null);
+
+        final ByteBuffer buffer = response.readBytes();
+        assertEquals(20000, buffer.remaining());
+        assertEquals(7, buffer.get(19999));
+        assertNull(response.getCharset());
+        assertTrue(response.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testWrappedResponse() throws Exception {
+        final StreamingResponse response = StreamingResponse.of(new DownloadResponse("<a>é</a>", null));
+        assertEquals(-1, response.getContentLength());
+        assertEquals("<a>é</a>", response.readString());
+        assertEquals(9, response.readBytes().remaining());
+        response.close();
+    }
+
+    @Test
+    public void testStopAtMatch() throws Exception {
+        final StringBuilder script = new StringBuilder("var a={client_id:\"abc123\"};");
+        while (script.length() < 200000) script.append("function f(){return 1;}");
+        final CountingStream stream = new CountingStream(script.toString().getBytes("UTF-8"));
+
+        final Pattern pattern = Pattern.compile("client_id:\"(.*?)\"");
+        try (StreamingResponse response = new StreamingResponse(stream, "UTF-8", -1, null)) {
+            assertEquals("abc123", Parser.matchGroup1(pattern, response.getReader(), 1024));
+        }
+        assertTrue(stream.closed);
+        assertTrue(stream.read < 200000);
+    }
+
+    @Test
+    public void testMatchAcrossChunks() throws Exception {
+        final StringBuilder script = new StringBuilder();
+        while (script.length() < 8 * 1024 - 5) script.append(' ');
+        script.append("client_id:\"abc123\"");
+        while (script.length() < 50000) script.append(' ');
+
+        final Pattern pattern = Pattern.compile("client_id:\"(.*?)\"");
+        final InputStream stream = new ByteArrayInputStream(script.toString().getBytes("UTF-8"));
+        final StreamingResponse response = new StreamingResponse(stream, null, -1, null);
+        assertEquals("abc123", Parser.matchGroup1(pattern, response.getReader(), 1024));
+    }
+
+    @Test(expected = Parser.RegexException.class)
+    public void testNoMatch() throws Exception {
+        final StreamingResponse response = StreamingResponse.of(new DownloadResponse("nothing here", null));
+        Parser.matchGroup1(Pattern.compile("client_id:\"(.*?)\""), response.getReader(), 1024);
+    }
+}
@@ -0,0 +1,220 @@
+package org.schabi.newpipe.extractor.services.soundcloud;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
+import org.schabi.newpipe.extractor.downloader.AsyncDownloader;
+import org.schabi.newpipe.extractor.downloader.DownloadCallback;
+import org.schabi.newpipe.extractor.downloader.DownloadFuture;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SoundcloudClientIdManager}
+ */
+public class SoundcloudClientIdManagerTest {
+
+    /**
+     * Hands out numbered ids instead of scraping soundcloud.com.
+     */
+    private static class CountingManager extends SoundcloudClientIdManager {
+        long now = TimeUnit.DAYS.toMillis(1);
+        int scrapes = 0;
+        boolean valid = true;
+        int validations = 0;
+
+        @Override
+        long now() {
+            return now;
+        }
+
+        @Override
+        String scrape() {
+            return "id" + ++scrapes;
+        }
+
+        @Override
+        boolean isValid(String id) {
+            return valid;
+        }
+
+        @Override
+        AsyncDownloader asyncDownloader(Executor executor) {
+            return new AsyncDownloader() {
+                @Override
+                public Future<DownloadResponse> getAsync(String siteUrl, DownloadRequest request,
+                                                         DownloadCallback callback) {
+                    final DownloadFuture future = new DownloadFuture(callback);
+                    validations++;
+                    if (valid) {
+                        future.complete(new DownloadResponse(200, "", Collections.<String, List<String>>emptyMap()));
+                    } else {
+                        future.fail(new HttpResponseException(401, "401 Unauthorized"));
+                    }
+                    return future;
+                }
+
+                @Override
+                public Future<DownloadResponse> postAsync(String siteUrl, DownloadRequest request,
+                                                          DownloadCallback callback) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    private static class MemoryStore implements SoundcloudClientIdManager.Store {
+        String state;
+
+        @Override
+        public String load() {
+            return state;
+        }
+
+        @Override
+        public void save(String state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * Runs the tasks when the test says so.
+     */
+    private static class QueueExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : new ArrayList<>(tasks)) task.run();
+            tasks.clear();
+        }
+    }
+
+    @Test
+    public void testScrapedOnce() throws Exception {
+        final CountingManager manager = new CountingManager();
+        assertEquals("id1", manager.getClientId());
+        assertEquals("id1", manager.getClientId());
+        assertEquals(1, manager.scrapes);
+    }
+
+    @Test
+    public void testRenew() throws Exception {
+        final CountingManager manager = new CountingManager();
+        manager.getClientId();
+
+        assertEquals("id2", manager.renew("id1"));
+        // a second thread which was rejected with the old id gets the new one
+        assertEquals("id2", manager.renew("id1"));
+        assertEquals(2, manager.scrapes);
+        assertEquals("id2", manager.getClientId());
+    }
+
+    @Test
+    public void testRefreshWithoutExecutor() throws Exception {
+        final CountingManager manager = new CountingManager();
+        manager.setMaxAge(1, TimeUnit.HOURS);
+        manager.getClientId();
+
+        // still handed out until it is too old
+        manager.now += TimeUnit.MINUTES.toMillis(50);
+        assertEquals("id1", manager.getClientId());
+        manager.now += TimeUnit.MINUTES.toMillis(10);
+        assertEquals("id2", manager.getClientId());
+    }
+
+    @Test
+    public void testRefreshInBackground() throws Exception {
+        final CountingManager manager = new CountingManager();
+        final QueueExecutor executor = new QueueExecutor();
+        manager.setExecutor(executor);
+        manager.setMaxAge(1, TimeUnit.HOURS);
+        manager.getClientId();
+
+        manager.now += TimeUnit.MINUTES.toMillis(50);
+        assertEquals("id1", manager.getClientId());
+        assertEquals("id1", manager.getClientId());
+        // only one refresh is started
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals("id2", manager.getClientId());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        final MemoryStore store = new MemoryStore();
+        final CountingManager first = new CountingManager();
+        first.setStore(store);
+        assertEquals("id1", first.getClientId());
+        assertNotNull(store.state);
+
+        // the next process starts with the saved id
+        final CountingManager second = new CountingManager();
+        second.setStore(store);
+        assertEquals("id1", second.getClientId());
+        assertEquals(0, second.scrapes);
+
+        store.state = "broken";
+        final CountingManager third = new CountingManager();
+        third.setStore(store);
+        assertEquals("id1", third.getClientId());
+        assertEquals(1, third.scrapes);
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        final MemoryStore store = new MemoryStore();
+        store.state = TimeUnit.DAYS.toMillis(1) + " saved";
+
+        final CountingManager manager = new CountingManager();
+        manager.setStore(store);
+        manager.prefetch();
+        assertEquals("saved", manager.getClientId());
+
+        manager.valid = false;
+        manager.prefetch();
+        assertEquals("id1", manager.getClientId());
+
+        final CountingManager empty = new CountingManager();
+        empty.prefetch();
+        assertEquals(1, empty.scrapes);
+    }
+
+    @Test
+    public void testPrefetchValidatesAsynchronously() throws Exception {
+        final MemoryStore store = new MemoryStore();
+        store.state = TimeUnit.DAYS.toMillis(1) + " saved";
+        final QueueExecutor executor = new QueueExecutor();
+
+        final CountingManager manager = new CountingManager();
+        manager.setStore(store);
+        manager.setExecutor(executor);
+        manager.prefetch();
+        assertEquals(1, manager.validations);
+        // an accepted id needs no thread at all
+        assertTrue(executor.tasks.isEmpty());
+        assertEquals("saved", manager.getClientId());
+
+        manager.valid = false;
+        manager.prefetch();
+        assertEquals(2, manager.validations);
+        // the rejected id is refreshed on the executor
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        assertEquals("id1", manager.getClientId());
+    }
+}
@@ -4,9 +4,15 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.schabi.newpipe.Downloader;
+import org.schabi.newpipe.extractor.DownloadRequest;
+import org.schabi.newpipe.extractor.DownloadResponse;
 import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.HttpResponseException;
 import org.schabi.newpipe.extractor.utils.Localization;
 
+import java.io.IOException;
+import java.util.Map;
+
 public class SoundcloudParsingHelperTest {
     @BeforeClass
     public static void setUp() {
@@ -26,4 +32,46 @@ public class SoundcloudParsingHelperTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void openApiRethrowsRejectionWithoutClientId() throws Exception {
+        final HttpResponseException rejection = new HttpResponseException(403, "403 Forbidden");
+        final org.schabi.newpipe.extractor.Downloader rejecting = new org.schabi.newpipe.extractor.Downloader() {
+            @Override
+            public String download(String siteUrl, Localization localization) throws IOException {
+                throw rejection;
+            }
+
+            @Override
+            public String download(String siteUrl, Map<String, String> customProperties) throws IOException {
+                throw rejection;
+            }
+
+            @Override
+            public String download(String siteUrl) throws IOException {
+                throw rejection;
+            }
+
+            @Override
+            public DownloadResponse get(String siteUrl, DownloadRequest request) throws IOException {
+                throw rejection;
+            }
+
+            @Override
+            public DownloadResponse get(String siteUrl) throws IOException {
+                throw rejection;
+            }
+
+            @Override
+            public DownloadResponse post(String siteUrl, DownloadRequest request) throws IOException {
+                throw rejection;
+            }
+        };
+
+        try {
+            SoundcloudParsingHelper.openApi(rejecting, "https://api-v2.soundcloud.com/resolve?url=private");
+            Assert.fail("the rejection was not thrown");
+        } catch (HttpResponseException e) {
+            Assert.assertSame(rejection, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import com.grack.nanojson.JsonParser;
+import org.schabi.newpipe.Downloader;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.utils.JsonScanner;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Writes the decryption code of the player youtube currently serves, as loaded by
+ * {@link YoutubeDecryptionCache}, to a file for SignatureDeciphererBenchmark.
+ * The file starts with the url of the player and the date it was captured.
+ * <p>
+ * Run it with ./gradlew :extractor:captureDecryptionCode
+ */
+public class DecryptionCodeCapture {
+    private static final String EMBED_URL = "https://www.youtube.com/embed/dQw4w9WgXcQ";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("usage: DecryptionCodeCapture <output file>");
+            System.exit(1);
+        }
+        NewPipe.init(Downloader.getInstance(), new Localization("GB", "en"));
+
+        final String embedPage = Downloader.getInstance().download(EMBED_URL);
+        final String assets = JsonScanner.extractValueAfter(embedPage, "\"assets\"");
+        if (assets == null) {
+            throw new IllegalStateException("Could not find the player assets in " + EMBED_URL);
+        }
+        String playerUrl = JsonParser.object().from(assets).getString("js");
+        if (playerUrl.startsWith("//")) {
+            playerUrl = "https:" + playerUrl;
+        } else if (!playerUrl.contains("https://youtube.com")) {
+            playerUrl = "https://youtube.com" + playerUrl;
+        }
+
+        final String decryptionCode = YoutubeDecryptionCache.loadDecryptionCode(playerUrl);
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        final File output = new File(args[0]);
+        output.getParentFile().mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8")) {
+            writer.write("// player: " + playerUrl + "\n");
+            writer.write("// captured: " + dateFormat.format(new Date()) + "\n");
+            writer.write(decryptionCode + "\n");
+        }
+        System.out.println("Wrote the decryption code of " + playerUrl + " to " + output);
+    }
+}
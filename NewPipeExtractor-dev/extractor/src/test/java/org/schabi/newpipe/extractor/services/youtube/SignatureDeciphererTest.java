@@ -0,0 +1,118 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SignatureDecipherer}
+ */
+public class SignatureDeciphererTest {
+    static final String ENCRYPTED_SIG =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789.-_ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefgh";
+    static final String DECRYPTED_SIG =
+            "edcbaZYXWVUTSRQPONMLKJIHGFEDCBA_-.9876543210zyxwvutsrqponmCkjhhgfedcbaZYXWVUTSRQPONMLKJIHGFEDl";
+
+    private static String decryptionCode;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        decryptionCode = YoutubeDecryptionCache.extractDecryptionCode(readPlayerFixture());
+    }
+
+    static String readPlayerFixture() throws IOException {
+        try (InputStream in = SignatureDeciphererTest.class.getResourceAsStream("/youtube/player_fixture.js")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    @Test
+    public void testDecrypt() throws ParsingException {
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(decryptionCode);
+        assertEquals(DECRYPTED_SIG, decipherer.decrypt(ENCRYPTED_SIG));
+        // the compiled function has to be reusable
+        assertEquals(DECRYPTED_SIG, decipherer.decrypt(ENCRYPTED_SIG));
+    }
+
+    @Test
+    public void testDecryptBatch() throws ParsingException {
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(decryptionCode);
+        final List<String> result = decipherer.decrypt(Arrays.asList(ENCRYPTED_SIG, ENCRYPTED_SIG));
+        assertEquals(Arrays.asList(DECRYPTED_SIG, DECRYPTED_SIG), result);
+    }
+
+    @Test
+    public void testFixtureIsRunWithoutRhino() throws ParsingException {
+        assertFalse(SignatureDecipherer.compile(decryptionCode).usesRhino());
+    }
+
+    @Test
+    public void testTransformMatchesRhino() throws ParsingException {
+        final SignatureDecipherer transform = SignatureDecipherer.compile(decryptionCode);
+        final SignatureDecipherer rhino = SignatureDecipherer.compileWithRhino(decryptionCode);
+        assertTrue(rhino.usesRhino());
+
+        for (int length = 0; length <= ENCRYPTED_SIG.length(); length++) {
+            final String sig = ENCRYPTED_SIG.substring(0, length);
+            assertEquals(rhino.decrypt(sig), transform.decrypt(sig));
+        }
+    }
+
+    @Test
+    public void testUnknownHelperMethodFallsBackToRhino() throws ParsingException {
+        final String code = decryptionCode.replace("a.reverse()", "a.push(\"x\")");
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(code);
+        assertTrue(decipherer.usesRhino());
+        assertTrue(decipherer.decrypt(ENCRYPTED_SIG).contains("x"));
+    }
+
+    @Test
+    public void testSwapBySpliceFallsBackToRhino() throws ParsingException {
+        // splices at 0, but swaps instead of removing elements
+        assertNonCanonicalFallsBackToRhino(decryptionCode.replace(
+                "var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c",
+                "var c=a[0];a.splice(0,1,a[b%a.length]);a[b%a.length]=c"));
+    }
+
+    @Test
+    public void testReverseWithSideEffectFallsBackToRhino() throws ParsingException {
+        assertNonCanonicalFallsBackToRhino(decryptionCode.replace(
+                "function(a){a.reverse()}", "function(a,b){a.reverse().length=b}"));
+    }
+
+    @Test
+    public void testSwapOfOtherArrayFallsBackToRhino() throws ParsingException {
+        assertNonCanonicalFallsBackToRhino(decryptionCode.replace(
+                "var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c",
+                "var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c;a[1]=c"));
+    }
+
+    private static void assertNonCanonicalFallsBackToRhino(String code) throws ParsingException {
+        assertNotEquals(decryptionCode, code);
+        assertNull(SignatureTransform.parse(code));
+
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(code);
+        assertTrue(decipherer.usesRhino());
+        final SignatureDecipherer rhino = SignatureDecipherer.compileWithRhino(code);
+        assertEquals(rhino.decrypt(ENCRYPTED_SIG), decipherer.decrypt(ENCRYPTED_SIG));
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testCodeWithoutDecryptFunction() throws ParsingException {
+        SignatureDecipherer.compile("var a = 1;");
+    }
+}
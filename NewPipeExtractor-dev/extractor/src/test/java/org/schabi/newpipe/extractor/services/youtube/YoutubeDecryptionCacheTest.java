@@ -0,0 +1,77 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link YoutubeDecryptionCache}
+ */
+public class YoutubeDecryptionCacheTest {
+    private static final String PLAYER_URL = "https://youtube.com/yts/jsbin/player_ias-vflset/en_US/base.js";
+
+    private YoutubeDecryptionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = YoutubeDecryptionCache.getInstance();
+        cache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        cache.clear();
+        cache.setMaxEntries(YoutubeDecryptionCache.DEFAULT_MAX_ENTRIES);
+        cache.setTimeToLive(YoutubeDecryptionCache.DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static String code(String name) {
+        return "function decrypt(a){return \"" + name + "\";}";
+    }
+
+    @Test
+    public void testHitAndMiss() throws ParsingException {
+        final long hits = cache.getHitCount();
+        final long misses = cache.getMissCount();
+
+        assertNull(cache.getIfPresent(PLAYER_URL));
+        cache.put(PLAYER_URL, code("1"));
+        assertEquals("1", cache.getIfPresent(PLAYER_URL).decrypt(""));
+
+        assertEquals(hits + 1, cache.getHitCount());
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testRelativePlayerUrlIsNormalized() throws ParsingException {
+        cache.put("/yts/jsbin/player_ias-vflset/en_US/base.js", code("1"));
+        assertNotNull(cache.getIfPresent(PLAYER_URL));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws ParsingException {
+        cache.setMaxEntries(2);
+        cache.put(PLAYER_URL + "?1", code("1"));
+        cache.put(PLAYER_URL + "?2", code("2"));
+        cache.getIfPresent(PLAYER_URL + "?1");
+        cache.put(PLAYER_URL + "?3", code("3"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.getIfPresent(PLAYER_URL + "?1"));
+        assertNull(cache.getIfPresent(PLAYER_URL + "?2"));
+    }
+
+    @Test
+    public void testExpiredEntryIsDropped() throws InterruptedException, ParsingException {
+        cache.setTimeToLive(1, TimeUnit.MILLISECONDS);
+        cache.put(PLAYER_URL, code("1"));
+        Thread.sleep(5);
+        assertNull(cache.getIfPresent(PLAYER_URL));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,105 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeFormatTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.schabi.newpipe.extractor.services.youtube.SignatureDeciphererTest.DECRYPTED_SIG;
+import static org.schabi.newpipe.extractor.services.youtube.SignatureDeciphererTest.ENCRYPTED_SIG;
+
+/**
+ * Test for {@link YoutubeFormatTable}
+ */
+public class YoutubeFormatTableTest {
+
+    private static final String STREAMING_DATA = "{"
+            + "\"formats\": ["
+            + "  {\"itag\": 18, \"url\": \"https://example.com/18\", \"mimeType\": \"video/mp4; codecs=\\\"avc1.42001E, mp4a.40.2\\\"\"},"
+            + "  {\"itag\": 140, \"url\": \"https://example.com/140-muxed\"},"
+            + "  {\"itag\": 99999, \"url\": \"https://example.com/unknown\"}"
+            + "],"
+            + "\"adaptiveFormats\": ["
+            + "  {\"itag\": 137, \"url\": \"https://example.com/137\"},"
+            + "  {\"itag\": 251, \"cipher\": \"s=" + ENCRYPTED_SIG + "&sp=sig&url=https%3A%2F%2Fexample.com%2F251%3Fa%3D1\","
+            + "   \"bitrate\": 141000, \"contentLength\": \"3500000\", \"mimeType\": \"audio/webm; codecs=\\\"opus\\\"\"},"
+            + "  {\"itag\": 140, \"url\": \"https://example.com/140\"},"
+            + "  {\"itag\": 22, \"url\": \"https://example.com/22-adaptive\"}"
+            + "]}";
+
+    private YoutubeFormatTable table;
+
+    @Before
+    public void setUp() throws Exception {
+        table = new YoutubeFormatTable(JsonParser.object().from(STREAMING_DATA));
+    }
+
+    @Test
+    public void testClassification() {
+        assertEquals(1, table.getFormats(ItagItem.ItagType.VIDEO).size());
+        assertEquals(18, table.getFormats(ItagItem.ItagType.VIDEO).get(0).getItag().id);
+
+        final List<YoutubeFormatTable.Format> audio = table.getFormats(ItagItem.ItagType.AUDIO);
+        assertEquals(2, audio.size());
+        assertEquals(251, audio.get(0).getItag().id);
+        assertEquals(140, audio.get(1).getItag().id);
+
+        assertEquals(1, table.getFormats(ItagItem.ItagType.VIDEO_ONLY).size());
+        assertTrue(table.hasCipheredFormats(ItagItem.ItagType.AUDIO));
+        assertFalse(table.hasCipheredFormats(ItagItem.ItagType.VIDEO_ONLY));
+    }
+
+    @Test
+    public void testFormatValues() {
+        final YoutubeFormatTable.Format opus = table.getFormats(ItagItem.ItagType.AUDIO).get(0);
+        assertEquals(141000, opus.getBitrate());
+        assertEquals(3500000, opus.getContentLength());
+        assertEquals("audio/webm", opus.getMimeType());
+        assertEquals("opus", opus.getCodecs());
+
+        final YoutubeFormatTable.Format mp4 = table.getFormats(ItagItem.ItagType.VIDEO).get(0);
+        assertEquals("avc1.42001E, mp4a.40.2", mp4.getCodecs());
+        assertEquals(-1, mp4.getBitrate());
+        assertEquals(-1, mp4.getContentLength());
+
+        final YoutubeFormatTable.Format m4a = table.getFormats(ItagItem.ItagType.AUDIO).get(1);
+        assertNull(m4a.getMimeType());
+        assertNull(m4a.getCodecs());
+    }
+
+    @Test
+    public void testUrlsWithoutCipher() throws Exception {
+        // nothing has to be decrypted, so no decipherer is needed
+        assertEquals(Arrays.asList("https://example.com/137"), table.getUrls(ItagItem.ItagType.VIDEO_ONLY, null));
+        assertEquals(Arrays.asList("https://example.com/18"), table.getUrls(ItagItem.ItagType.VIDEO, null));
+    }
+
+    @Test
+    public void testUrlsWithCipher() throws Exception {
+        final String decryptionCode = YoutubeDecryptionCache.extractDecryptionCode(
+                SignatureDeciphererTest.readPlayerFixture());
+        final SignatureDecipherer decipherer = SignatureDecipherer.compile(decryptionCode);
+
+        final List<String> urls = table.getUrls(ItagItem.ItagType.AUDIO, decipherer);
+        assertEquals(Arrays.asList("https://example.com/251?a=1&sig=" + DECRYPTED_SIG, "https://example.com/140"), urls);
+        assertSame(urls, table.getUrls(ItagItem.ItagType.AUDIO, decipherer));
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testCipherWithoutDecipherer() throws Exception {
+        table.getUrls(ItagItem.ItagType.AUDIO, null);
+    }
+
+    @Test
+    public void testNoStreamingData() {
+        final YoutubeFormatTable empty = new YoutubeFormatTable(null);
+        assertTrue(empty.getFormats(ItagItem.ItagType.AUDIO).isEmpty());
+        assertFalse(new YoutubeFormatTable(new JsonObject()).hasCipheredFormats(ItagItem.ItagType.AUDIO));
+    }
+}
@@ -0,0 +1,117 @@
+package org.schabi.newpipe.extractor.services.youtube.search;
+
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeChannelInfoItemExtractor;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubePlaylistInfoItemExtractor;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeSearchTokenizer;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeSearchTokenizer.ItemType;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamInfoItemExtractor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link YoutubeSearchTokenizer}
+ */
+public class YoutubeSearchTokenizerTest {
+    private static final String BASE_URI = "https://www.youtube.com/results?search_query=test";
+
+    private static final String VIDEO = "<li><div class=\"yt-lockup yt-lockup-tile yt-lockup-video clearfix\">"
+            + "<div class=\"yt-lockup-dismissable\"><div class=\"yt-lockup-thumbnail\"><a href=\"/watch?v=%1$s\">"
+            + "<div class=\"yt-thumb video-thumb\"><span class=\"yt-thumb-simple\"><img src=\"https://i.ytimg.com/vi/%1$s/hqdefault.jpg\">"
+            + "</span></div></a><span class=\"video-time\">3:33</span></div><div class=\"yt-lockup-content\">"
+            + "<h3 class=\"yt-lockup-title \"><a href=\"/watch?v=%1$s\" title=\"Video %1$s\">Video %1$s</a></h3>"
+            + "<div class=\"yt-lockup-byline\"><a href=\"/channel/UC%1$s\">Channel %1$s</a></div>"
+            + "<div class=\"yt-lockup-meta\"><ul class=\"yt-lockup-meta-info\"><li>1 year ago</li><li>1,234 views</li></ul></div>"
+            + "</div></div></div></li>\n";
+    private static final String CHANNEL = "<li><div class=\"yt-lockup yt-lockup-tile yt-lockup-channel\">"
+            + "<span class=\"yt-thumb-simple\"><img src=\"//i.ytimg.com/c.jpg\"></span>"
+            + "<h3><a class=\"yt-uix-tile-link\" href=\"/channel/UCchannel\" title=\"A channel\">A channel</a></h3>"
+            + "<span class=\"yt-subscriber-count\" title=\"12\">12</span></div></li>\n";
+    private static final String PLAYLIST = "<li><div class=\"yt-lockup yt-lockup-tile yt-lockup-playlist\">"
+            + "<h3 class=\"yt-lockup-title\"><a href=\"/playlist?list=PL%1$s\">Playlist %1$s</a></h3>%2$s</div></li>\n";
+
+    private static String page(String items) {
+        return "<!DOCTYPE html><html><head><title>test - YouTube</title>"
+                + "<script>var html = '<ol class=\"item-section\"><li>not an item</li></ol>';</script></head><body>"
+                + "<ol class=\"section-list\"><li><div class=\"spell-correction\">Did you mean: "
+                + "<a href=\"/results?search_query=tset\"><b><i>tset</i></b></a></div></li></ol>"
+                + "<ol class=\"item-section\">" + items + "</ol>"
+                + "<ol><li><div class=\"yt-lockup-video\">after the results</div></li></ol></body></html>";
+    }
+
+    private static class Recorder implements YoutubeSearchTokenizer.ItemListener {
+        final List<ItemType> types = new ArrayList<>();
+        final List<Element> lockups = new ArrayList<>();
+        String nothingFound;
+
+        @Override
+        public void onItem(ItemType type, Element lockup) {
+            types.add(type);
+            lockups.add(lockup);
+        }
+
+        @Override
+        public void onNothingFound(String message) {
+            nothingFound = message;
+        }
+    }
+
+    @Test
+    public void testItems() throws Exception {
+        String items = String.format(VIDEO, "aaaaaaaaaaa")
+                + "<!-- <li><div class=\"yt-lockup-video\"></div></li> -->"
+                + CHANNEL
+                + String.format(PLAYLIST, "1", "")
+                + String.format(PLAYLIST, "2", "<span class=\"yt-pl-icon yt-pl-icon-mix\"></span>")
+                + "<li><div class=\"pyv-afc-ads-container\"><script>document.write('</li>');</script></div></li>"
+                + String.format(VIDEO, "bbbbbbbbbbb");
+
+        Recorder recorder = new Recorder();
+        new YoutubeSearchTokenizer(page(items), BASE_URI).tokenize(recorder);
+
+        assertNull(recorder.nothingFound);
+        assertEquals(4, recorder.types.size());
+        assertEquals(ItemType.VIDEO, recorder.types.get(0));
+        assertEquals(ItemType.CHANNEL, recorder.types.get(1));
+        assertEquals(ItemType.PLAYLIST, recorder.types.get(2));
+        assertEquals(ItemType.VIDEO, recorder.types.get(3));
+
+        YoutubeStreamInfoItemExtractor video = new YoutubeStreamInfoItemExtractor(recorder.lockups.get(0));
+        assertEquals("https://www.youtube.com/watch?v=aaaaaaaaaaa", video.getUrl());
+        assertEquals("Video aaaaaaaaaaa", video.getName());
+        assertEquals("Channel aaaaaaaaaaa", video.getUploaderName());
+        assertEquals(213, video.getDuration());
+        assertEquals(1234, video.getViewCount());
+
+        assertEquals("A channel", new YoutubeChannelInfoItemExtractor(recorder.lockups.get(1)).getName());
+        assertEquals("https://www.youtube.com/playlist?list=PL1",
+                new YoutubePlaylistInfoItemExtractor(recorder.lockups.get(2)).getUrl());
+        assertEquals("Video bbbbbbbbbbb", new YoutubeStreamInfoItemExtractor(recorder.lockups.get(3)).getName());
+    }
+
+    @Test
+    public void testNothingFound() throws Exception {
+        Recorder recorder = new Recorder();
+        new YoutubeSearchTokenizer(page("<li><div class=\"search-message\">No results for <b>test</b></div></li>"),
+                BASE_URI).tokenize(recorder);
+        assertEquals("No results for test", recorder.nothingFound);
+        assertTrue(recorder.types.isEmpty());
+    }
+
+    @Test
+    public void testSearchSuggestion() {
+        assertEquals("tset", new YoutubeSearchTokenizer(page(""), BASE_URI).getSearchSuggestion());
+        assertEquals("", new YoutubeSearchTokenizer("<html><body></body></html>", BASE_URI).getSearchSuggestion());
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testNoResultList() throws ExtractionException {
+        new YoutubeSearchTokenizer("<html><body><ol><li></li></ol></body></html>", BASE_URI).tokenize(new Recorder());
+    }
+}
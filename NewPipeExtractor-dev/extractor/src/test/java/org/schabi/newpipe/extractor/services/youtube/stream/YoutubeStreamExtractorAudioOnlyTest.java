@@ -0,0 +1,76 @@
+package org.schabi.newpipe.extractor.services.youtube.stream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.schabi.newpipe.Downloader;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamExtractor;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+import org.schabi.newpipe.extractor.stream.VideoStream;
+import org.schabi.newpipe.extractor.utils.Localization;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.schabi.newpipe.extractor.ExtractorAsserts.assertIsSecureUrl;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+/**
+ * Test for {@link YoutubeStreamExtractor} in audio only mode
+ */
+public class YoutubeStreamExtractorAudioOnlyTest {
+    private static YoutubeStreamExtractor extractor;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        NewPipe.init(Downloader.getInstance(), new Localization("GB", "en"));
+        extractor = (YoutubeStreamExtractor) YouTube
+                .getStreamExtractor("https://www.youtube.com/watch?v=YQHsXMglC9A");
+        extractor.setAudioOnly(true);
+        extractor.fetchPage();
+    }
+
+    @Test
+    public void testGetName() throws ParsingException {
+        assertNotNull("name is null", extractor.getName());
+        assertFalse("name is empty", extractor.getName().isEmpty());
+    }
+
+    @Test
+    public void testGetLength() throws ParsingException {
+        assertTrue(extractor.getLength() > 0);
+    }
+
+    @Test
+    public void testGetAudioStreams() throws IOException, ExtractionException {
+        assertFalse(extractor.getAudioStreams().isEmpty());
+        for (AudioStream s : extractor.getAudioStreams()) {
+            assertIsSecureUrl(s.url);
+        }
+    }
+
+    @Test
+    public void testGetVideoStreams() throws IOException, ExtractionException {
+        // the player is loaded on demand if the muxed formats are ciphered
+        for (VideoStream s : extractor.getVideoStreams()) {
+            assertIsSecureUrl(s.url);
+        }
+    }
+
+    @Test
+    public void testAgeRestrictedFallsBackToWatchPage() throws IOException, ExtractionException {
+        StreamExtractor ageRestricted = YouTube.getStreamExtractor("https://www.youtube.com/watch?v=MmBeUZqv1QA");
+        ageRestricted.setAudioOnly(true);
+        ageRestricted.fetchPage();
+        assertEquals(18, ageRestricted.getAgeLimit());
+        assertFalse(ageRestricted.getAudioStreams().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetAudioOnlyAfterFetch() {
+        extractor.setAudioOnly(false);
+    }
+}
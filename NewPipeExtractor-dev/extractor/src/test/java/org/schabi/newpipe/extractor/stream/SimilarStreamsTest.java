@@ -0,0 +1,67 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.MediaFormat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SimilarStreams}
+ */
+public class SimilarStreamsTest {
+
+    @Test
+    public void testAudioStreams() {
+        SimilarStreams streams = new SimilarStreams();
+        assertTrue(streams.add(new AudioStream("a", MediaFormat.M4A, 128)));
+        assertFalse(streams.add(new AudioStream("b", MediaFormat.M4A, 128)));
+        assertTrue(streams.add(new AudioStream("c", MediaFormat.M4A, 48)));
+        assertTrue(streams.add(new AudioStream("d", MediaFormat.WEBMA, 128)));
+
+        assertTrue(streams.contains(new AudioStream("e", MediaFormat.WEBMA, 128)));
+        assertFalse(streams.contains(new AudioStream("f", MediaFormat.OPUS, 128)));
+        assertFalse(streams.contains(null));
+        assertFalse(streams.add(null));
+    }
+
+    @Test
+    public void testVideoStreams() {
+        SimilarStreams streams = new SimilarStreams(Arrays.asList(
+                new VideoStream("a", MediaFormat.MPEG_4, "720p"),
+                new VideoStream("b", MediaFormat.MPEG_4, "1080p", true)));
+
+        assertTrue(streams.contains(new VideoStream("c", MediaFormat.MPEG_4, "720p")));
+        assertFalse(streams.contains(new VideoStream("d", MediaFormat.MPEG_4, "720p", true)));
+        assertFalse(streams.contains(new VideoStream("e", MediaFormat.MPEG_4, "1080p")));
+        assertFalse(streams.contains(new VideoStream("f", MediaFormat.WEBM, "720p")));
+        // a resolution that was never seen
+        assertFalse(streams.contains(new VideoStream("g", MediaFormat.MPEG_4, "480p")));
+        // streams of another kind are never similar
+        assertFalse(streams.contains(new AudioStream("h", MediaFormat.MPEG_4, -1)));
+    }
+
+    @Test
+    public void testSameAnswersAsContainSimilarStream() {
+        List<Stream> added = Arrays.<Stream>asList(
+                new AudioStream("a", MediaFormat.M4A, 128),
+                new VideoStream("b", MediaFormat.WEBM, "360p"),
+                new SubtitlesStream(MediaFormat.VTT, "en", "c", false),
+                new SubtitlesStream(MediaFormat.VTT, "de", "d", true));
+        List<Stream> candidates = Arrays.<Stream>asList(
+                new AudioStream("e", MediaFormat.M4A, 128),
+                new AudioStream("f", MediaFormat.M4A, 160),
+                new VideoStream("g", MediaFormat.WEBM, "360p"),
+                new VideoStream("h", MediaFormat.WEBM, "360p", true),
+                new SubtitlesStream(MediaFormat.VTT, "en", "i", false),
+                new SubtitlesStream(MediaFormat.VTT, "en", "j", true),
+                new SubtitlesStream(MediaFormat.TTML, "de", "k", true));
+
+        SimilarStreams streams = new SimilarStreams(added);
+        for (Stream candidate : candidates) {
+            assertEquals(candidate.getUrl(), Stream.containSimilarStream(candidate, added), streams.contains(candidate));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+import org.schabi.newpipe.extractor.stream.StreamType;
+import org.schabi.newpipe.extractor.stream.VideoStream;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link DashMpdParser}
+ */
+public class DashMpdParserTest {
+
+    private static final String MANIFEST = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<MPD xmlns=\"urn:mpeg:DASH:schema:MPD:2011\" type=\"static\">\n"
+            + "<Period>\n"
+            + "<AdaptationSet id=\"0\" mimeType=\"audio/mp4\">\n"
+            + "  <Representation id=\"140\" codecs=\"mp4a.40.2\" bandwidth=\"144000\">\n"
+            + "    <BaseURL>https://example.com/140?a=1&amp;b=2</BaseURL>\n"
+            + "    <SegmentBase indexRange=\"592-1000\"><Initialization range=\"0-591\"/></SegmentBase>\n"
+            + "  </Representation>\n"
+            + "  <Representation id=\"99999\"><BaseURL>https://example.com/unknown</BaseURL></Representation>\n"
+            + "</AdaptationSet>\n"
+            + "<AdaptationSet id=\"1\" mimeType=\"video/mp4\">\n"
+            + "  <Representation id=\"137\" width=\"1920\" height=\"1080\">\n"
+            + "    <BaseURL>https://example.com/137</BaseURL>\n"
+            + "  </Representation>\n"
+            + "  <Representation id=\"160\">\n"
+            + "    <BaseURL>https://example.com/160</BaseURL>\n"
+            + "    <SegmentList><SegmentURL media=\"sq/0\"/><SegmentURL media=\"sq/1\"/></SegmentList>\n"
+            + "  </Representation>\n"
+            + "  <Representation id=\"22\"><BaseURL>https://example.com/22</BaseURL></Representation>\n"
+            + "  <Representation id=\"18\"><SegmentBase/></Representation>\n"
+            + "</AdaptationSet>\n"
+            + "</Period>\n"
+            + "</MPD>";
+
+    private StreamInfo streamInfo;
+
+    @Before
+    public void setUp() {
+        streamInfo = new StreamInfo(0, "https://example.com", "https://example.com", StreamType.VIDEO_STREAM,
+                "id", "name", 0);
+        streamInfo.setAudioStreams(new ArrayList<AudioStream>());
+        streamInfo.setVideoStreams(new ArrayList<VideoStream>());
+        streamInfo.setVideoOnlyStreams(new ArrayList<VideoStream>());
+    }
+
+    @Test
+    public void testStreams() throws Exception {
+        DashMpdParser.ParserResult result = DashMpdParser.getStreams(streamInfo, new StringReader(MANIFEST));
+
+        assertEquals(1, result.getAudioStreams().size());
+        AudioStream audioStream = result.getAudioStreams().get(0);
+        assertEquals("https://example.com/140?a=1&b=2", audioStream.getUrl());
+        assertEquals(MediaFormat.M4A, audioStream.getFormat());
+        assertEquals(128, audioStream.getAverageBitrate());
+
+        assertEquals(1, result.getVideoOnlyStreams().size());
+        assertEquals("https://example.com/137", result.getVideoOnlyStreams().get(0).getUrl());
+        assertEquals("1080p", result.getVideoOnlyStreams().get(0).getResolution());
+
+        // a representation with a segment list is only known by its id
+        assertEquals(1, result.getSegmentedVideoOnlyStreams().size());
+        assertEquals("160", result.getSegmentedVideoOnlyStreams().get(0).getUrl());
+
+        // a representation without an url is skipped
+        assertEquals(1, result.getVideoStreams().size());
+        assertEquals("720p", result.getVideoStreams().get(0).getResolution());
+        assertTrue(result.getSegmentedVideoStreams().isEmpty());
+        assertTrue(result.getSegmentedAudioStreams().isEmpty());
+    }
+
+    @Test
+    public void testKnownStreamsAreSkipped() throws Exception {
+        streamInfo.setAudioStreams(Collections.singletonList(
+                new AudioStream("https://example.com/other", MediaFormat.M4A, 128)));
+        streamInfo.setVideoStreams(Collections.singletonList(
+                new VideoStream("https://example.com/other", MediaFormat.MPEG_4, "720p")));
+        // same resolution, but not video only
+        streamInfo.setVideoOnlyStreams(Collections.singletonList(
+                new VideoStream("https://example.com/other", MediaFormat.MPEG_4, "1080p", false)));
+
+        DashMpdParser.ParserResult result = DashMpdParser.getStreams(streamInfo, new StringReader(MANIFEST));
+        assertTrue(result.getAudioStreams().isEmpty());
+        assertTrue(result.getVideoStreams().isEmpty());
+        assertEquals(1, result.getVideoOnlyStreams().size());
+    }
+
+    @Test(expected = DashMpdParser.DashMpdParsingException.class)
+    public void testInvalidManifest() throws Exception {
+        DashMpdParser.getStreams(streamInfo, new StringReader("<MPD><Period></MPD>"));
+    }
+}
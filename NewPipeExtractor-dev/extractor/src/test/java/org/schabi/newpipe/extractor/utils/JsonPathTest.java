@@ -0,0 +1,80 @@
+package org.schabi.newpipe.extractor.utils;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link JsonPath}
+ */
+public class JsonPathTest {
+    private static final String JSON = "{\"response\":{\"items\":[{\"comment\":{\"id\":\"a\",\"likes\":3,\"pinned\":true}},"
+            + "{\"comment\":{\"id\":\"b\",\"likes\":0,\"pinned\":false}}],"
+            + "\"matrix\":[[1,2],[3,4]],\"empty\":null}}";
+
+    private static JsonObject json() throws Exception {
+        return JsonParser.object().from(JSON);
+    }
+
+    @Test
+    public void testTypedGetters() throws Exception {
+        JsonObject json = json();
+        assertEquals("a", JsonPath.compile("response.items[0].comment.id").getString(json));
+        assertEquals(0, JsonPath.compile("response.items[1].comment.likes").getNumber(json).intValue());
+        assertEquals(Boolean.TRUE, JsonPath.compile("response.items[0].comment.pinned").getBoolean(json));
+        assertEquals(2, JsonPath.compile("response.items").getArray(json).size());
+        assertNotNull(JsonPath.compile("response.items[1].comment").getObject(json));
+        assertEquals(4, JsonPath.compile("response.matrix[1][1]").getNumber(json).intValue());
+    }
+
+    @Test
+    public void testAbsentValuesAreNull() throws Exception {
+        JsonObject json = json();
+        assertNull(JsonPath.compile("response.missing.id").get(json));
+        assertNull(JsonPath.compile("response.items[2].comment").get(json));
+        assertNull(JsonPath.compile("response.items.comment").get(json));
+        assertNull(JsonPath.compile("response[0]").get(json));
+        assertNull(JsonPath.compile("response.empty").get(json));
+        assertNull(JsonPath.compile("response.items[0].comment.id").getNumber(json));
+        assertNull(JsonPath.compile("response").get(null));
+    }
+
+    @Test
+    public void testInvalidPaths() {
+        String[] invalid = {"", "a..b", "a.", ".a", "a[", "a[x]", "a[-1]", "a[0]b"};
+        for (String path : invalid) {
+            try {
+                JsonPath.compile(path);
+                fail("Expected \"" + path + "\" to be invalid");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testJsonUtils() throws Exception {
+        JsonObject json = json();
+        JsonArray items = JsonUtils.getArray(json, "response.items");
+        List<Object> ids = JsonUtils.getValues(items, JsonPath.compile("comment.id"));
+        assertEquals(2, ids.size());
+        assertEquals("b", ids.get(1));
+        assertSame(JsonUtils.getPath("comment.id"), JsonUtils.getPath("comment.id"));
+        assertEquals("a", JsonUtils.getString(json, "response.items[0].comment.id"));
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testJsonUtilsMissingValueInArray() throws Exception {
+        JsonUtils.getValues(JsonUtils.getArray(json(), "response.items"), "comment.title");
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testJsonUtilsInvalidPath() throws Exception {
+        JsonUtils.getValue(json(), "response..items");
+    }
+}
@@ -0,0 +1,43 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link JsonScanner}
+ */
+public class JsonScannerTest {
+
+    @Test
+    public void testExtractPlayerConfig() {
+        String page = "<script>var ytplayer = ytplayer || {};ytplayer.config = {\"args\":{\"a\":\"}});\"},"
+                + "\"assets\":{\"js\":\"/player.js\"}};ytplayer.load = function() {};</script>";
+        assertEquals("{\"args\":{\"a\":\"}});\"},\"assets\":{\"js\":\"/player.js\"}}",
+                JsonScanner.extractValueAfter(page, "ytplayer.config"));
+    }
+
+    @Test
+    public void testSkipsAnchorsWithoutValue() {
+        String page = "if (ytplayer.config.loaded) {} ytplayer.config={\"b\":[1,{\"c\":2}]};";
+        assertEquals("{\"b\":[1,{\"c\":2}]}", JsonScanner.extractValueAfter(page, "ytplayer.config"));
+    }
+
+    @Test
+    public void testEscapedQuotesAndSingleQuotes() {
+        String page = "'PLAYER_CONFIG': {\"a\":\"\\\"}\",\"b\":'}'}, 'x': 1";
+        assertEquals("{\"a\":\"\\\"}\",\"b\":'}'}", JsonScanner.extractValueAfter(page, "'PLAYER_CONFIG'"));
+    }
+
+    @Test
+    public void testArray() {
+        assertEquals("[[1],[2]]", JsonScanner.extractValueAfter("\"list\" : [[1],[2]], \"x\":3", "\"list\""));
+    }
+
+    @Test
+    public void testMissingOrUnbalanced() {
+        assertNull(JsonScanner.extractValueAfter("nothing here", "ytplayer.config"));
+        assertNull(JsonScanner.extractValueAfter("ytplayer.config = {\"a\":{}", "ytplayer.config"));
+        assertNull(JsonScanner.extractValueAfter("ytplayer.config = 3;", "ytplayer.config"));
+    }
+}
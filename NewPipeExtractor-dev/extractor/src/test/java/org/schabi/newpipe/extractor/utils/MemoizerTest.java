@@ -0,0 +1,105 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link Memoizer}
+ */
+public class MemoizerTest {
+
+    private static Memoizer.Computation<String> counting(final AtomicInteger calls, final String value) {
+        return new Memoizer.Computation<String>() {
+            @Override
+            public String compute() {
+                calls.incrementAndGet();
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testComputesOnce() throws Exception {
+        Memoizer memoizer = new Memoizer();
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("a", memoizer.get("name", counting(calls, "a")));
+        assertEquals("a", memoizer.get("name", counting(calls, "b")));
+        assertEquals(1, calls.get());
+
+        assertEquals("c", memoizer.get("other", counting(calls, "c")));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testNullIsRemembered() throws Exception {
+        Memoizer memoizer = new Memoizer();
+        AtomicInteger calls = new AtomicInteger();
+        assertNull(memoizer.get("name", counting(calls, null)));
+        assertNull(memoizer.get("name", counting(calls, "a")));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testFailureIsRemembered() {
+        Memoizer memoizer = new Memoizer();
+        final AtomicInteger calls = new AtomicInteger();
+        Memoizer.Computation<String> failing = new Memoizer.Computation<String>() {
+            @Override
+            public String compute() throws ParsingException {
+                calls.incrementAndGet();
+                throw new ParsingException("failed");
+            }
+        };
+
+        ParsingException first = null;
+        for (int i = 0; i < 3; i++) {
+            try {
+                memoizer.get("name", failing);
+                fail("Expected the remembered failure");
+            } catch (ParsingException e) {
+                if (first == null) first = e;
+                assertSame(first, e);
+            }
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        Memoizer memoizer = new Memoizer();
+        AtomicInteger calls = new AtomicInteger();
+        memoizer.get("name", counting(calls, "a"));
+        memoizer.clear();
+        assertEquals("b", memoizer.get("name", counting(calls, "b")));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testConcurrentGet() throws Exception {
+        final Memoizer memoizer = new Memoizer();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        memoizer.get("name", counting(calls, "a"));
+                    } catch (Exception ignored) {
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        assertEquals(1, calls.get());
+    }
+}
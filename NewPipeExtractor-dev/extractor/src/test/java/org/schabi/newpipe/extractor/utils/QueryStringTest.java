@@ -0,0 +1,67 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link QueryString}
+ */
+public class QueryStringTest {
+
+    @Test
+    public void testGet() {
+        QueryString query = QueryString.parse("s=AB%3DC&sp=sig&url=https%3A%2F%2Fr1.googlevideo.com%2Fvideoplayback%3Fitag%3D140");
+        assertEquals(3, query.size());
+        assertEquals("AB=C", query.get("s"));
+        assertEquals("sig", query.get("sp"));
+        assertEquals("https://r1.googlevideo.com/videoplayback?itag=140", query.get("url"));
+        assertNull(query.get("missing"));
+    }
+
+    @Test
+    public void testFirstValueWinsForGetAndLastForMap() {
+        QueryString query = QueryString.parse("v=first&v=second");
+        assertEquals("first", query.get("v"));
+        assertEquals("second", query.toMap().get("v"));
+    }
+
+    @Test
+    public void testEmptyValuesAndEncodedKeys() {
+        QueryString query = QueryString.parse("a&b=&&c+d=1+2&e=x=y");
+        assertTrue(query.containsKey("a"));
+        assertEquals("", query.get("a"));
+        assertEquals("", query.get("b"));
+        assertEquals("1 2", query.get("c d"));
+        assertEquals("x=y", query.get("e"));
+        assertEquals(4, query.size());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, QueryString.parse(null).size());
+        assertEquals(0, QueryString.parse("").size());
+        assertTrue(QueryString.parse("").toMap().isEmpty());
+    }
+
+    @Test
+    public void testCompatParseMap() throws Exception {
+        Map<String, String> map = Parser.compatParseMap("status=ok&title=Some+title%21");
+        assertEquals("ok", map.get("status"));
+        assertEquals("Some title!", map.get("title"));
+    }
+
+    @Test
+    public void testPatternCache() throws Exception {
+        String pattern = "query_string_test_(\\d+)";
+        assertEquals("1", Parser.matchGroup1(pattern, "query_string_test_1"));
+        long compiled = Parser.getPatternCompileCount();
+        long hits = Parser.getPatternHitCount();
+        assertEquals("2", Parser.matchGroup1(pattern, "query_string_test_2"));
+        assertTrue(Parser.isMatch(pattern, "query_string_test_3"));
+        assertEquals(compiled, Parser.getPatternCompileCount());
+        assertEquals(hits + 2, Parser.getPatternHitCount());
+    }
+}
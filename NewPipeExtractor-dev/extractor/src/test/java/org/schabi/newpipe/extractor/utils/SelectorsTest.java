@@ -0,0 +1,64 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link Selectors}
+ */
+public class SelectorsTest {
+    private static final Document DOC = Jsoup.parse("<div class=\"yt-lockup yt-lockup-video\">"
+            + "<h3 class=\"yt-lockup-title \"><a href=\"/watch?v=a\">First</a></h3>"
+            + "<ul class=\"yt-lockup-meta-info\"><li>1 year ago</li><li>12 views</li></ul></div>"
+            + "<div class=\"yt-lockup yt-lockup-channel\"><h3><a href=\"/channel/b\">Second</a></h3></div>",
+            "https://www.youtube.com/");
+
+    @Test
+    public void testSameResultAsElementSelect() {
+        String[] queries = {"div[class*=\"yt-lockup-video\"]", "h3 a", "ul[class*=\"yt-lockup-meta-info\"] li",
+                "a[href^=/channel]", "span", "div > h3"};
+        for (String query : queries) {
+            assertEquals(query, DOC.select(query), Selectors.select(DOC, query));
+        }
+    }
+
+    @Test
+    public void testFirst() {
+        Element video = Selectors.first(DOC, "div[class*=\"yt-lockup-video\"]");
+        assertNotNull(video);
+        assertEquals("First", Selectors.first(video, "a").text());
+        assertNull(Selectors.first(video, "span"));
+    }
+
+    @Test
+    public void testEvaluatorIsReused() {
+        assertNotNull(Selectors.getEvaluator("h3 a"));
+        assertSame(Selectors.getEvaluator("h3 a"), Selectors.getEvaluator("h3 a"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullRoot() {
+        Selectors.select(null, "a");
+    }
+
+    @Test
+    public void testInvalidQuery() {
+        Class<?> expected = null;
+        try {
+            DOC.select("div[");
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        assertNotNull(expected);
+        try {
+            Selectors.select(DOC, "div[");
+            fail("Expected an exception for an invalid query");
+        } catch (RuntimeException e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link Tasks}
+ */
+public class TasksTest {
+
+    private static Callable<String> currentThreadName() {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                return Thread.currentThread().getName();
+            }
+        };
+    }
+
+    @Test
+    public void testRunsOnExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final FutureTask<String> task = Tasks.fork(executor, currentThreadName());
+            // give the executor the chance to run it before it is joined
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get(5, TimeUnit.SECONDS);
+            assertNotEquals(Thread.currentThread().getName(), Tasks.join(task));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunsOnJoinWithoutExecutor() throws Exception {
+        assertEquals(Thread.currentThread().getName(), Tasks.join(Tasks.fork(null, currentThreadName())));
+    }
+
+    @Test
+    public void testRunsOnJoinIfRejected() throws Exception {
+        final Executor rejecting = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        assertEquals(Thread.currentThread().getName(), Tasks.join(Tasks.fork(rejecting, currentThreadName())));
+    }
+
+    @Test
+    public void testJoinInsideOfBusyExecutor() throws Exception {
+        // the only thread of the executor waits for a task which can only run on the joining thread
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final FutureTask<String> outer = Tasks.fork(executor, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    started.countDown();
+                    return Tasks.join(Tasks.fork(executor, currentThreadName()));
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertNotNull(Tasks.join(outer));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testExceptionIsUnwrapped() throws Exception {
+        Tasks.join(Tasks.fork(null, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                throw new IOException("failed");
+            }
+        }));
+    }
+}
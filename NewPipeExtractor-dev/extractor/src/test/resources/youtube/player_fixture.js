@@ -0,0 +1,13 @@
+// hand-written player with the shape of a real one, for checking results; not for timing
+var _yt_player={};(function(g){var window=this;var aa=function(a){var b=0;return function(){return b<a.length?{done:!1,value:a[b++]}:{done:!0}}},ba=function(a){var b="undefined"!=typeof Symbol&&Symbol.iterator&&a[Symbol.iterator];return b?b.call(a):{next:aa(a)}},ca="function"==typeof Object.defineProperties?Object.defineProperty:function(a,b,c){a!=Array.prototype&&a!=Object.prototype&&(a[b]=c.value)};
+var da=function(a){a=["object"==typeof window&&window,"object"==typeof self&&self,"object"==typeof global&&global,a];for(var b=0;b<a.length;++b){var c=a[b];if(c&&c.Math==Math)return c}return globalThis},ea=da(this);
+var fa=function(a,b){if(b){var c=ea;a=a.split(".");for(var d=0;d<a.length-1;d++){var e=a[d];e in c||(c[e]={});c=c[e]}a=a[a.length-1];d=c[a];b=b(d);b!=d&&null!=b&&ca(c,a,{configurable:!0,writable:!0,value:b})}};
+var Xy={ZE:function(a){a.reverse()},
+sH:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c},
+w5:function(a,b){a.splice(0,b)}};
+var Gy=function(a){a=a.split("");Xy.w5(a,2);Xy.sH(a,35);Xy.ZE(a,22);Xy.sH(a,64);Xy.w5(a,3);return a.join("")};
+g.Yq=function(a,b){this.j=a;this.C=b||{};this.sig="";this.L=!1};
+var Zq=function(a,b,c){b=a.C;c=a.j;var d=new g.Yq(c);b.s&&(c=b.sp||"signature",d.set(c,Gy(b.s)));return d};
+g.$q=function(a){var b=a.C;b.url&&(a=b.url);var c=b.sp,d=b.s;c&&d&&(a=a+"&"+c+"="+encodeURIComponent(Gy(d)));return a};
+var ar=function(a,b,c){c&&d.set(b,encodeURIComponent(Gy(c)));return a};
+})(_yt_player);